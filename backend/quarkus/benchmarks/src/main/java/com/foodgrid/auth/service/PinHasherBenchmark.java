@@ -0,0 +1,45 @@
+package com.foodgrid.auth.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt PIN hashing and verification used by POS PIN login. Each call takes hundreds of milliseconds
+ * by design, so iterations are few and long.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PinHasherBenchmark {
+
+  private final PinHasher hasher = new PinHasher();
+  private String hash;
+
+  @Setup
+  public void setup() {
+    hash = hasher.hash("482913");
+  }
+
+  @Benchmark
+  public String hash() {
+    return hasher.hash("482913");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return hasher.matches("482913", hash);
+  }
+}
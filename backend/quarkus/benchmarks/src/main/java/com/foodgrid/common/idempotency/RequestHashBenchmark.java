@@ -0,0 +1,47 @@
+package com.foodgrid.common.idempotency;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency request hashing, run on every keyed POS and payment request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestHashBenchmark {
+
+  /** Approximate request body size in characters. */
+  @Param({"256", "4096"})
+  int size;
+
+  private String body;
+
+  @Setup
+  public void setup() {
+    final StringBuilder sb = new StringBuilder("{\"items\":[");
+    for (int i = 0; sb.length() < size; i++) {
+      sb.append("{\"itemId\":\"item-").append(i).append("\",\"qty\":2},");
+    }
+    body = sb.append("]}").toString();
+  }
+
+  @Benchmark
+  public String sha256Hex() {
+    return RequestHash.sha256Hex(body);
+  }
+}
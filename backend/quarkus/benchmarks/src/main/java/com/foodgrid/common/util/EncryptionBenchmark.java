@@ -0,0 +1,62 @@
+package com.foodgrid.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway credential encryption and decryption with the startup key ring.
+ *
+ * {@link #deriveKey} is the PBKDF2 derivation that used to run on every call; it is kept as the baseline
+ * the key ring is measured against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    private static final String SECRET = "rzp_live_secret_0123456789abcdefghijkl";
+
+    private EncryptionUtil encryption;
+    private String ciphertext;
+
+    @Setup
+    public void setup() {
+        encryption = new EncryptionUtil();
+        encryption.masterKey = "benchmark-master-key";
+        encryption.activeKeyId = "k1";
+        encryption.retiredKeyIds = Optional.empty();
+        encryption.init();
+        ciphertext = encryption.encrypt(SECRET);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryption.encrypt(SECRET);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryption.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SecretKey deriveKey() {
+        return EncryptionUtil.deriveKey("benchmark-master-key");
+    }
+}
@@ -0,0 +1,33 @@
+package com.foodgrid.payment.gateway.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Razorpay payment signature computation, run for every payment verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewaySignatureBenchmark {
+
+    private final String payload = "order_Nq1x2y3z4a5b6c|pay_Nq1x9y8z7a6b5c";
+    private final String secret = "rzp_test_secret_0123456789abcdef";
+
+    @Benchmark
+    public String razorpayHmacSha256() throws Exception {
+        return RazorpayGateway.generateHmacSha256(payload, secret);
+    }
+}
@@ -0,0 +1,69 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.pos.model.Order;
+import com.foodgrid.pos.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money rounding and the order totals reduction run on every POS line mutation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalsBenchmark {
+
+  @Param({"5", "50"})
+  int lines;
+
+  private BigDecimal amount;
+  private List<OrderItem> items;
+
+  @Setup
+  public void setup() {
+    amount = new BigDecimal("1234.5678");
+    items = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++) {
+      final OrderItem oi = new OrderItem();
+      oi.qty = BigDecimal.valueOf(1 + i % 3);
+      oi.unitPrice = new BigDecimal("149.50");
+      oi.lineTotal = OrderPosService.money(oi.qty.multiply(oi.unitPrice));
+      oi.status = i % 10 == 9 ? OrderItem.Status.CANCELLED : OrderItem.Status.OPEN;
+      items.add(oi);
+    }
+  }
+
+  @Benchmark
+  public BigDecimal moneyZero() {
+    return OrderPosService.moneyZero();
+  }
+
+  @Benchmark
+  public BigDecimal money() {
+    return OrderPosService.money(amount);
+  }
+
+  @Benchmark
+  public Order applyTotals() {
+    final Order o = new Order();
+    OrderPosService.applyTotals(o, items);
+    return o;
+  }
+}
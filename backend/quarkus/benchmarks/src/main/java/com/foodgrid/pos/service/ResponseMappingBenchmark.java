@@ -0,0 +1,183 @@
+package com.foodgrid.pos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.foodgrid.common.storage.ImageUploadService;
+import com.foodgrid.pos.dto.MenuItemResponse;
+import com.foodgrid.pos.dto.OrderItemResponse;
+import com.foodgrid.pos.dto.OrderResponse;
+import com.foodgrid.pos.model.Ingredient;
+import com.foodgrid.pos.model.MenuItem;
+import com.foodgrid.pos.model.MenuItemImage;
+import com.foodgrid.pos.model.MenuItemRecipe;
+import com.foodgrid.pos.model.Order;
+import com.foodgrid.pos.model.OrderItem;
+import com.foodgrid.pos.model.UnitOfMeasure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and JSON serialization of {@link OrderResponse} and {@link MenuItemResponse},
+ * the two payloads behind the POS order screens and the menu catalog.
+ *
+ * The mapper mirrors the Quarkus defaults (java.time support, ISO-8601 dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+  @Param({"5", "50"})
+  int lines;
+
+  private final ObjectMapper mapper = JsonMapper.builder()
+    .addModule(new JavaTimeModule())
+    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+    .build();
+
+  private Order order;
+  private List<OrderItem> orderItems;
+  private Map<String, String> outletNames;
+  private Map<String, String> tableNames;
+  private OrderResponse orderResponse;
+
+  private MenuCatalogCache catalog;
+  private MenuItem menuItem;
+  private List<MenuItemImage> images;
+  private List<MenuItemRecipe> recipes;
+  private Map<String, Ingredient> ingredients;
+  private Map<String, UnitOfMeasure> units;
+  private MenuItemResponse menuItemResponse;
+
+  @Setup
+  public void setup() {
+    order = new Order();
+    order.id = "ord-1";
+    order.outletId = "outlet-1";
+    order.deviceId = "device-1";
+    order.shiftId = "shift-1";
+    order.employeeId = "emp-1";
+    order.tableId = "table-1";
+    order.orderType = Order.OrderType.DINE_IN;
+    order.status = Order.Status.OPEN;
+    order.createdAt = Instant.parse("2025-01-01T12:00:00Z");
+
+    orderItems = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++) {
+      final OrderItem oi = new OrderItem();
+      oi.id = "oi-" + i;
+      oi.orderId = order.id;
+      oi.itemId = "item-" + i;
+      oi.itemName = "Paneer Tikka " + i;
+      oi.qty = BigDecimal.valueOf(2);
+      oi.unitPrice = new BigDecimal("249.00");
+      oi.lineTotal = OrderPosService.money(oi.qty.multiply(oi.unitPrice));
+      oi.status = OrderItem.Status.OPEN;
+      orderItems.add(oi);
+    }
+    OrderPosService.applyTotals(order, orderItems);
+    outletNames = Map.of(order.outletId, "Koramangala");
+    tableNames = Map.of(order.tableId, "T1");
+    orderResponse = mapOrder();
+
+    catalog = new MenuCatalogCache();
+    catalog.imageUploadService = new ImageUploadService() {
+      @Override
+      public String getImageUrl(final String filePath) {
+        return filePath == null ? null : "https://cdn.foodgrid.test/" + filePath;
+      }
+    };
+
+    menuItem = new MenuItem();
+    menuItem.id = "item-1";
+    menuItem.outletId = order.outletId;
+    menuItem.categoryId = "cat-1";
+    menuItem.name = "Paneer Tikka";
+    menuItem.description = "Cottage cheese marinated in spiced yoghurt, grilled in a tandoor";
+    menuItem.isVeg = true;
+    menuItem.basePrice = new BigDecimal("249.00");
+    menuItem.status = MenuItem.Status.ACTIVE;
+
+    images = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final MenuItemImage img = new MenuItemImage();
+      img.id = "img-" + i;
+      img.menuItemId = menuItem.id;
+      img.imageUrl = "menu/outlet-1/item-1/" + i + ".webp";
+      img.sortOrder = i;
+      img.isPrimary = i == 0;
+      images.add(img);
+    }
+
+    recipes = new ArrayList<>();
+    ingredients = new HashMap<>();
+    units = new HashMap<>();
+    final UnitOfMeasure gram = new UnitOfMeasure();
+    gram.id = "uom-g";
+    gram.name = "Gram";
+    gram.abbreviation = "g";
+    units.put(gram.id, gram);
+    for (int i = 0; i < 8; i++) {
+      final Ingredient ing = new Ingredient();
+      ing.id = "ing-" + i;
+      ing.name = "Ingredient " + i;
+      ingredients.put(ing.id, ing);
+
+      final MenuItemRecipe recipe = new MenuItemRecipe();
+      recipe.id = "rcp-" + i;
+      recipe.menuItemId = menuItem.id;
+      recipe.ingredientId = ing.id;
+      recipe.unitId = gram.id;
+      recipe.quantity = new BigDecimal("25.000");
+      recipe.sortOrder = i;
+      recipes.add(recipe);
+    }
+    menuItemResponse = mapMenuItem();
+  }
+
+  @Benchmark
+  public OrderResponse mapOrder() {
+    final List<OrderItemResponse> items = new ArrayList<>(orderItems.size());
+    for (final OrderItem oi : orderItems) {
+      items.add(OrderHydrator.toResponse(oi, null));
+    }
+    return OrderHydrator.toResponse(order, items, outletNames, tableNames);
+  }
+
+  @Benchmark
+  public byte[] serializeOrder() throws Exception {
+    return mapper.writeValueAsBytes(orderResponse);
+  }
+
+  @Benchmark
+  public MenuItemResponse mapMenuItem() {
+    return catalog.toResponse(menuItem, "Starters", images, recipes, ingredients, units);
+  }
+
+  @Benchmark
+  public byte[] serializeMenuItem() throws Exception {
+    return mapper.writeValueAsBytes(menuItemResponse);
+  }
+}
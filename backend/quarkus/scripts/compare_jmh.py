@@ -0,0 +1,56 @@
+#!/usr/bin/env python3
+import json
+import sys
+
+# ==============================================================================
+# FoodGrid - JMH result comparison
+#
+# Usage: python3 compare_jmh.py BASELINE.json CANDIDATE.json [THRESHOLD_PCT]
+# Compares two benchmarks/target/jmh/foodgrid-<version>.json runs and exits 1
+# when any benchmark got slower than THRESHOLD_PCT (default 10).
+# ==============================================================================
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for r in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(r.get("params", {}).items()))
+            name = r["benchmark"].replace("com.foodgrid.", "") + (f" [{params}]" if params else "")
+            metric = r["primaryMetric"]
+            results[name] = (metric["score"], metric["scoreError"], metric["scoreUnit"])
+        return results
+
+
+def main():
+    if len(sys.argv) < 3:
+        print("Usage: compare_jmh.py BASELINE.json CANDIDATE.json [THRESHOLD_PCT]")
+        sys.exit(2)
+
+    baseline = load(sys.argv[1])
+    candidate = load(sys.argv[2])
+    threshold = float(sys.argv[3]) if len(sys.argv) > 3 else 10.0
+
+    regressions = 0
+    print(f"{'benchmark':<70} {'baseline':>14} {'candidate':>14} {'change':>8}")
+    for name in sorted(set(baseline) | set(candidate)):
+        if name not in baseline or name not in candidate:
+            print(f"{name:<70} {'only in ' + ('baseline' if name in baseline else 'candidate'):>38}")
+            continue
+        base, _, unit = baseline[name]
+        cand, cand_err, _ = candidate[name]
+        # AverageTime scores: higher is slower
+        change = (cand - base) / base * 100 if base else 0.0
+        flag = ""
+        if change > threshold and cand - cand_err > base:
+            flag = "  REGRESSION"
+            regressions += 1
+        print(f"{name:<70} {base:>10.3f} {unit:<3} {cand:>10.3f} {unit:<3} {change:>+7.1f}%{flag}")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) slower than {threshold:.0f}%")
+        sys.exit(1)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,375 @@
+#!/usr/bin/env python3
+import argparse
+import json
+import random
+import re
+import subprocess
+import sys
+import threading
+import time
+import urllib.error
+import urllib.request
+import uuid
+from decimal import Decimal
+
+import stub_server
+
+# ==============================================================================
+# FoodGrid - Restaurant-day load generator
+#
+# Usage:
+#   python3 loadgen.py --manifest dataset.json --duration 300 --pos-workers 24 --customer-workers 40 \
+#       --mysql-cmd "docker exec -i foodgrid-mysql mysql -uroot -pfoodgrid -N foodgrid_db"
+#
+# Replays a POS and customer mix against a backend started with -Dquarkus.profile=loadtest:
+#   POS:      create order, add items, KOT, poll, serve, bill, pay, list recent orders
+#   Customer: browse menu (with ETags), place takeaway order, poll order and payment status
+# The gateway/email stub is started in-process unless --no-stub is given.
+#
+# Writes per-endpoint latency percentiles, error counts, SQL statements per request (when the
+# backend sends X-Sql-Statements) and (with --mysql-cmd) the MySQL
+# statement counter deltas for the run to --report (JSON) and a Markdown summary beside it.
+# ==============================================================================
+
+ID_PATTERN = re.compile(r"/[0-9a-fA-F]{8}-[0-9a-fA-F-]{27}")
+DB_COUNTERS = ["Questions", "Com_select", "Com_insert", "Com_update", "Com_delete", "Com_commit"]
+
+
+class Stats:
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.latencies = {}
+        self.errors = {}
+        self.statements = {}
+
+    def record(self, endpoint, millis, status, statements=None):
+        with self.lock:
+            self.latencies.setdefault(endpoint, []).append(millis)
+            if statements is not None:
+                self.statements.setdefault(endpoint, []).append(statements)
+            if status >= 400 or status == 0:
+                key = (endpoint, status)
+                self.errors[key] = self.errors.get(key, 0) + 1
+
+    def summary(self, elapsed):
+        rows = []
+        with self.lock:
+            for endpoint, values in sorted(self.latencies.items()):
+                values = sorted(values)
+                errors = sum(n for (e, _), n in self.errors.items() if e == endpoint)
+                sql = self.statements.get(endpoint)
+                rows.append({
+                    "endpoint": endpoint,
+                    "count": len(values),
+                    "errors": errors,
+                    "rps": round(len(values) / elapsed, 2),
+                    "p50": percentile(values, 50),
+                    "p90": percentile(values, 90),
+                    "p95": percentile(values, 95),
+                    "p99": percentile(values, 99),
+                    "max": round(values[-1], 1),
+                    "sqlAvg": round(sum(sql) / len(sql), 1) if sql else None,
+                    "sqlMax": max(sql) if sql else None,
+                })
+            errors = [{"endpoint": e, "status": s, "count": n} for (e, s), n in sorted(self.errors.items())]
+        return rows, errors
+
+
+def percentile(sorted_values, pct):
+    if not sorted_values:
+        return 0.0
+    k = max(0, min(len(sorted_values) - 1, int(round(pct / 100 * len(sorted_values) + 0.5)) - 1))
+    return round(sorted_values[k], 1)
+
+
+class Client:
+    def __init__(self, base_url, stats, timeout):
+        self.base_url = base_url.rstrip("/")
+        self.stats = stats
+        self.timeout = timeout
+        self.token = None
+        self.etags = {}
+
+    def call(self, method, path, body=None, headers=None, label=None):
+        """Returns (status, parsed body); latency is recorded against the normalized path."""
+        endpoint = label or f"{method} {ID_PATTERN.sub('/{id}', path.split('?')[0])}"
+        data = json.dumps(body).encode() if body is not None else None
+        req = urllib.request.Request(self.base_url + path, data=data, method=method)
+        req.add_header("Accept", "application/json")
+        if data is not None:
+            req.add_header("Content-Type", "application/json")
+        if self.token:
+            req.add_header("Authorization", f"Bearer {self.token}")
+        etag = self.etags.get(path) if method == "GET" else None
+        if etag:
+            req.add_header("If-None-Match", etag)
+        for k, v in (headers or {}).items():
+            req.add_header(k, v)
+
+        start = time.perf_counter()
+        status, payload, statements = 0, None, None
+        try:
+            with urllib.request.urlopen(req, timeout=self.timeout) as resp:
+                status = resp.status
+                statements = sql_statements(resp.headers)
+                raw = resp.read()
+                if resp.headers.get("ETag"):
+                    self.etags[path] = resp.headers["ETag"]
+                payload = json.loads(raw) if raw else None
+        except urllib.error.HTTPError as e:
+            status = e.code
+            statements = sql_statements(e.headers)
+            e.read()
+        except (urllib.error.URLError, TimeoutError, ConnectionError):
+            status = 0
+        self.stats.record(endpoint, (time.perf_counter() - start) * 1000, status, statements)
+        return status, payload
+
+
+def sql_statements(headers):
+    """X-Sql-Statements from the backend (foodgrid.sql-stats.headers, on in the loadtest profile)."""
+    value = headers.get("X-Sql-Statements") if headers else None
+    return int(value) if value and value.isdigit() else None
+
+
+class Worker(threading.Thread):
+    def __init__(self, name, args, stats, deadline):
+        super().__init__(name=name, daemon=True)
+        self.args = args
+        self.rng = random.Random(f"{args.seed}:{name}")
+        self.client = Client(args.base_url, stats, args.timeout)
+        self.deadline = deadline
+
+    def think(self, scale=1.0):
+        time.sleep(self.rng.uniform(0.5, 1.5) * self.args.think_time * scale)
+
+    def run(self):
+        try:
+            if not self.login():
+                return
+            while time.monotonic() < self.deadline:
+                self.session()
+        except Exception as e:  # keep other workers running
+            print(f"[LOAD] {self.name} stopped: {e}", file=sys.stderr)
+
+
+class PosWorker(Worker):
+    def __init__(self, name, args, stats, deadline, outlet, slot):
+        super().__init__(name, args, stats, deadline)
+        self.outlet = outlet
+        self.device = outlet["devices"][slot % len(outlet["devices"])]
+        self.employee = outlet["cashiers"][slot % len(outlet["cashiers"])]
+
+    def login(self):
+        status, body = self.client.call("POST", "/api/v1/auth/login/pin",
+                                        {"employeeId": self.employee, "pin": self.args.pin, "deviceId": self.device})
+        if status != 200:
+            print(f"[LOAD] {self.name}: PIN login failed with HTTP {status}", file=sys.stderr)
+            return False
+        self.client.token = body["accessToken"]
+        return True
+
+    def session(self):
+        """One guest party: order, kitchen ticket, serve, bill, pay."""
+        c = self.client
+        dine_in = self.rng.random() < 0.65
+        request = {"orderType": "DINE_IN" if dine_in else "TAKEAWAY",
+                   "tableId": self.rng.choice(self.outlet["tables"]) if dine_in else None}
+        status, order = c.call("POST", "/api/v1/pos/orders", request)
+        if status != 200:
+            return self.think()
+        order_id = order["id"]
+
+        for item in self.rng.sample(self.outlet["menuItems"], self.rng.choice([1, 2, 2, 3, 3, 4, 5])):
+            self.think(0.3)
+            c.call("POST", f"/api/v1/pos/orders/{order_id}/items",
+                   {"itemId": item["id"], "qty": self.rng.choices([1, 2, 3], weights=[70, 25, 5])[0]})
+
+        if self.rng.random() < 0.03:
+            c.call("DELETE", f"/api/v1/pos/orders/{order_id}")
+            return self.think()
+
+        if dine_in:
+            c.call("POST", f"/api/v1/pos/orders/{order_id}/status/KOT_SENT")
+            for _ in range(self.rng.randint(1, 3)):
+                self.think(0.5)
+                c.call("GET", f"/api/v1/pos/orders/{order_id}")
+            c.call("POST", f"/api/v1/pos/orders/{order_id}/serve")
+
+        self.think(0.5)
+        status, billed = c.call("POST", f"/api/v1/pos/orders/{order_id}/bill")
+        if status == 200:
+            c.call("POST", f"/api/v1/pos/orders/{order_id}/payments",
+                   {"method": self.rng.choices(["CASH", "CARD", "UPI"], weights=[25, 30, 45])[0],
+                    "amount": str(Decimal(str(billed["grandTotal"])))},
+                   headers={"Idempotency-Key": str(uuid.uuid4())})
+
+        if self.rng.random() < 0.3:
+            c.call("GET", f"/api/v1/pos/orders?limit=50&outletId={self.outlet['id']}")
+        self.think()
+
+
+class CustomerWorker(Worker):
+    def __init__(self, name, args, stats, deadline, outlets, customer):
+        super().__init__(name, args, stats, deadline)
+        self.outlets = outlets
+        self.customer = customer
+
+    def login(self):
+        status, body = self.client.call("POST", "/api/v1/customer/auth/login-passkey", self.customer)
+        if status != 200:
+            print(f"[LOAD] {self.name}: customer login failed with HTTP {status}", file=sys.stderr)
+            return False
+        self.client.token = body["token"]
+        return True
+
+    def session(self):
+        """Browse a menu; some visits turn into a takeaway order that is then tracked."""
+        c = self.client
+        outlet = self.rng.choice(self.outlets)
+        c.call("GET", f"/api/v1/customer/outlets/{outlet['id']}")
+        c.call("GET", f"/api/v1/customer/outlets/{outlet['id']}/menu/categories")
+        for _ in range(self.rng.randint(1, 3)):
+            self.think(0.3)
+            c.call("GET", f"/api/v1/customer/outlets/{outlet['id']}/menu/items")
+
+        if self.rng.random() < self.args.customer_order_rate:
+            items = [{"itemId": i["id"], "qty": 1} for i in self.rng.sample(outlet["menuItems"], self.rng.randint(1, 3))]
+            status, order = c.call("POST", f"/api/v1/customer/orders?outletId={outlet['id']}",
+                                   {"orderType": "TAKEAWAY", "orderItems": items},
+                                   headers={"Idempotency-Key": str(uuid.uuid4())})
+            if status == 200:
+                for _ in range(self.rng.randint(2, 5)):
+                    self.think(0.5)
+                    c.call("GET", f"/api/v1/customer/orders/{order['id']}")
+                    c.call("GET", f"/api/v1/customer/payments/order/{order['id']}/status")
+        self.think(2.0)
+
+
+def mysql_counters(cmd):
+    if not cmd:
+        return None
+    names = ", ".join(f"'{n}'" for n in DB_COUNTERS)
+    try:
+        out = subprocess.run(cmd, shell=True, input=f"SHOW GLOBAL STATUS WHERE Variable_name IN ({names});",
+                             capture_output=True, text=True, timeout=30, check=True).stdout
+    except (subprocess.SubprocessError, OSError) as e:
+        print(f"[LOAD] Could not read MySQL counters: {e}", file=sys.stderr)
+        return None
+    counters = {}
+    for line in out.splitlines():
+        parts = line.split()
+        if len(parts) == 2 and parts[1].isdigit():
+            counters[parts[0]] = int(parts[1])
+    return counters
+
+
+def write_report(path, meta, rows, errors, db, stubs):
+    report = {"run": meta, "endpoints": rows, "errors": errors, "database": db, "stubCalls": stubs}
+    with open(path, "w") as f:
+        json.dump(report, f, indent=2)
+
+    lines = [f"# FoodGrid load test - {meta['startedAt']}", "",
+             f"Duration {meta['durationSeconds']}s, {meta['posWorkers']} POS and {meta['customerWorkers']} customer "
+             f"workers, {meta['requests']} requests ({meta['rps']} req/s), {meta['errors']} errors.", "",
+             "| Endpoint | Count | Errors | req/s | p50 ms | p90 ms | p95 ms | p99 ms | max ms |",
+             "|---|---:|---:|---:|---:|---:|---:|---:|---:|"]
+    for r in rows:
+        lines.append(f"| `{r['endpoint']}` | {r['count']} | {r['errors']} | {r['rps']} | {r['p50']} | {r['p90']} "
+                     f"| {r['p95']} | {r['p99']} | {r['max']} |")
+    sql_rows = [r for r in rows if r["sqlAvg"] is not None]
+    if sql_rows:
+        lines += ["", "## SQL statements per request", "",
+                  "From the backend's `X-Sql-Statements` header.", "",
+                  "| Endpoint | Avg | Max |", "|---|---:|---:|"]
+        lines += [f"| `{r['endpoint']}` | {r['sqlAvg']} | {r['sqlMax']} |"
+                  for r in sorted(sql_rows, key=lambda r: -r["sqlAvg"])]
+    if db:
+        lines += ["", "## MySQL statements during the run", "",
+                  "Global counters, so they include any other client of the server.", "",
+                  "| Counter | Delta | Per request |", "|---|---:|---:|"]
+        for name, delta in db["delta"].items():
+            lines.append(f"| {name} | {delta} | {db['perRequest'][name]} |")
+    if errors:
+        lines += ["", "## Errors", "", "| Endpoint | Status | Count |", "|---|---:|---:|"]
+        lines += [f"| `{e['endpoint']}` | {e['status'] or 'no response'} | {e['count']} |" for e in errors]
+    with open(path.rsplit(".", 1)[0] + ".md", "w") as f:
+        f.write("\n".join(lines) + "\n")
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Replay a restaurant-day request mix against FoodGrid.")
+    parser.add_argument("--base-url", default="http://localhost:8080")
+    parser.add_argument("--manifest", default="dataset.json", help="written by seed_dataset.py")
+    parser.add_argument("--duration", type=int, default=300, help="seconds")
+    parser.add_argument("--ramp-up", type=int, default=30, help="seconds over which workers start")
+    parser.add_argument("--pos-workers", type=int, default=16, help="concurrent POS terminals")
+    parser.add_argument("--customer-workers", type=int, default=24, help="concurrent customer app users")
+    parser.add_argument("--customer-order-rate", type=float, default=0.3, help="share of customer visits that order")
+    parser.add_argument("--think-time", type=float, default=1.0, help="mean seconds between user actions")
+    parser.add_argument("--timeout", type=float, default=30.0, help="per-request timeout in seconds")
+    parser.add_argument("--pin", default=None, help="cashier PIN (default from manifest)")
+    parser.add_argument("--mysql-cmd", help="shell command that runs mysql -N against the FoodGrid database")
+    parser.add_argument("--stub-port", type=int, default=8089)
+    parser.add_argument("--no-stub", action="store_true", help="do not start the gateway/email stub")
+    parser.add_argument("--seed", type=int, default=7)
+    parser.add_argument("--report", default="loadtest-report.json")
+    args = parser.parse_args()
+
+    with open(args.manifest) as f:
+        manifest = json.load(f)
+    args.pin = args.pin or manifest["pin"]
+    outlets = manifest["outlets"]
+    customers = manifest.get("customers", [])
+
+    stub = None if args.no_stub else stub_server.start(args.stub_port)
+    stats = Stats()
+    before = mysql_counters(args.mysql_cmd)
+    started_at = time.strftime("%Y-%m-%dT%H:%M:%S")
+    start = time.monotonic()
+    deadline = start + args.duration
+
+    workers = [PosWorker(f"pos-{i}", args, stats, deadline, outlets[i % len(outlets)], i // len(outlets))
+               for i in range(args.pos_workers)]
+    if customers:
+        workers += [CustomerWorker(f"customer-{i}", args, stats, deadline, outlets, customers[i % len(customers)])
+                    for i in range(args.customer_workers)]
+    print(f"[LOAD] Starting {len(workers)} workers for {args.duration}s against {args.base_url}")
+    for w in workers:
+        w.start()
+        time.sleep(args.ramp_up / max(1, len(workers)))
+        if time.monotonic() >= deadline:
+            break
+    while time.monotonic() < deadline:
+        time.sleep(min(10, max(0.1, deadline - time.monotonic())))
+        with stats.lock:
+            done = sum(len(v) for v in stats.latencies.values())
+        print(f"[LOAD] {int(time.monotonic() - start)}s: {done} requests")
+    for w in workers:
+        w.join(timeout=args.timeout)
+
+    elapsed = time.monotonic() - start
+    after = mysql_counters(args.mysql_cmd)
+    rows, errors = stats.summary(elapsed)
+    total = sum(r["count"] for r in rows)
+    db = None
+    if before and after:
+        delta = {n: after.get(n, 0) - before.get(n, 0) for n in DB_COUNTERS}
+        db = {"delta": delta, "perRequest": {n: round(v / max(1, total), 2) for n, v in delta.items()}}
+    meta = {"startedAt": started_at, "baseUrl": args.base_url, "durationSeconds": round(elapsed, 1),
+            "posWorkers": args.pos_workers, "customerWorkers": args.customer_workers if customers else 0,
+            "requests": total, "rps": round(total / elapsed, 1), "errors": sum(e["count"] for e in errors)}
+    write_report(args.report, meta, rows, errors, db, stub_server.STATE.snapshot() if stub else None)
+
+    print(f"\n{'endpoint':<58} {'count':>7} {'err':>5} {'p50':>8} {'p95':>8} {'p99':>8}")
+    for r in rows:
+        print(f"{r['endpoint']:<58} {r['count']:>7} {r['errors']:>5} {r['p50']:>8} {r['p95']:>8} {r['p99']:>8}")
+    if db:
+        print(f"\nMySQL Questions per request: {db['perRequest']['Questions']}")
+    print(f"\n[LOAD] Report written to {args.report}")
+    if stub:
+        stub.shutdown()
+
+
+if __name__ == "__main__":
+    main()
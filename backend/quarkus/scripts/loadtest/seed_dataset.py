@@ -0,0 +1,381 @@
+#!/usr/bin/env python3
+import argparse
+import json
+import random
+import sys
+import uuid
+from datetime import datetime, timedelta, timezone
+from decimal import Decimal, ROUND_HALF_UP
+
+# ==============================================================================
+# FoodGrid - Synthetic dataset seeder for load testing
+#
+# Usage:
+#   python3 seed_dataset.py --tenants 3 --outlets 2 --days 90 --orders-per-day 150 \
+#       --manifest dataset.json | docker exec -i foodgrid-mysql mysql -uroot -pfoodgrid foodgrid_db
+#
+# Writes plain SQL to stdout (or --out) for tenants, outlets, POS devices and staff,
+# menus with recipes, ingredients, tables, customers and --days of order, payment and
+# stock movement history, then fills the sales rollup tables from that history. Start the
+# backend once against the database first so that Hibernate and Liquibase have created the
+# schema.
+#
+# The manifest lists the ids the load generator needs (outlets, devices, cashiers,
+# tables, menu items, customers). Every seeded cashier uses PIN 246810.
+# ==============================================================================
+
+PIN = "246810"
+# BCrypt (cost 12) of PIN, as produced by PinHasher
+PIN_HASH = "$2a$12$d5BiOTMRV07Ax0Ko6O7moeK8wSYZyl1m/YMbI/0UC4yAA6iA6TA12"
+
+CATEGORIES = {
+    "Starters": [("Paneer Tikka", True, 249), ("Chicken 65", False, 279), ("Hara Bhara Kebab", True, 219),
+                 ("Fish Amritsari", False, 329), ("Crispy Corn", True, 199), ("Chicken Seekh Kebab", False, 299)],
+    "Mains": [("Dal Makhani", True, 269), ("Butter Chicken", False, 349), ("Paneer Butter Masala", True, 299),
+              ("Mutton Rogan Josh", False, 429), ("Kadai Vegetable", True, 259), ("Chicken Biryani", False, 319),
+              ("Veg Biryani", True, 269), ("Palak Paneer", True, 279)],
+    "Breads": [("Butter Naan", True, 59), ("Garlic Naan", True, 69), ("Tandoori Roti", True, 39),
+               ("Laccha Paratha", True, 69)],
+    "Beverages": [("Masala Chai", True, 49), ("Cold Coffee", True, 139), ("Fresh Lime Soda", True, 89),
+                  ("Mango Lassi", True, 119), ("Filter Coffee", True, 69)],
+    "Desserts": [("Gulab Jamun", True, 99), ("Rasmalai", True, 129), ("Kulfi", True, 109),
+                 ("Brownie with Ice Cream", True, 179)],
+}
+
+INGREDIENTS = [
+    ("Paneer", "g", 0.38), ("Chicken", "g", 0.28), ("Mutton", "g", 0.65), ("Fish", "g", 0.45),
+    ("Basmati Rice", "g", 0.11), ("Wheat Flour", "g", 0.04), ("Refined Flour", "g", 0.05), ("Butter", "g", 0.52),
+    ("Cream", "ml", 0.24), ("Milk", "ml", 0.06), ("Curd", "g", 0.08), ("Onion", "g", 0.03),
+    ("Tomato", "g", 0.04), ("Ginger Garlic Paste", "g", 0.12), ("Spinach", "g", 0.05), ("Black Lentils", "g", 0.14),
+    ("Sweet Corn", "g", 0.09), ("Mixed Vegetables", "g", 0.07), ("Garam Masala", "g", 0.9), ("Cooking Oil", "ml", 0.15),
+    ("Sugar", "g", 0.045), ("Tea Leaves", "g", 0.6), ("Coffee Powder", "g", 1.2), ("Mango Pulp", "ml", 0.18),
+    ("Lime", "pc", 3.0), ("Soda", "ml", 0.04), ("Khoya", "g", 0.42), ("Ice Cream", "ml", 0.22),
+]
+
+UNITS = {"g": ("Gram", "WEIGHT"), "ml": ("Millilitre", "VOLUME"), "pc": ("Piece", "COUNT")}
+
+# Share of a day's orders placed in each hour (local time), lunch and dinner peaks
+HOURLY_WEIGHTS = [0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 3, 5, 9, 11, 8, 4, 3, 4, 6, 10, 13, 12, 7, 3]
+# Friday and Saturday nights run hotter
+WEEKDAY_FACTOR = [0.85, 0.8, 0.85, 0.9, 1.1, 1.6, 1.45]
+
+TWO_PLACES = Decimal("0.01")
+FOUR_PLACES = Decimal("0.0001")
+
+
+def money(value):
+    return Decimal(value).quantize(TWO_PLACES, rounding=ROUND_HALF_UP)
+
+
+class SqlWriter:
+    """Buffers rows per table and writes them as multi-row INSERT statements."""
+
+    def __init__(self, out, batch_size):
+        self.out = out
+        self.batch_size = batch_size
+        self.pending = {}
+        self.counts = {}
+
+    def row(self, table, columns, values):
+        key = (table, tuple(columns))
+        rows = self.pending.setdefault(key, [])
+        rows.append(values)
+        self.counts[table] = self.counts.get(table, 0) + 1
+        if len(rows) >= self.batch_size:
+            self.flush(key)
+
+    def flush(self, key=None):
+        for k in ([key] if key else list(self.pending)):
+            rows = self.pending.pop(k, [])
+            if not rows:
+                continue
+            table, columns = k
+            cols = ", ".join(f"`{c}`" for c in columns)
+            values = ",\n  ".join("(" + ", ".join(sql_literal(v) for v in r) + ")" for r in rows)
+            self.out.write(f"INSERT INTO `{table}` ({cols}) VALUES\n  {values};\n")
+
+    def comment(self, text):
+        """Starts a new section; each section commits separately to keep transactions small."""
+        self.flush()
+        self.out.write(f"COMMIT;\n-- {text}\n")
+
+
+def sql_literal(v):
+    if v is None:
+        return "NULL"
+    if isinstance(v, bool):
+        return "1" if v else "0"
+    if isinstance(v, (int, Decimal)):
+        return str(v)
+    if isinstance(v, float):
+        return repr(v)
+    if isinstance(v, datetime):
+        return "'" + v.strftime("%Y-%m-%d %H:%M:%S.%f") + "'"
+    return "'" + str(v).replace("\\", "\\\\").replace("'", "''") + "'"
+
+
+class Seeder:
+    def __init__(self, args, out):
+        self.args = args
+        self.rng = random.Random(args.seed)
+        self.sql = SqlWriter(out, args.batch_size)
+        self.now = datetime.now(timezone.utc).replace(tzinfo=None, microsecond=0)
+        self.manifest = {"pin": PIN, "outlets": []}
+        self.outlet_ids = []
+
+    def uid(self):
+        return str(uuid.UUID(int=self.rng.getrandbits(128), version=4))
+
+    def run(self):
+        self.sql.out.write("SET NAMES utf8mb4;\nSET foreign_key_checks = 0;\nSET unique_checks = 0;\nSET autocommit = 0;\n")
+        for t in range(self.args.tenants):
+            self.tenant(t)
+        self.customers()
+        if not self.args.skip_rollups:
+            self.rollups()
+        self.sql.flush()
+        self.sql.out.write("COMMIT;\nSET unique_checks = 1;\nSET foreign_key_checks = 1;\n")
+        return self.manifest
+
+    def tenant(self, t):
+        client_id = self.uid()
+        self.sql.comment(f"tenant {t}")
+        self.sql.row("clients", ["id", "name", "contact_email", "status", "created_at", "updated_at"],
+                     [client_id, f"LoadTest Brand {t + 1}", f"owner{t + 1}@loadtest.foodgrid.local", "ACTIVE",
+                      self.now, self.now])
+        for o in range(self.args.outlets):
+            self.outlet(client_id, t, o)
+
+    def outlet(self, client_id, t, o):
+        outlet_id = self.uid()
+        created = self.now - timedelta(days=self.args.days + 7)
+        self.sql.row("outlets", ["id", "owner_id", "client_id", "name", "timezone", "status"],
+                     [outlet_id, client_id, client_id, f"LoadTest Brand {t + 1} - Outlet {o + 1}", "Asia/Kolkata",
+                      "ACTIVE"])
+
+        self.outlet_ids.append(outlet_id)
+        entry = {"id": outlet_id, "clientId": client_id, "devices": [], "cashiers": [], "tables": [],
+                 "menuItems": []}
+
+        for d in range(self.args.devices):
+            device_code = f"LT-{t + 1:02d}-{o + 1:02d}-{d + 1:02d}"
+            self.sql.row("pos_devices", ["id", "outlet_id", "device_code", "name"],
+                         [self.uid(), outlet_id, device_code, f"Counter {d + 1}"])
+            entry["devices"].append(device_code)
+
+        for e in range(self.args.devices):
+            employee_id = self.uid()
+            self.sql.row("employees", ["id", "outlet_id", "tenant_id", "display_name", "email", "status"],
+                         [employee_id, outlet_id, client_id, f"Cashier {e + 1}",
+                          f"cashier{e + 1}.t{t + 1}o{o + 1}@loadtest.foodgrid.local", "ACTIVE"])
+            self.sql.row("employee_credentials", ["employee_id", "pin_hash", "failed_pin_attempts", "pin_updated_at"],
+                         [employee_id, PIN_HASH, 0, self.now])
+            self.sql.row("employee_roles", ["employee_id", "role"], [employee_id, "CASHIER"])
+            entry["cashiers"].append(employee_id)
+
+        for n in range(self.args.tables):
+            table_id = self.uid()
+            self.sql.row("dining_tables", ["id", "outlet_id", "table_code", "display_name", "capacity", "status",
+                                           "created_at", "updated_at"],
+                         [table_id, outlet_id, f"T{n + 1}", f"Table {n + 1}", self.rng.choice([2, 4, 4, 6]), "ACTIVE",
+                          created, created])
+            entry["tables"].append(table_id)
+
+        units = {}
+        for abbr, (name, unit_type) in UNITS.items():
+            units[abbr] = self.uid()
+            self.sql.row("units_of_measure", ["id", "outlet_id", "name", "abbreviation", "unit_type", "status",
+                                              "created_at", "updated_at"],
+                         [units[abbr], outlet_id, name, abbr, unit_type, "ACTIVE", created, created])
+
+        ingredients = []
+        for name, abbr, cost in INGREDIENTS:
+            ingredient_id = self.uid()
+            ingredients.append({"id": ingredient_id, "unit": units[abbr], "cost": Decimal(str(cost)),
+                                "stock": Decimal(20000)})
+            self.sql.row("ingredients", ["id", "outlet_id", "name", "unit_id", "cost_price", "is_sellable",
+                                         "track_inventory", "current_stock", "reorder_level", "status",
+                                         "created_at", "updated_at"],
+                         [ingredient_id, outlet_id, name, units[abbr], money(cost), False, True, Decimal(20000),
+                          Decimal(2000), "ACTIVE", created, created])
+
+        menu = []
+        for sort, (category, items) in enumerate(CATEGORIES.items()):
+            category_id = self.uid()
+            self.sql.row("menu_categories", ["id", "outlet_id", "name", "sort_order", "status", "created_at",
+                                             "updated_at"],
+                         [category_id, outlet_id, category, sort, "ACTIVE", created, created])
+            for name, veg, price in items:
+                for variant in range(self.args.menu_variants):
+                    item_name = name if variant == 0 else f"{name} ({'Half' if variant == 1 else f'Combo {variant}'})"
+                    item_price = money(price * (0.6 if variant == 1 else 1 + 0.35 * variant) if variant else price)
+                    menu.append(self.menu_item(outlet_id, client_id, category_id, item_name, veg, item_price,
+                                               ingredients, created))
+
+        entry["menuItems"] = [{"id": m["id"], "price": str(m["price"])} for m in menu]
+        self.history(outlet_id, client_id, entry, menu, ingredients)
+        self.manifest["outlets"].append(entry)
+
+    def menu_item(self, outlet_id, client_id, category_id, name, veg, price, ingredients, created):
+        item_id = self.uid()
+        self.sql.row("menu_items", ["id", "outlet_id", "tenant_id", "category_id", "name", "description", "is_veg",
+                                    "base_price", "status", "created_at", "updated_at"],
+                     [item_id, outlet_id, client_id, category_id, name, f"House {name.lower()}", veg, price, "ACTIVE",
+                      created, created])
+        recipe = []
+        for sort, ing in enumerate(self.rng.sample(ingredients, self.rng.randint(2, 5))):
+            qty = Decimal(self.rng.choice([5, 10, 20, 30, 50, 80, 120, 150])).quantize(FOUR_PLACES)
+            recipe.append((ing, qty))
+            self.sql.row("menu_item_recipes", ["id", "menu_item_id", "ingredient_id", "quantity", "unit_id",
+                                               "is_optional", "sort_order", "created_at", "updated_at"],
+                         [self.uid(), item_id, ing["id"], qty, ing["unit"], False, sort, created, created])
+        return {"id": item_id, "name": name, "price": price, "recipe": recipe}
+
+    def history(self, outlet_id, client_id, entry, menu, ingredients):
+        """Orders, payments and stock movements for each past day, heaviest on weekend evenings."""
+        self.sql.comment(f"history for outlet {outlet_id}")
+        ist = timedelta(hours=5, minutes=30)
+        start = (self.now + ist).replace(hour=0, minute=0, second=0) - timedelta(days=self.args.days)
+        for day in range(self.args.days):
+            local_day = start + timedelta(days=day)
+            self.purchase(outlet_id, ingredients, local_day + timedelta(hours=8) - ist, entry["cashiers"][0])
+            orders_today = int(self.args.orders_per_day * WEEKDAY_FACTOR[local_day.weekday()]
+                               * self.rng.uniform(0.85, 1.15))
+            for _ in range(orders_today):
+                hour = self.rng.choices(range(24), weights=HOURLY_WEIGHTS)[0]
+                at = local_day + timedelta(hours=hour, seconds=self.rng.randrange(3600)) - ist
+                self.order(outlet_id, client_id, entry, menu, at)
+
+    def purchase(self, outlet_id, ingredients, at, employee_id):
+        for ing in ingredients:
+            if ing["stock"] >= 8000:
+                continue
+            qty = Decimal(20000) - ing["stock"]
+            self.movement(outlet_id, ing, "PURCHASE", qty, at, "PURCHASE", None, employee_id)
+
+    def order(self, outlet_id, client_id, entry, menu, at):
+        order_id = self.uid()
+        dine_in = self.rng.random() < 0.65
+        cancelled = self.rng.random() < 0.04
+        lines = []
+        for item in self.rng.sample(menu, self.rng.choices([1, 2, 3, 4, 5, 6], weights=[10, 25, 30, 20, 10, 5])[0]):
+            qty = Decimal(self.rng.choices([1, 2, 3], weights=[70, 25, 5])[0])
+            lines.append((item, qty, money(item["price"] * qty)))
+        subtotal = sum((line for _, _, line in lines), money(0))
+        tax = money(subtotal * Decimal("0.05"))
+        grand = subtotal + tax
+        device = self.rng.randrange(len(entry["devices"]))
+
+        self.sql.row("orders", ["id", "outlet_id", "tenant_id", "employee_id", "table_id", "order_type", "status",
+                                "subtotal", "tax_total", "discount_total", "grand_total", "created_at", "updated_at",
+                                "source_channel"],
+                     [order_id, outlet_id, client_id, entry["cashiers"][device],
+                      self.rng.choice(entry["tables"]) if dine_in else None, "DINE_IN" if dine_in else "TAKEAWAY",
+                      "CANCELLED" if cancelled else "PAID", subtotal, tax, money(0), grand, at,
+                      at + timedelta(minutes=self.rng.randint(20, 75)), "FOODGRID"])
+        for i, (item, qty, line) in enumerate(lines):
+            self.sql.row("order_items", ["id", "order_id", "item_id", "item_name", "qty", "unit_price", "line_total",
+                                         "status", "created_at"],
+                         [self.uid(), order_id, item["id"], item["name"], qty, item["price"], line,
+                          "CANCELLED" if cancelled else "SERVED", at + timedelta(seconds=i * 20)])
+        if cancelled:
+            return
+
+        paid_at = at + timedelta(minutes=self.rng.randint(20, 75))
+        self.sql.row("payments", ["id", "order_id", "client_id", "method", "amount", "status", "created_at"],
+                     [self.uid(), order_id, client_id, self.rng.choices(["CASH", "CARD", "UPI"], weights=[25, 30, 45])[0],
+                      grand, "CAPTURED", paid_at])
+
+        usage = {}
+        for item, qty, _ in lines:
+            for ing, per_unit in item["recipe"]:
+                usage.setdefault(ing["id"], [ing, Decimal(0)])[1] += per_unit * qty
+        for ing, qty in usage.values():
+            self.movement(outlet_id, ing, "USAGE", -qty, at + timedelta(minutes=15), "ORDER", order_id,
+                          entry["cashiers"][device])
+
+    def movement(self, outlet_id, ing, movement_type, qty, at, reference_type, reference_id, employee_id):
+        before = ing["stock"]
+        ing["stock"] = before + qty
+        self.sql.row("stock_movements", ["id", "outlet_id", "ingredient_id", "movement_type", "quantity", "unit_id",
+                                         "unit_cost", "total_cost", "reference_type", "reference_id", "stock_before",
+                                         "stock_after", "recorded_by_employee_id", "recorded_at", "created_at"],
+                     [self.uid(), outlet_id, ing["id"], movement_type, abs(qty).quantize(FOUR_PLACES), ing["unit"],
+                      money(ing["cost"]), money(ing["cost"] * abs(qty)), reference_type, reference_id,
+                      before.quantize(FOUR_PLACES), ing["stock"].quantize(FOUR_PLACES), employee_id, at, at])
+
+    def rollups(self):
+        """Sales rollups for the seeded outlets, computed with the statements of SalesRollupRepository.rebuildHours
+        and rebuildDays. Inserted orders never reach the backend's rollup refresh, so without these rows the
+        dashboards would show no history."""
+        self.sql.comment("sales rollups")
+        outlets = ", ".join(sql_literal(o) for o in self.outlet_ids)
+        for table in ("sales_rollup_orders", "sales_rollup_items"):
+            self.sql.out.write(f"DELETE FROM `{table}` WHERE outlet_id IN ({outlets});\n")
+        self.sql.out.write(
+            "INSERT INTO `sales_rollup_orders` (outlet_id, granularity, bucket_start, source_channel, order_count, revenue)\n"
+            "  SELECT outlet_id, 'HOUR', date_format(created_at, '%Y-%m-%d %H:00:00') AS bucket, source_channel, count(*),\n"
+            "    coalesce(sum(grand_total), 0)\n"
+            f"  FROM orders WHERE outlet_id IN ({outlets}) AND status <> 'CANCELLED'\n"
+            "  GROUP BY outlet_id, bucket, source_channel;\n"
+            "INSERT INTO `sales_rollup_items` (outlet_id, granularity, bucket_start, item_name, qty, revenue)\n"
+            "  SELECT o.outlet_id, 'HOUR', date_format(o.created_at, '%Y-%m-%d %H:00:00') AS bucket, oi.item_name,\n"
+            "    coalesce(sum(oi.qty), 0), coalesce(sum(oi.line_total), 0)\n"
+            "  FROM order_items oi JOIN orders o ON o.id = oi.order_id\n"
+            f"  WHERE o.outlet_id IN ({outlets}) AND o.status <> 'CANCELLED'\n"
+            "  GROUP BY o.outlet_id, bucket, oi.item_name;\n"
+            "INSERT INTO `sales_rollup_orders` (outlet_id, granularity, bucket_start, source_channel, order_count, revenue)\n"
+            "  SELECT outlet_id, 'DAY', date(bucket_start) AS bucket, source_channel, sum(order_count), sum(revenue)\n"
+            f"  FROM sales_rollup_orders WHERE granularity = 'HOUR' AND outlet_id IN ({outlets})\n"
+            "  GROUP BY outlet_id, bucket, source_channel;\n"
+            "INSERT INTO `sales_rollup_items` (outlet_id, granularity, bucket_start, item_name, qty, revenue)\n"
+            "  SELECT outlet_id, 'DAY', date(bucket_start) AS bucket, item_name, sum(qty), sum(revenue)\n"
+            f"  FROM sales_rollup_items WHERE granularity = 'HOUR' AND outlet_id IN ({outlets})\n"
+            "  GROUP BY outlet_id, bucket, item_name;\n")
+
+    def customers(self):
+        self.sql.comment("customers")
+        self.manifest["customers"] = []
+        for c in range(self.args.customers):
+            email = f"guest{c + 1}@loadtest.foodgrid.local"
+            mobile = f"9{c + 1:09d}"
+            self.sql.row("customers", ["id", "mobileNumber", "email", "displayName", "status", "createdAt", "provider"],
+                         [self.uid(), mobile, email, f"Guest {c + 1}", "ACTIVE", self.now, "LOCAL"])
+            self.manifest["customers"].append({"email": email, "mobileNumber": mobile})
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Generate a synthetic FoodGrid dataset as SQL.")
+    parser.add_argument("--tenants", type=int, default=3)
+    parser.add_argument("--outlets", type=int, default=2, help="outlets per tenant")
+    parser.add_argument("--devices", type=int, default=4, help="POS devices and cashiers per outlet")
+    parser.add_argument("--tables", type=int, default=20, help="dining tables per outlet")
+    parser.add_argument("--menu-variants", type=int, default=2, help="variants per base menu item (1-4)")
+    parser.add_argument("--days", type=int, default=90, help="days of order history per outlet")
+    parser.add_argument("--orders-per-day", type=int, default=150, help="average orders per outlet per day")
+    parser.add_argument("--customers", type=int, default=500)
+    parser.add_argument("--seed", type=int, default=42)
+    parser.add_argument("--batch-size", type=int, default=500, help="rows per INSERT statement")
+    parser.add_argument("--skip-rollups", action="store_true",
+                        help="leave the sales rollup tables empty (rebuild them through the admin API instead)")
+    parser.add_argument("--out", help="SQL output file (default stdout)")
+    parser.add_argument("--manifest", default="dataset.json", help="ids for the load generator")
+    args = parser.parse_args()
+
+    out = open(args.out, "w") if args.out else sys.stdout
+    try:
+        seeder = Seeder(args, out)
+        manifest = seeder.run()
+    finally:
+        if args.out:
+            out.close()
+
+    with open(args.manifest, "w") as f:
+        json.dump(manifest, f, indent=2)
+    summary = ", ".join(f"{t}={n}" for t, n in sorted(seeder.sql.counts.items()))
+    print(f"[SEED] {summary}", file=sys.stderr)
+    print(f"[SEED] Manifest written to {args.manifest}", file=sys.stderr)
+
+
+if __name__ == "__main__":
+    main()
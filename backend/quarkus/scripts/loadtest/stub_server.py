@@ -0,0 +1,134 @@
+#!/usr/bin/env python3
+import json
+import re
+import sys
+import threading
+import time
+import uuid
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+# ==============================================================================
+# FoodGrid - Offline gateway and email stub
+#
+# Usage: python3 stub_server.py [PORT]   (default 8089)
+# Answers the Razorpay (/v1/orders, /v1/payments, /v1/payment_links, /v1/refunds),
+# Stripe (/v1/payment_intents) and Resend (/emails) calls made by the backend
+# under the "loadtest" profile. Payments are always reported captured/succeeded.
+# OTPs found in emails are kept so the load generator can complete email logins.
+# ==============================================================================
+
+OTP_PATTERN = re.compile(r"\b(\d{6})\b")
+
+
+class StubState:
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.calls = {}
+        self.otps = {}
+
+    def count(self, name):
+        with self.lock:
+            self.calls[name] = self.calls.get(name, 0) + 1
+
+    def snapshot(self):
+        with self.lock:
+            return dict(self.calls)
+
+
+STATE = StubState()
+
+
+def stub_id(prefix):
+    return f"{prefix}_{uuid.uuid4().hex[:14]}"
+
+
+class StubHandler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+
+    def log_message(self, fmt, *args):
+        pass
+
+    def _body(self):
+        length = int(self.headers.get("Content-Length") or 0)
+        raw = self.rfile.read(length) if length else b""
+        try:
+            return json.loads(raw) if raw else {}
+        except ValueError:
+            return {}
+
+    def _reply(self, status, payload):
+        data = json.dumps(payload).encode()
+        self.send_response(status)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(data)))
+        self.end_headers()
+        self.wfile.write(data)
+
+    def do_GET(self):
+        path = self.path.split("?")[0]
+        now = int(time.time())
+        if m := re.fullmatch(r"/v1/payments/([^/]+)", path):
+            STATE.count("razorpay.fetch_payment")
+            return self._reply(200, {"id": m.group(1), "status": "captured", "method": "upi",
+                                     "amount": 0, "created_at": now})
+        if m := re.fullmatch(r"/v1/orders/([^/]+)/payments", path):
+            STATE.count("razorpay.fetch_order_payments")
+            return self._reply(200, {"count": 1, "items": [
+                {"id": stub_id("pay"), "order_id": m.group(1), "status": "captured", "method": "upi"}]})
+        if m := re.fullmatch(r"/v1/payment_intents/([^/]+)", path):
+            STATE.count("stripe.fetch_intent")
+            return self._reply(200, {"id": m.group(1), "status": "succeeded",
+                                     "latest_charge": stub_id("ch"), "payment_method": "pm_card_visa"})
+        if path == "/_stub/stats":
+            return self._reply(200, STATE.snapshot())
+        if m := re.fullmatch(r"/_stub/otp/(.+)", path):
+            with STATE.lock:
+                otp = STATE.otps.get(m.group(1).lower())
+            return self._reply(200 if otp else 404, {"otp": otp})
+        self._reply(404, {"error": {"description": f"No stub for GET {path}"}})
+
+    def do_POST(self):
+        path = self.path.split("?")[0]
+        body = self._body()
+        if path == "/emails":
+            STATE.count("resend.send")
+            otp = OTP_PATTERN.search(str(body.get("html", "")))
+            if otp and body.get("to"):
+                with STATE.lock:
+                    STATE.otps[str(body["to"]).lower()] = otp.group(1)
+            return self._reply(200, {"id": str(uuid.uuid4())})
+        if path == "/v1/orders":
+            STATE.count("razorpay.create_order")
+            return self._reply(200, {"id": stub_id("order"), "amount": body.get("amount"),
+                                     "currency": body.get("currency", "INR"), "status": "created"})
+        if path == "/v1/payment_links":
+            STATE.count("razorpay.create_payment_link")
+            link_id = stub_id("plink")
+            return self._reply(200, {"id": link_id, "short_url": f"http://localhost:8089/pay/{link_id}",
+                                     "status": "created"})
+        if re.fullmatch(r"/v1/payments/[^/]+/capture", path):
+            STATE.count("razorpay.capture")
+            return self._reply(200, {"id": path.split("/")[3], "status": "captured", "method": "upi"})
+        if path == "/v1/refunds" or re.fullmatch(r"/v1/payments/[^/]+/refund", path):
+            STATE.count("refund")
+            return self._reply(200, {"id": stub_id("rfnd"), "status": "processed"})
+        if path == "/v1/payment_intents":
+            STATE.count("stripe.create_intent")
+            intent_id = stub_id("pi")
+            return self._reply(200, {"id": intent_id, "client_secret": intent_id + "_secret",
+                                     "status": "requires_payment_method"})
+        self._reply(404, {"error": {"description": f"No stub for POST {path}"}})
+
+
+def start(port=8089):
+    """Starts the stub in a daemon thread and returns the server."""
+    server = ThreadingHTTPServer(("127.0.0.1", port), StubHandler)
+    server.daemon_threads = True
+    threading.Thread(target=server.serve_forever, name="stub-server", daemon=True).start()
+    return server
+
+
+if __name__ == "__main__":
+    port = int(sys.argv[1]) if len(sys.argv) > 1 else 8089
+    print(f"[STUB] Gateway/email stub listening on http://127.0.0.1:{port}")
+    ThreadingHTTPServer(("127.0.0.1", port), StubHandler).serve_forever()
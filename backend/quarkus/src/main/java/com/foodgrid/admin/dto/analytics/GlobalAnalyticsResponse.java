@@ -11,7 +11,10 @@ public record GlobalAnalyticsResponse(
     double totalRevenue,
     long activeSubscriptions,
     List<ClientResponse> recentTenants,
-    List<RevenueMetric> revenueByMonth
+    List<RevenueMetric> revenueByMonth,
+    List<TenantRevenueMetric> topTenantsByRevenue
 ) {
     public record RevenueMetric(String month, double amount) {}
+
+    public record TenantRevenueMetric(String clientId, String name, double amount) {}
 }
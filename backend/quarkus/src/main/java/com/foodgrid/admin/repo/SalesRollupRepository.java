@@ -0,0 +1,231 @@
+package com.foodgrid.admin.repo;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Native access to the {@code sales_rollup_orders} / {@code sales_rollup_items} tables.
+ *
+ * HOUR rows are recomputed from raw orders; DAY rows are always summed from the HOUR rows of that day.
+ * Bucket starts are bound as Instants like {@code orders.created_at}, so buckets follow the same zone
+ * as {@code HOUR(created_at)} did.
+ */
+@ApplicationScoped
+public class SalesRollupRepository {
+
+  public static final String HOUR = "HOUR";
+  public static final String DAY = "DAY";
+
+  /**
+   * A dashboard range resolved to buckets: full days in [{@code daysStart}, {@code daysEnd}) are read from
+   * DAY rows, the remaining hours of [{@code start}, {@code end}) from HOUR rows.
+   */
+  public record Range(Instant start, Instant end, Instant daysStart, Instant daysEnd) {
+
+    /**
+     * Widens [from, to] to whole hours: the first and last hour are included in full.
+     */
+    public static Range of(final Instant from, final Instant to, final ZoneId zone) {
+      final ZonedDateTime start = from.atZone(zone).truncatedTo(ChronoUnit.HOURS);
+      final ZonedDateTime end = to.atZone(zone).truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+      ZonedDateTime daysStart = start.truncatedTo(ChronoUnit.DAYS);
+      if (daysStart.isBefore(start)) {
+        daysStart = daysStart.plusDays(1);
+      }
+      final ZonedDateTime daysEnd = end.truncatedTo(ChronoUnit.DAYS);
+      if (!daysStart.isBefore(daysEnd)) {
+        return new Range(start.toInstant(), end.toInstant(), start.toInstant(), start.toInstant());
+      }
+      return new Range(start.toInstant(), end.toInstant(), daysStart.toInstant(), daysEnd.toInstant());
+    }
+  }
+
+  // ---- maintenance ----
+
+  public void refreshHour(final String outletId, final Instant hourStart) {
+    final Instant hourEnd = hourStart.plus(1, ChronoUnit.HOURS);
+
+    Panache.getEntityManager()
+      .createNativeQuery("delete from sales_rollup_orders where outlet_id = ?1 and granularity = 'HOUR' and bucket_start = ?2")
+      .setParameter(1, outletId)
+      .setParameter(2, hourStart)
+      .executeUpdate();
+    Panache.getEntityManager()
+      .createNativeQuery("insert into sales_rollup_orders (outlet_id, granularity, bucket_start, source_channel, order_count, revenue) " +
+        "select outlet_id, 'HOUR', ?2, source_channel, count(*), coalesce(sum(grand_total), 0) from orders " +
+        "where outlet_id = ?1 and created_at >= ?2 and created_at < ?3 and status <> 'CANCELLED' " +
+        "group by outlet_id, source_channel")
+      .setParameter(1, outletId)
+      .setParameter(2, hourStart)
+      .setParameter(3, hourEnd)
+      .executeUpdate();
+
+    Panache.getEntityManager()
+      .createNativeQuery("delete from sales_rollup_items where outlet_id = ?1 and granularity = 'HOUR' and bucket_start = ?2")
+      .setParameter(1, outletId)
+      .setParameter(2, hourStart)
+      .executeUpdate();
+    Panache.getEntityManager()
+      .createNativeQuery("insert into sales_rollup_items (outlet_id, granularity, bucket_start, item_name, qty, revenue) " +
+        "select o.outlet_id, 'HOUR', ?2, oi.item_name, coalesce(sum(oi.qty), 0), coalesce(sum(oi.line_total), 0) " +
+        "from order_items oi join orders o on o.id = oi.order_id " +
+        "where o.outlet_id = ?1 and o.created_at >= ?2 and o.created_at < ?3 and o.status <> 'CANCELLED' " +
+        "group by o.outlet_id, oi.item_name")
+      .setParameter(1, outletId)
+      .setParameter(2, hourStart)
+      .setParameter(3, hourEnd)
+      .executeUpdate();
+  }
+
+  /**
+   * Recomputes HOUR rows for every outlet (or one outlet) with orders in [from, to) in one pass.
+   * {@code from} and {@code to} must be hour-aligned.
+   */
+  public void rebuildHours(final String outletId, final Instant from, final Instant to) {
+    final String outletFilter = outletId != null ? " and outlet_id = :outletId" : "";
+    final String orderOutletFilter = outletId != null ? " and o.outlet_id = :outletId" : "";
+
+    executeRanged("delete from sales_rollup_orders where granularity = 'HOUR' and bucket_start >= :from and bucket_start < :to" + outletFilter,
+      outletId, from, to);
+    executeRanged("insert into sales_rollup_orders (outlet_id, granularity, bucket_start, source_channel, order_count, revenue) " +
+      "select outlet_id, 'HOUR', date_format(created_at, '%Y-%m-%d %H:00:00') as bucket, source_channel, count(*), coalesce(sum(grand_total), 0) " +
+      "from orders where created_at >= :from and created_at < :to and status <> 'CANCELLED'" + outletFilter + " " +
+      "group by outlet_id, bucket, source_channel", outletId, from, to);
+
+    executeRanged("delete from sales_rollup_items where granularity = 'HOUR' and bucket_start >= :from and bucket_start < :to" + outletFilter,
+      outletId, from, to);
+    executeRanged("insert into sales_rollup_items (outlet_id, granularity, bucket_start, item_name, qty, revenue) " +
+      "select o.outlet_id, 'HOUR', date_format(o.created_at, '%Y-%m-%d %H:00:00') as bucket, oi.item_name, " +
+      "coalesce(sum(oi.qty), 0), coalesce(sum(oi.line_total), 0) " +
+      "from order_items oi join orders o on o.id = oi.order_id " +
+      "where o.created_at >= :from and o.created_at < :to and o.status <> 'CANCELLED'" + orderOutletFilter + " " +
+      "group by o.outlet_id, bucket, oi.item_name", outletId, from, to);
+  }
+
+  /**
+   * Re-sums the DAY rows of [dayStart, dayEnd) from HOUR rows. Both bounds must be day-aligned.
+   */
+  public void rebuildDays(final String outletId, final Instant dayStart, final Instant dayEnd) {
+    final String outletFilter = outletId != null ? " and outlet_id = :outletId" : "";
+
+    executeRanged("delete from sales_rollup_orders where granularity = 'DAY' and bucket_start >= :from and bucket_start < :to" + outletFilter,
+      outletId, dayStart, dayEnd);
+    executeRanged("insert into sales_rollup_orders (outlet_id, granularity, bucket_start, source_channel, order_count, revenue) " +
+      "select outlet_id, 'DAY', date(bucket_start) as bucket, source_channel, sum(order_count), sum(revenue) " +
+      "from sales_rollup_orders where granularity = 'HOUR' and bucket_start >= :from and bucket_start < :to" + outletFilter + " " +
+      "group by outlet_id, bucket, source_channel", outletId, dayStart, dayEnd);
+
+    executeRanged("delete from sales_rollup_items where granularity = 'DAY' and bucket_start >= :from and bucket_start < :to" + outletFilter,
+      outletId, dayStart, dayEnd);
+    executeRanged("insert into sales_rollup_items (outlet_id, granularity, bucket_start, item_name, qty, revenue) " +
+      "select outlet_id, 'DAY', date(bucket_start) as bucket, item_name, sum(qty), sum(revenue) " +
+      "from sales_rollup_items where granularity = 'HOUR' and bucket_start >= :from and bucket_start < :to" + outletFilter + " " +
+      "group by outlet_id, bucket, item_name", outletId, dayStart, dayEnd);
+  }
+
+  private static void executeRanged(final String sql, final String outletId, final Instant from, final Instant to) {
+    final Query q = Panache.getEntityManager().createNativeQuery(sql)
+      .setParameter("from", from)
+      .setParameter("to", to);
+    if (outletId != null) {
+      q.setParameter("outletId", outletId);
+    }
+    q.executeUpdate();
+  }
+
+  // ---- reads ----
+
+  /**
+   * @return rows of [source_channel, order_count, revenue] for one outlet
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> channelTotals(final String outletId, final Range range) {
+    return bind(Panache.getEntityManager().createNativeQuery(
+        "select r.source_channel, sum(r.order_count), sum(r.revenue) from (" + ordersInRange("r0.outlet_id = :outletId") + ") r " +
+        "group by r.source_channel"), range)
+      .setParameter("outletId", outletId)
+      .getResultList();
+  }
+
+  /**
+   * @param byRevenue order by revenue instead of quantity
+   * @return rows of [item_name, qty, revenue] for one outlet
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> topItems(final String outletId, final Range range, final boolean byRevenue, final int limit) {
+    return bind(Panache.getEntityManager().createNativeQuery(
+        "select r.item_name, sum(r.qty), sum(r.revenue) from (" + itemsInRange() + ") r " +
+        "group by r.item_name order by " + (byRevenue ? "sum(r.revenue)" : "sum(r.qty)") + " desc"), range)
+      .setParameter("outletId", outletId)
+      .setMaxResults(limit)
+      .getResultList();
+  }
+
+  /**
+   * @param tenantColumn {@code client_id} or {@code owner_id} of the outlets table
+   * @return rows of [outlet name, order_count, revenue] across the tenant's outlets
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> topOutlets(final String tenantColumn, final String tenantId, final Range range, final int limit) {
+    if (!"client_id".equals(tenantColumn) && !"owner_id".equals(tenantColumn)) {
+      throw new IllegalArgumentException("Unsupported tenant column: " + tenantColumn);
+    }
+    return bind(Panache.getEntityManager().createNativeQuery(
+        "select ou.name, sum(r.order_count), sum(r.revenue) from (" +
+        ordersInRange("r0.outlet_id in (select t.id from outlets t where t." + tenantColumn + " = :tenantId)") + ") r " +
+        "join outlets ou on ou.id = r.outlet_id " +
+        "group by ou.id, ou.name order by sum(r.revenue) desc"), range)
+      .setParameter("tenantId", tenantId)
+      .setMaxResults(limit)
+      .getResultList();
+  }
+
+  /**
+   * @return rows of [hour of day, order_count, revenue] summed over the HOUR rows of the whole range
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> hourOfDayTotals(final String outletId, final Range range) {
+    return Panache.getEntityManager().createNativeQuery(
+        "select hour(bucket_start) as hr, sum(order_count), sum(revenue) from sales_rollup_orders " +
+        "where outlet_id = :outletId and granularity = 'HOUR' and bucket_start >= :start and bucket_start < :end " +
+        "group by hr order by hr")
+      .setParameter("outletId", outletId)
+      .setParameter("start", range.start())
+      .setParameter("end", range.end())
+      .getResultList();
+  }
+
+  private static String ordersInRange(final String outletPredicate) {
+    return "select r0.outlet_id, r0.source_channel, r0.order_count, r0.revenue from sales_rollup_orders r0 " +
+      "where " + outletPredicate + " and r0.granularity = 'DAY' and r0.bucket_start >= :daysStart and r0.bucket_start < :daysEnd " +
+      "union all " +
+      "select r0.outlet_id, r0.source_channel, r0.order_count, r0.revenue from sales_rollup_orders r0 " +
+      "where " + outletPredicate + " and r0.granularity = 'HOUR' and r0.bucket_start >= :start and r0.bucket_start < :end " +
+      "and (r0.bucket_start < :daysStart or r0.bucket_start >= :daysEnd)";
+  }
+
+  private static String itemsInRange() {
+    return "select r0.item_name, r0.qty, r0.revenue from sales_rollup_items r0 " +
+      "where r0.outlet_id = :outletId and r0.granularity = 'DAY' and r0.bucket_start >= :daysStart and r0.bucket_start < :daysEnd " +
+      "union all " +
+      "select r0.item_name, r0.qty, r0.revenue from sales_rollup_items r0 " +
+      "where r0.outlet_id = :outletId and r0.granularity = 'HOUR' and r0.bucket_start >= :start and r0.bucket_start < :end " +
+      "and (r0.bucket_start < :daysStart or r0.bucket_start >= :daysEnd)";
+  }
+
+  private static Query bind(final Query q, final Range range) {
+    return q
+      .setParameter("start", range.start())
+      .setParameter("end", range.end())
+      .setParameter("daysStart", range.daysStart())
+      .setParameter("daysEnd", range.daysEnd());
+  }
+}
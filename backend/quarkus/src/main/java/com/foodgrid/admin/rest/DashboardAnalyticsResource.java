@@ -2,11 +2,18 @@ package com.foodgrid.admin.rest;
 
 import com.foodgrid.admin.dto.analytics.DashboardAnalyticsResponse;
 import com.foodgrid.admin.service.DashboardAnalyticsService;
+import com.foodgrid.admin.service.SalesRollupService;
+import com.foodgrid.common.security.TenantGuards;
+import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 
 @Path("/api/v1/admin/analytics")
 @Produces(MediaType.APPLICATION_JSON)
@@ -15,6 +22,12 @@ import java.time.Instant;
 public class DashboardAnalyticsResource {
 
     @Inject DashboardAnalyticsService analyticsService;
+    @Inject SalesRollupService rollupService;
+    @Inject TenantGuards guards;
+    @Inject SecurityIdentity identity;
+
+    @ConfigProperty(name = "foodgrid.analytics.rollup.rebuild.max-days", defaultValue = "93")
+    int maxRebuildDays;
 
     @GET
     public DashboardAnalyticsResponse getAnalytics(
@@ -31,4 +44,47 @@ public class DashboardAnalyticsResource {
 
         return analyticsService.getAnalytics(outletId, start, end);
     }
+
+    /**
+     * Backfills the sales rollups from raw orders, e.g. after the first deploy or an outage. The rebuild runs in
+     * the background; the range is limited to {@code foodgrid.analytics.rollup.rebuild.max-days}.
+     * The outlet must belong to the caller's tenant; without outletId every outlet is rebuilt, which only
+     * SUPER_ADMIN may request.
+     */
+    @POST
+    @Path("/rollups/rebuild")
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    public Response rebuildRollups(
+            @QueryParam("outletId") String outletId,
+            @QueryParam("start") String startStr,
+            @QueryParam("end") String endStr) {
+
+        if (startStr == null || startStr.isBlank()) {
+            throw new BadRequestException("start is required");
+        }
+
+        Instant start = Instant.parse(startStr);
+        Instant end = (endStr != null) ? Instant.parse(endStr) : Instant.now();
+        if (end.isBefore(start)) {
+            throw new BadRequestException("end must not be before start");
+        }
+        if (Duration.between(start, end).toDays() >= maxRebuildDays) {
+            throw new BadRequestException("range must be shorter than " + maxRebuildDays + " days");
+        }
+
+        boolean superAdmin = identity.hasRole("SUPER_ADMIN");
+        if (outletId == null || outletId.isBlank()) {
+            if (!superAdmin) {
+                throw new ForbiddenException("outletId is required");
+            }
+            outletId = null;
+        } else if (!superAdmin) {
+            guards.requireOutletInTenant(outletId);
+        }
+
+        if (!rollupService.submitRebuild(outletId, start, end)) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "60").build();
+        }
+        return Response.accepted(Map.of("status", "QUEUED")).build();
+    }
 }
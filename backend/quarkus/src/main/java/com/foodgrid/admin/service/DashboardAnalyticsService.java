@@ -1,7 +1,7 @@
 package com.foodgrid.admin.service;
 
 import com.foodgrid.admin.dto.analytics.*;
-import com.foodgrid.pos.repo.OrderRepository;
+import com.foodgrid.admin.repo.SalesRollupRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -16,15 +16,20 @@ import java.util.stream.Collectors;
 public class DashboardAnalyticsService {
 
     @Inject EntityManager em;
-    @Inject OrderRepository orderRepository;
+    @Inject SalesRollupRepository rollupRepository;
+    @Inject SalesRollupService rollupService;
 
+    /**
+     * Reads from the sales rollup tables; the range is widened to whole hours.
+     */
     public DashboardAnalyticsResponse getAnalytics(final String outletId, final Instant start, final Instant end) {
-        final SummaryStats summary = getSummaryStats(outletId, start, end);
-        final List<PerformanceMetric> channelSplit = getChannelSplit(outletId, start, end);
-        final List<PerformanceMetric> topItemsByQuantity = getTopItemsByQuantity(outletId, start, end);
-        final List<PerformanceMetric> topItemsByRevenue = getTopItemsByRevenue(outletId, start, end);
-        final List<PerformanceMetric> topOutletsByRevenue = getTopOutletsByRevenue(outletId, start, end);
-        final List<DashboardAnalyticsResponse.HourlyData> hourlyTrend = getHourlyTrend(outletId, start, end);
+        final SalesRollupRepository.Range range = rollupService.range(start, end);
+        final List<PerformanceMetric> channelSplit = getChannelSplit(outletId, range);
+        final SummaryStats summary = getSummaryStats(channelSplit);
+        final List<PerformanceMetric> topItemsByQuantity = getTopItems(outletId, range, false);
+        final List<PerformanceMetric> topItemsByRevenue = getTopItems(outletId, range, true);
+        final List<PerformanceMetric> topOutletsByRevenue = getTopOutletsByRevenue(outletId, range);
+        final List<DashboardAnalyticsResponse.HourlyData> hourlyTrend = getHourlyTrend(outletId, range);
         final List<String> insights = generateInsights(summary, channelSplit);
 
         return new DashboardAnalyticsResponse(
@@ -39,31 +44,23 @@ public class DashboardAnalyticsService {
         );
     }
 
-    private SummaryStats getSummaryStats(final String outletId, final Instant start, final Instant end) {
-        final Object[] result = (Object[]) em.createQuery(
-            "SELECT COUNT(o), SUM(o.grandTotal) FROM Order o WHERE o.outletId = :outletId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED'")
-            .setParameter("outletId", outletId)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .getSingleResult();
-
-        final long count = (Long) (result[0] != null ? result[0] : 0L);
-        final BigDecimal revenue = (BigDecimal) (result[1] != null ? result[1] : BigDecimal.ZERO);
+    /**
+     * The summary is the sum of the channel split, which already covers every non-cancelled order.
+     */
+    private SummaryStats getSummaryStats(final List<PerformanceMetric> channelSplit) {
+        long count = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (final PerformanceMetric m : channelSplit) {
+            count += m.count();
+            revenue = revenue.add(m.revenue());
+        }
         final BigDecimal avg = count > 0 ? revenue.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
 
         return new SummaryStats(count, revenue, avg, 0.0); // Growth rate needs previous period comparison
     }
 
-    @SuppressWarnings("unchecked")
-    private List<PerformanceMetric> getChannelSplit(final String outletId, final Instant start, final Instant end) {
-        final List<Object[]> results = em.createQuery(
-            "SELECT o.sourceChannel, COUNT(o), SUM(o.grandTotal) FROM Order o WHERE o.outletId = :outletId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED' GROUP BY o.sourceChannel")
-            .setParameter("outletId", outletId)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .getResultList();
-
-        return results.stream()
+    private List<PerformanceMetric> getChannelSplit(final String outletId, final SalesRollupRepository.Range range) {
+        return rollupRepository.channelTotals(outletId, range).stream()
             .map(r -> new PerformanceMetric(
                 r[0] != null ? r[0].toString() : "Unknown", 
                 asLong(r[1]), 
@@ -71,17 +68,8 @@ public class DashboardAnalyticsService {
             .collect(Collectors.toList());
     }
 
-    @SuppressWarnings("unchecked")
-    private List<PerformanceMetric> getTopItemsByQuantity(final String outletId, final Instant start, final Instant end) {
-        final List<Object[]> results = em.createQuery(
-            "SELECT oi.itemName, SUM(oi.qty), SUM(oi.lineTotal) FROM OrderItem oi JOIN Order o ON oi.orderId = o.id WHERE o.outletId = :outletId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED' GROUP BY oi.itemName ORDER BY SUM(oi.qty) DESC")
-            .setParameter("outletId", outletId)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .setMaxResults(5)
-            .getResultList();
-
-        return results.stream()
+    private List<PerformanceMetric> getTopItems(final String outletId, final SalesRollupRepository.Range range, final boolean byRevenue) {
+        return rollupRepository.topItems(outletId, range, byRevenue, 5).stream()
             .map(r -> new PerformanceMetric(
                 (String) r[0], 
                 asLong(r[1]), 
@@ -89,58 +77,16 @@ public class DashboardAnalyticsService {
             .collect(Collectors.toList());
     }
 
-    @SuppressWarnings("unchecked")
-    private List<PerformanceMetric> getTopItemsByRevenue(final String outletId, final Instant start, final Instant end) {
-        final List<Object[]> results = em.createQuery(
-            "SELECT oi.itemName, SUM(oi.qty), SUM(oi.lineTotal) FROM OrderItem oi JOIN Order o ON oi.orderId = o.id WHERE o.outletId = :outletId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED' GROUP BY oi.itemName ORDER BY SUM(oi.lineTotal) DESC")
-            .setParameter("outletId", outletId)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .setMaxResults(5)
-            .getResultList();
-
-        return results.stream()
-            .map(r -> new PerformanceMetric(
-                (String) r[0], 
-                asLong(r[1]), 
-                asBigDecimal(r[2])))
-            .collect(Collectors.toList());
-    }
-
-    private List<PerformanceMetric> getTopOutletsByRevenue(final String outletId, final Instant start, final Instant end) {
+    private List<PerformanceMetric> getTopOutletsByRevenue(final String outletId, final SalesRollupRepository.Range range) {
         // 1. Fetch the current outlet to determine its tenant identifier
         final com.foodgrid.auth.model.Outlet outlet = em.find(com.foodgrid.auth.model.Outlet.class, outletId);
         if (outlet == null) return new ArrayList<>();
 
-        final String clientId = outlet.clientId;
-        final String ownerId = outlet.ownerId;
-
-        // 2. Build query based on which identifier is available
-        final String hql;
-        final boolean useClientId = (clientId != null && !clientId.isBlank());
-        
-        if (useClientId) {
-            hql = "SELECT ou.name, COUNT(o), SUM(o.grandTotal) FROM Order o JOIN Outlet ou ON o.outletId = ou.id " +
-                  "WHERE ou.clientId = :clientId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED' " +
-                  "GROUP BY ou.name, ou.id ORDER BY SUM(o.grandTotal) DESC";
-        } else {
-            hql = "SELECT ou.name, COUNT(o), SUM(o.grandTotal) FROM Order o JOIN Outlet ou ON o.outletId = ou.id " +
-                  "WHERE ou.ownerId = :ownerId AND o.createdAt >= :start AND o.createdAt <= :end AND o.status != 'CANCELLED' " +
-                  "GROUP BY ou.name, ou.id ORDER BY SUM(o.grandTotal) DESC";
-        }
-
-        final var query = em.createQuery(hql, Object[].class)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .setMaxResults(5);
-        
-        if (useClientId) {
-            query.setParameter("clientId", clientId);
-        } else {
-            query.setParameter("ownerId", ownerId);
-        }
-
-        final List<Object[]> results = query.getResultList();
+        // 2. Rank the tenant's outlets by whichever identifier is available
+        final boolean useClientId = (outlet.clientId != null && !outlet.clientId.isBlank());
+        final List<Object[]> results = useClientId
+            ? rollupRepository.topOutlets("client_id", outlet.clientId, range, 5)
+            : rollupRepository.topOutlets("owner_id", outlet.ownerId, range, 5);
 
         return results.stream()
             .map(r -> new PerformanceMetric(
@@ -150,20 +96,8 @@ public class DashboardAnalyticsService {
             .collect(Collectors.toList());
     }
 
-    @SuppressWarnings("unchecked")
-    private List<DashboardAnalyticsResponse.HourlyData> getHourlyTrend(final String outletId, final Instant start, final Instant end) {
-        final String nativeQuery = "SELECT HOUR(created_at) as hr, COUNT(*), SUM(grand_total) " +
-                           "FROM orders " +
-                           "WHERE outlet_id = :outletId AND created_at >= :start AND created_at <= :end AND status != 'CANCELLED' " +
-                           "GROUP BY hr ORDER BY hr";
-        
-        final List<Object[]> results = em.createNativeQuery(nativeQuery)
-            .setParameter("outletId", outletId)
-            .setParameter("start", start)
-            .setParameter("end", end)
-            .getResultList();
-
-        return results.stream()
+    private List<DashboardAnalyticsResponse.HourlyData> getHourlyTrend(final String outletId, final SalesRollupRepository.Range range) {
+        return rollupRepository.hourOfDayTotals(outletId, range).stream()
             .map(r -> new DashboardAnalyticsResponse.HourlyData(
                 r[0] != null ? ((Number) r[0]).intValue() : 0, 
                 asLong(r[1]), 
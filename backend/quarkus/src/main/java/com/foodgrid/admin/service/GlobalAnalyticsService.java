@@ -8,43 +8,93 @@ import com.foodgrid.auth.repo.OutletRepository;
 import com.foodgrid.pos.repo.OrderRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+/**
+ * Platform-wide dashboard figures.
+ *
+ * Everything is aggregated in the database, so memory use does not depend on the size of the orders
+ * table. The assembled response is cached for {@code foodgrid.analytics.global.cache-ttl} because the
+ * revenue queries scan all recent orders.
+ */
 @ApplicationScoped
 public class GlobalAnalyticsService {
 
+    private static final int MONTHS = 12;
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
     @Inject ClientRepository clientRepository;
     @Inject AdminUserRepository adminUserRepository;
     @Inject OutletRepository outletRepository;
     @Inject OrderRepository orderRepository;
     @Inject TenantAdminService tenantAdminService;
 
+    @ConfigProperty(name = "foodgrid.analytics.global.cache-ttl", defaultValue = "60s")
+    Duration cacheTtl;
+
+    private volatile Cached cached;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
     public GlobalAnalyticsResponse getGlobalStats() {
+        final Cached c = cached;
+        if (c != null && Instant.now().isBefore(c.expiresAt())) {
+            return c.response();
+        }
+        refreshLock.lock();
+        try {
+            // Another caller may have refreshed while we waited
+            final Cached current = cached;
+            if (current != null && Instant.now().isBefore(current.expiresAt())) {
+                return current.response();
+            }
+            final GlobalAnalyticsResponse response = compute();
+            cached = new Cached(response, Instant.now().plus(cacheTtl));
+            return response;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private GlobalAnalyticsResponse compute() {
         long totalTenants = clientRepository.count();
         long activeTenants = clientRepository.count("status", com.foodgrid.admin.model.Client.Status.ACTIVE);
         long totalUsers = adminUserRepository.count();
         long totalOutlets = outletRepository.count();
-        
-        // Sum total revenue from all orders
-        double totalRevenue = orderRepository.listAll().stream()
-                .map(o -> o.grandTotal)
-                .filter(java.util.Objects::nonNull)
-                .mapToDouble(BigDecimal::doubleValue)
-                .sum();
+
+        // Revenue of all non-cancelled orders
+        double totalRevenue = orderRepository.sumRevenue().doubleValue();
 
         // Get 5 most recent tenants
-        List<ClientResponse> recentTenants = clientRepository.list("order by createdAt desc").stream()
-                .limit(5)
+        List<ClientResponse> recentTenants = clientRepository.find("order by createdAt desc").page(0, 5).list().stream()
                 .map(tenantAdminService::toResponse)
                 .collect(Collectors.toList());
 
-        // Placeholder for revenue by month (requires more complex query/service)
-        List<GlobalAnalyticsResponse.RevenueMetric> revenueByMonth = List.of(
-            new GlobalAnalyticsResponse.RevenueMetric("Jan", 12000),
-            new GlobalAnalyticsResponse.RevenueMetric("Feb", 15000)
-        );
+        final ZoneId zone = ZoneId.systemDefault();
+        final YearMonth firstMonth = YearMonth.now(zone).minusMonths(MONTHS - 1);
+        final Instant since = firstMonth.atDay(1).atStartOfDay(zone).toInstant();
+
+        List<GlobalAnalyticsResponse.RevenueMetric> revenueByMonth = revenueByMonth(firstMonth, since);
+
+        List<GlobalAnalyticsResponse.TenantRevenueMetric> topTenantsByRevenue = orderRepository.topTenantsByRevenue(since, 5).stream()
+                .map(r -> new GlobalAnalyticsResponse.TenantRevenueMetric(
+                    (String) r[0],
+                    (String) r[1],
+                    r[2] != null ? ((Number) r[2]).doubleValue() : 0))
+                .collect(Collectors.toList());
 
         return new GlobalAnalyticsResponse(
             totalTenants,
@@ -54,7 +104,28 @@ public class GlobalAnalyticsService {
             totalRevenue,
             activeTenants, // Placeholder for subscriptions
             recentTenants,
-            revenueByMonth
+            revenueByMonth,
+            topTenantsByRevenue
         );
     }
+
+    /**
+     * One entry per month of the last {@link #MONTHS} months, including months without orders.
+     */
+    private List<GlobalAnalyticsResponse.RevenueMetric> revenueByMonth(final YearMonth firstMonth, final Instant since) {
+        final Map<String, BigDecimal> byMonth = new HashMap<>();
+        for (final Object[] r : orderRepository.revenueByMonth(since)) {
+            byMonth.put((String) r[0], r[1] != null ? (BigDecimal) r[1] : BigDecimal.ZERO);
+        }
+
+        final List<GlobalAnalyticsResponse.RevenueMetric> series = new ArrayList<>(MONTHS);
+        for (int i = 0; i < MONTHS; i++) {
+            final YearMonth month = firstMonth.plusMonths(i);
+            final BigDecimal amount = byMonth.getOrDefault(month.toString(), BigDecimal.ZERO);
+            series.add(new GlobalAnalyticsResponse.RevenueMetric(month.format(MONTH_LABEL), amount.doubleValue()));
+        }
+        return series;
+    }
+
+    private record Cached(GlobalAnalyticsResponse response, Instant expiresAt) {}
 }
@@ -4,6 +4,7 @@ import com.foodgrid.admin.dto.OutletResponse;
 import com.foodgrid.admin.dto.OutletUpsertRequest;
 import com.foodgrid.auth.model.Outlet;
 import com.foodgrid.auth.repo.OutletRepository;
+import com.foodgrid.common.multitenancy.OutletTenancyCache;
 import com.foodgrid.common.util.Ids;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -18,6 +19,7 @@ import java.util.List;
 public class OutletAdminService {
 
   @Inject OutletRepository outletRepository;
+  @Inject OutletTenancyCache outletTenancy;
   @Inject SecurityIdentity identity;
 
   public List<OutletResponse> list() {
@@ -53,6 +55,7 @@ public class OutletAdminService {
         if (sub != null && sub.equals(o.ownerId)) {
             o.clientId = cid;
             outletRepository.persist(o);
+            outletTenancy.invalidate(o.id);
         }
     }
     
@@ -103,6 +106,7 @@ public class OutletAdminService {
       o.status = Outlet.Status.valueOf(req.status());
     }
     outletRepository.persist(o);
+    outletTenancy.invalidate(o.id);
     return toResponse(o);
   }
 
@@ -122,6 +126,7 @@ public class OutletAdminService {
     }
 
     outletRepository.delete(o);
+    outletTenancy.invalidate(o.id);
   }
 
   private String clientId() {
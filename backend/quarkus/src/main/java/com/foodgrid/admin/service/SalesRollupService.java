@@ -0,0 +1,170 @@
+package com.foodgrid.admin.service;
+
+import com.foodgrid.admin.repo.SalesRollupRepository;
+import com.foodgrid.pos.dto.OrderEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the sales rollup tables in step with order changes.
+ *
+ * Committed order events mark their (outlet, hour) bucket dirty; a scheduled flush recomputes each dirty
+ * hour from raw orders and then re-sums its day, so a dashboard load never aggregates raw orders.
+ * Dirty buckets only live in memory: orders written while the process was down, or before the rollup
+ * tables existed, are picked up by {@link #rebuild}. Requested rebuilds run one at a time on a background
+ * thread, at most {@code foodgrid.analytics.rollup.rebuild.max-queued} waiting.
+ */
+@ApplicationScoped
+public class SalesRollupService {
+
+    private static final Logger LOG = Logger.getLogger(SalesRollupService.class);
+
+    @Inject SalesRollupRepository rollupRepository;
+
+    @ConfigProperty(name = "foodgrid.analytics.rollup.rebuild.max-queued", defaultValue = "4")
+    int maxQueuedRebuilds;
+
+    /** Buckets are cut in the JVM zone, which is also the zone Instants are bound in. */
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Set<Bucket> dirty = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor rebuilds;
+
+    @PostConstruct
+    void init() {
+        rebuilds = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxQueuedRebuilds), r -> {
+            final Thread t = new Thread(r, "sales-rollup-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        rebuilds.allowCoreThreadTimeOut(true);
+    }
+
+    void onOrderChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final OrderEvent event) {
+        if (event.outletId() == null || event.orderCreatedAt() == null) {
+            return;
+        }
+        dirty.add(new Bucket(event.outletId(), event.orderCreatedAt().atZone(zone).truncatedTo(ChronoUnit.HOURS).toInstant()));
+    }
+
+    @Scheduled(every = "${foodgrid.analytics.rollup.flush-interval:30s}", identity = "sales-rollup-flush",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        final List<Bucket> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+
+        final Set<Bucket> days = new LinkedHashSet<>();
+        for (final Bucket hour : batch) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> rollupRepository.refreshHour(hour.outletId(), hour.start()));
+                days.add(new Bucket(hour.outletId(), dayStart(hour.start())));
+            } catch (final RuntimeException e) {
+                LOG.warnf(e, "Failed to refresh sales rollup for outlet %s hour %s, will retry", hour.outletId(), hour.start());
+                dirty.add(hour);
+            }
+        }
+        for (final Bucket day : days) {
+            try {
+                QuarkusTransaction.requiringNew().run(() ->
+                    rollupRepository.rebuildDays(day.outletId(), day.start(), nextDay(day.start())));
+            } catch (final RuntimeException e) {
+                // Re-queue one hour of the day; the next flush re-sums the whole day again
+                LOG.warnf(e, "Failed to re-sum sales rollup for outlet %s day %s, will retry", day.outletId(), day.start());
+                dirty.add(day);
+            }
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        rebuilds.shutdownNow();
+        try {
+            flush();
+        } catch (final RuntimeException e) {
+            LOG.warn("Sales rollup flush on shutdown failed; run a rebuild for the last minutes", e);
+        }
+    }
+
+    /**
+     * Schedules {@link #rebuild} on the background rebuild thread.
+     *
+     * @return false when too many rebuilds are already waiting
+     */
+    public boolean submitRebuild(final String outletId, final Instant from, final Instant to) {
+        try {
+            rebuilds.execute(() -> {
+                try {
+                    rebuild(outletId, from, to);
+                } catch (final RuntimeException e) {
+                    LOG.errorf(e, "Sales rollup rebuild for %s from %s to %s failed", outletId != null ? outletId : "all outlets", from, to);
+                }
+            });
+            return true;
+        } catch (final RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recomputes all rollups of the given outlet (or of every outlet when {@code outletId} is null) for the
+     * whole days covering [from, to], one day per transaction.
+     *
+     * @return number of days rebuilt
+     */
+    public int rebuild(final String outletId, final Instant from, final Instant to) {
+        Instant day = dayStart(from);
+        final Instant end = nextDay(dayStart(to));
+        int days = 0;
+        while (day.isBefore(end)) {
+            final Instant dayStart = day;
+            final Instant dayEnd = nextDay(day);
+            QuarkusTransaction.requiringNew().run(() -> {
+                rollupRepository.rebuildHours(outletId, dayStart, dayEnd);
+                rollupRepository.rebuildDays(outletId, dayStart, dayEnd);
+            });
+            day = dayEnd;
+            days++;
+        }
+        LOG.infof("Rebuilt sales rollups for %s over %d day(s) from %s", outletId != null ? outletId : "all outlets", days, dayStart(from));
+        return days;
+    }
+
+    public SalesRollupRepository.Range range(final Instant from, final Instant to) {
+        return SalesRollupRepository.Range.of(from, to, zone);
+    }
+
+    private Instant dayStart(final Instant instant) {
+        return instant.atZone(zone).truncatedTo(ChronoUnit.DAYS).toInstant();
+    }
+
+    private Instant nextDay(final Instant dayStart) {
+        final ZonedDateTime d = dayStart.atZone(zone);
+        return d.plusDays(1).toInstant();
+    }
+
+    private record Bucket(String outletId, Instant start) {}
+}
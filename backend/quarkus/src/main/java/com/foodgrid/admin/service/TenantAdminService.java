@@ -8,6 +8,7 @@ import com.foodgrid.admin.repo.AdminUserRepository;
 import com.foodgrid.admin.repo.AdminUserRoleRepository;
 import com.foodgrid.admin.repo.ClientRepository;
 import com.foodgrid.auth.service.PinHasher;
+import com.foodgrid.common.multitenancy.OutletTenancyCache;
 import com.foodgrid.common.util.Ids;
 import com.foodgrid.payment.model.ClientPaymentConfig;
 import com.foodgrid.payment.model.PaymentGatewayType;
@@ -35,6 +36,7 @@ public class TenantAdminService {
   @Inject SecurityIdentity identity;
   @Inject PaymentConfigService paymentConfigService;
   @Inject ClientPaymentConfigRepository clientPaymentConfigRepository;
+  @Inject OutletTenancyCache outletTenancy;
 
   private record AdminUserCreationResult(AdminUser user, String password) {}
 
@@ -207,6 +209,7 @@ public class TenantAdminService {
 
     // Hard delete the client
     clientRepository.delete(client);
+    outletTenancy.invalidateTenant(client.id);
   }
 
   @Transactional
@@ -4,5 +4,12 @@ import com.foodgrid.auth.model.Outlet;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
+import java.util.List;
+
 @ApplicationScoped
-public class OutletRepository implements PanacheRepositoryBase<Outlet, String> {}
+public class OutletRepository implements PanacheRepositoryBase<Outlet, String> {
+  public List<Outlet> listByIds(Collection<String> ids) {
+    return list("id in ?1", ids);
+  }
+}
@@ -39,6 +39,9 @@ public class OtpService {
   @ConfigProperty(name = "resend.api.key")
   String resendApiKey;
 
+  @ConfigProperty(name = "resend.api.url", defaultValue = "https://api.resend.com/emails")
+  String resendApiUrl;
+
   private final ObjectMapper objectMapper = new ObjectMapper();
   private final HttpClient httpClient = HttpClient.newBuilder()
           .connectTimeout(Duration.ofSeconds(30))
@@ -71,7 +74,7 @@ public class OtpService {
 
         // Make HTTP request to Resend API using Java 11 HttpClient
         final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.resend.com/emails"))
+                .uri(URI.create(resendApiUrl))
                 .header("Authorization", "Bearer " + resendApiKey)
                 .header("Content-Type", "application/json")
                 .timeout(Duration.ofSeconds(30))
@@ -0,0 +1,20 @@
+package com.foodgrid.common.audit;
+
+import java.time.Instant;
+
+/**
+ * An audit row captured at the call site, before it is queued for the background writer.
+ * Tenant and actor are resolved eagerly because the request context is gone by the time the row is written.
+ */
+public record AuditEntry(
+  String id,
+  String tenantId,
+  String outletId,
+  String actorType,
+  String actorId,
+  String action,
+  String entityType,
+  String entityId,
+  String meta,
+  Instant createdAt
+) {}
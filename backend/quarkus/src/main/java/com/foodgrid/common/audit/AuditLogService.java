@@ -4,37 +4,38 @@ import com.foodgrid.common.multitenancy.TenantContext;
 import com.foodgrid.common.util.Ids;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 
 import java.time.Instant;
-import java.util.Date;
 
+/**
+ * Records audit rows without adding an insert to the caller's transaction.
+ * The row is handed to {@link AuditLogWriter} once the caller's transaction commits (immediately without one),
+ * so audits of rolled-back work are discarded exactly as before.
+ */
 @ApplicationScoped
 public class AuditLogService {
 
-  @Inject AuditLogRepository repo;
   @Inject TenantContext tenantContext;
   @Inject SecurityIdentity identity;
+  @Inject Event<AuditEntry> entries;
 
-  @Transactional
   public void record(final String action, final String outletId, final String entityType, final String entityId, final String meta) {
-    final AuditLog a = new AuditLog();
-    a.id = Ids.uuid();
-    a.tenantId = tenantContext.hasTenant() ? tenantContext.getTenantId() : null;
-    a.outletId = outletId;
-
     final String actorType = attribute("principalType");
-    a.actorType = (actorType == null || actorType.isBlank()) ? "UNKNOWN" : actorType;
-    a.actorId = (identity.getPrincipal() == null) ? null : identity.getPrincipal().getName();
-
-    a.action = action;
-    a.entityType = entityType;
-    a.entityId = entityId;
-    a.meta = meta;
-    a.createdAt = Date.from(Instant.now());
 
-    repo.persist(a);
+    entries.fire(new AuditEntry(
+      Ids.uuid(),
+      tenantContext.hasTenant() ? tenantContext.getTenantId() : null,
+      outletId,
+      (actorType == null || actorType.isBlank()) ? "UNKNOWN" : actorType,
+      (identity.getPrincipal() == null) ? null : identity.getPrincipal().getName(),
+      action,
+      entityType,
+      entityId,
+      meta,
+      Instant.now()
+    ));
   }
 
   private String attribute(final String name) {
@@ -0,0 +1,246 @@
+package com.foodgrid.common.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.Startup;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for audit rows.
+ *
+ * Committed {@link AuditEntry}s go into a bounded queue that a scheduled flusher drains in JDBC batches.
+ * When the queue is full or the database rejects a batch, rows are appended to a local JSON-lines spill
+ * file instead; the flusher replays that file once the database accepts writes again, including after a
+ * restart. Inserts ignore duplicate ids, so replaying a partially written batch is safe.
+ */
+@ApplicationScoped
+@Startup
+public class AuditLogWriter {
+
+  private static final Logger LOG = Logger.getLogger(AuditLogWriter.class);
+  private static final int META_MAX_LENGTH = 1000;
+  private static final String INSERT =
+    "insert ignore into audit_log (id, tenant_id, outlet_id, actor_type, actor_id, action, entity_type, entity_id, meta, created_at) " +
+    "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @Inject ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "foodgrid.audit.queue-capacity", defaultValue = "10000")
+  int queueCapacity;
+
+  @ConfigProperty(name = "foodgrid.audit.batch-size", defaultValue = "200")
+  int batchSize;
+
+  @ConfigProperty(name = "foodgrid.audit.spill-file", defaultValue = "data/audit-spill.jsonl")
+  Path spillFile;
+
+  private BlockingQueue<AuditEntry> queue;
+  private final Object spillLock = new Object();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong spilled = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private long droppedReported;
+
+  @PostConstruct
+  void init() {
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+  }
+
+  void onRecorded(@Observes(during = TransactionPhase.AFTER_SUCCESS) final AuditEntry entry) {
+    if (!queue.offer(entry)) {
+      spill(List.of(entry));
+    }
+  }
+
+  @Scheduled(every = "${foodgrid.audit.flush-interval:1s}", identity = "audit-log-flush",
+    concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void flush() {
+    final List<AuditEntry> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      if (!write(batch)) {
+        // Database unavailable: park the rest on disk and retry on a later tick
+        spill(batch);
+        batch.clear();
+        queue.drainTo(batch);
+        spill(batch);
+        return;
+      }
+      batch.clear();
+    }
+    replaySpill();
+    reportDrops();
+  }
+
+  @PreDestroy
+  void drain() {
+    try {
+      flush();
+    } finally {
+      final List<AuditEntry> rest = new ArrayList<>();
+      queue.drainTo(rest);
+      spill(rest);
+    }
+  }
+
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  public long writtenCount() {
+    return written.get();
+  }
+
+  public long spilledCount() {
+    return spilled.get();
+  }
+
+  /** Rows lost because they could neither be queued nor spilled. */
+  public long droppedCount() {
+    return dropped.get();
+  }
+
+  private boolean write(final List<AuditEntry> batch) {
+    try {
+      QuarkusTransaction.requiringNew().run(() -> insert(batch));
+      written.addAndGet(batch.size());
+      return true;
+    } catch (final RuntimeException e) {
+      LOG.warnf("Audit batch of %d rows could not be written: %s", batch.size(), e.getMessage());
+      return false;
+    }
+  }
+
+  private static void insert(final List<AuditEntry> batch) {
+    Panache.getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        for (final AuditEntry e : batch) {
+          ps.setString(1, e.id());
+          ps.setString(2, e.tenantId());
+          ps.setString(3, e.outletId());
+          ps.setString(4, e.actorType());
+          ps.setString(5, e.actorId());
+          ps.setString(6, e.action());
+          ps.setString(7, e.entityType());
+          ps.setString(8, e.entityId());
+          ps.setString(9, e.meta() != null && e.meta().length() > META_MAX_LENGTH ? e.meta().substring(0, META_MAX_LENGTH) : e.meta());
+          ps.setTimestamp(10, e.createdAt() != null ? Timestamp.from(e.createdAt()) : null);
+          ps.addBatch();
+        }
+        ps.executeBatch();
+      }
+    });
+  }
+
+  private void spill(final List<AuditEntry> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    synchronized (spillLock) {
+      try {
+        if (spillFile.getParent() != null) {
+          Files.createDirectories(spillFile.getParent());
+        }
+        try (BufferedWriter w = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+          for (final AuditEntry e : entries) {
+            w.write(objectMapper.writeValueAsString(e));
+            w.newLine();
+          }
+        }
+        spilled.addAndGet(entries.size());
+      } catch (final IOException e) {
+        dropped.addAndGet(entries.size());
+        LOG.errorf(e, "Could not spill %d audit rows to %s", entries.size(), spillFile);
+      }
+    }
+  }
+
+  /**
+   * Moves the spill file aside and writes it back to the database batch by batch. If the database fails
+   * again the moved file is kept and retried from the start on the next tick.
+   */
+  private void replaySpill() {
+    final Path replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+    try {
+      synchronized (spillLock) {
+        if (!Files.exists(replayFile)) {
+          if (!Files.exists(spillFile)) {
+            return;
+          }
+          Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+      }
+
+      long replayed = 0;
+      try (BufferedReader r = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+        final List<AuditEntry> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = r.readLine()) != null) {
+          if (line.isBlank()) {
+            continue;
+          }
+          try {
+            batch.add(objectMapper.readValue(line, AuditEntry.class));
+          } catch (final JsonProcessingException e) {
+            // e.g. a line cut short by a crash while spilling
+            dropped.incrementAndGet();
+            LOG.warnf("Skipping unreadable spilled audit row: %s", e.getOriginalMessage());
+            continue;
+          }
+          if (batch.size() >= batchSize) {
+            if (!write(batch)) {
+              return;
+            }
+            replayed += batch.size();
+            batch.clear();
+          }
+        }
+        if (!batch.isEmpty()) {
+          if (!write(batch)) {
+            return;
+          }
+          replayed += batch.size();
+        }
+      }
+      Files.delete(replayFile);
+      LOG.infof("Replayed %d spilled audit rows", replayed);
+    } catch (final IOException e) {
+      LOG.errorf(e, "Could not replay spilled audit rows from %s", replayFile);
+    }
+  }
+
+  private void reportDrops() {
+    final long d = dropped.get();
+    if (d > droppedReported) {
+      LOG.warnf("%d audit rows dropped so far (queue depth %d)", d, queue.size());
+      droppedReported = d;
+    }
+  }
+}
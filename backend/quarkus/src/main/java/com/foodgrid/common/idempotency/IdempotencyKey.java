@@ -14,6 +14,9 @@ import java.util.Date;
 @Table(name = "idempotency_keys",
   uniqueConstraints = {
     @UniqueConstraint(name = "uk_idem_scope_key", columnNames = {"tenant_id", "operation", "idem_key"})
+  },
+  indexes = {
+    @Index(name = "idx_idem_created_at", columnList = "created_at")
   }
 )
 public class IdempotencyKey extends PanacheEntityBase {
@@ -2,19 +2,54 @@ package com.foodgrid.common.idempotency;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.Optional;
 
 @ApplicationScoped
 public class IdempotencyKeyRepository implements PanacheRepositoryBase<IdempotencyKey, String> {
 
-  public Optional<IdempotencyKey> findByScope(final String tenantId, final String operation, final String key) {
+  /**
+   * Inserts a reservation unless the scoped key already exists.
+   *
+   * @return true when this call created the reservation
+   */
+  public boolean reserve(final String id, final String tenantId, final String operation, final String key,
+                         final String requestHash, final Instant createdAt) {
+    return getEntityManager().createNativeQuery(
+        "insert ignore into idempotency_keys (id, tenant_id, operation, idem_key, request_hash, created_at) " +
+        "values (?1, ?2, ?3, ?4, ?5, ?6)")
+      .setParameter(1, id)
+      .setParameter(2, tenantId)
+      .setParameter(3, operation)
+      .setParameter(4, key)
+      .setParameter(5, requestHash)
+      .setParameter(6, Timestamp.from(createdAt))
+      .executeUpdate() == 1;
+  }
+
+  /**
+   * Reads the latest committed row with a shared lock, so a key reserved by a transaction that committed
+   * after this one started is still seen.
+   */
+  public Optional<IdempotencyKey> findByScopeForShare(final String tenantId, final String operation, final String key) {
     return find("tenantId = ?1 and operation = ?2 and key = ?3", tenantId, operation, key)
+      .withLock(LockModeType.PESSIMISTIC_READ)
       .firstResultOptional();
   }
 
-  public Optional<IdempotencyKey> findAny(final String operation, final String key) {
-    return find("operation = ?1 and key = ?2", operation, key)
-      .firstResultOptional();
+  public int complete(final String tenantId, final String operation, final String key, final String requestHash,
+                      final String resultRef) {
+    return update("resultRef = ?1 where tenantId = ?2 and operation = ?3 and key = ?4 and requestHash = ?5",
+      resultRef, tenantId, operation, key, requestHash);
+  }
+
+  public int deleteCreatedBefore(final Instant cutoff, final int limit) {
+    return getEntityManager().createNativeQuery("delete from idempotency_keys where created_at < ?1 limit ?2")
+      .setParameter(1, Timestamp.from(cutoff))
+      .setParameter(2, limit)
+      .executeUpdate();
   }
 }
@@ -1,56 +1,91 @@
 package com.foodgrid.common.idempotency;
 
 import com.foodgrid.common.util.Ids;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Idempotency keys for write operations, scoped by tenant (or owning principal) and operation.
+ *
+ * A key is reserved with a single {@code insert ignore} inside the caller's transaction, so the reservation
+ * commits or rolls back together with the work it guards. A concurrent retry blocks on the unique key until
+ * the first attempt finishes, then replays its result or, if it rolled back, takes over the reservation.
+ * Completed keys are kept in a bounded in-memory LRU so most replays skip the database, and rows older than
+ * {@code foodgrid.idempotency.ttl} are purged on a schedule. Keys without a tenant are stored under
+ * {@link #NO_TENANT}, since the unique key would not deduplicate a NULL tenant.
+ */
 @ApplicationScoped
 public class IdempotencyService {
 
+  private static final Logger LOG = Logger.getLogger(IdempotencyService.class);
+  static final String NO_TENANT = "-";
+
   @Inject IdempotencyKeyRepository repository;
+  @Inject Event<Completed> completions;
+
+  @ConfigProperty(name = "foodgrid.idempotency.ttl", defaultValue = "24h")
+  Duration ttl;
+
+  @ConfigProperty(name = "foodgrid.idempotency.cache-size", defaultValue = "10000")
+  int cacheSize;
+
+  @ConfigProperty(name = "foodgrid.idempotency.purge-batch-size", defaultValue = "1000")
+  int purgeBatchSize;
+
+  private final Map<String, Completed> recent = new LinkedHashMap<>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, Completed> eldest) {
+      return size() > cacheSize;
+    }
+  };
 
   public record Result(String resultRef) {}
 
+  record Completed(String tenantId, String operation, String key, String requestHash, String resultRef, Instant completedAt) {}
+
   /**
    * Checks/reserves an idempotency key.
    *
    * @return Optional<Result> if it was already completed, empty if caller should proceed.
    */
   @Transactional
-  public Optional<Result> checkOrReserve(final String tenantId, final String operation, final String key, final String requestHash) {
+  public Optional<Result> checkOrReserve(final String tenant, final String operation, final String key, final String requestHash) {
     if (key == null || key.isBlank()) {
       return Optional.empty();
     }
+    final String tenantId = scope(tenant);
 
-    // 1) Prefer strict tenant-scoped lookup
-    final IdempotencyKey existing = repository.findByScope(tenantId, operation, key).orElse(null);
-
-    // 2) If not found, check for accidental cross-tenant reuse / tenant-resolution mismatch.
-    if (existing == null) {
-      final IdempotencyKey any = repository.findAny(operation, key).orElse(null);
-      if (any != null && any.tenantId != null && !any.tenantId.equals(tenantId)) {
-        throw conflict("Idempotency key belongs to another tenant");
+    final Completed cached = recentlyCompleted(tenantId, operation, key);
+    if (cached != null) {
+      if (!cached.requestHash().equals(requestHash)) {
+        throw conflict("Idempotency key reuse with different request");
       }
+      return Optional.of(new Result(cached.resultRef()));
+    }
 
-      final IdempotencyKey idem = new IdempotencyKey();
-      idem.id = Ids.uuid();
-      idem.tenantId = tenantId;
-      idem.operation = operation;
-      idem.key = key;
-      idem.requestHash = requestHash;
-      idem.resultRef = null;
-      idem.createdAt = Date.from(Instant.now());
-      repository.persist(idem);
+    if (repository.reserve(Ids.uuid(), tenantId, operation, key, requestHash, Instant.now())) {
       return Optional.empty();
     }
 
+    final IdempotencyKey existing = repository.findByScopeForShare(tenantId, operation, key)
+      .orElseThrow(() -> conflict("Idempotency key is in progress"));
+
     // Same key but different payload => conflict
     if (!existing.requestHash.equals(requestHash)) {
       throw conflict("Idempotency key reuse with different request");
@@ -58,6 +93,7 @@ public class IdempotencyService {
 
     // If we already have a resultRef, return it so the caller can replay.
     if (existing.resultRef != null && !existing.resultRef.isBlank()) {
+      remember(new Completed(tenantId, operation, key, requestHash, existing.resultRef, Instant.now()));
       return Optional.of(new Result(existing.resultRef));
     }
 
@@ -66,20 +102,62 @@ public class IdempotencyService {
   }
 
   @Transactional
-  public void markCompleted(final String tenantId, final String operation, final String key, final String requestHash, final String resultRef) {
+  public void markCompleted(final String tenant, final String operation, final String key, final String requestHash, final String resultRef) {
     if (key == null || key.isBlank()) {
       return;
     }
+    final String tenantId = scope(tenant);
+
+    if (repository.complete(tenantId, operation, key, requestHash, resultRef) == 0) {
+      throw conflict("Idempotency key missing or reused with different request");
+    }
+    completions.fire(new Completed(tenantId, operation, key, requestHash, resultRef, Instant.now()));
+  }
+
+  void onCompleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) final Completed completed) {
+    remember(completed);
+  }
+
+  @Scheduled(every = "${foodgrid.idempotency.purge-interval:15m}", identity = "idempotency-purge",
+    concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void purgeExpired() {
+    final Instant cutoff = Instant.now().minus(ttl);
+    synchronized (recent) {
+      recent.values().removeIf(c -> c.completedAt().isBefore(cutoff));
+    }
 
-    final IdempotencyKey idem = repository.findByScope(tenantId, operation, key)
-      .orElseThrow(() -> conflict("Idempotency key missing"));
+    // Small batches keep each delete's lock footprint short
+    long purged = 0;
+    int deleted;
+    do {
+      deleted = QuarkusTransaction.requiringNew().call(() -> repository.deleteCreatedBefore(cutoff, purgeBatchSize));
+      purged += deleted;
+    } while (deleted >= purgeBatchSize);
+
+    if (purged > 0) {
+      LOG.debugf("Purged %d expired idempotency keys", purged);
+    }
+  }
 
-    if (!idem.requestHash.equals(requestHash)) {
-      throw conflict("Idempotency key mismatch");
+  private Completed recentlyCompleted(final String tenantId, final String operation, final String key) {
+    synchronized (recent) {
+      final Completed c = recent.get(cacheKey(tenantId, operation, key));
+      return c != null && c.completedAt().isAfter(Instant.now().minus(ttl)) ? c : null;
     }
+  }
+
+  private void remember(final Completed c) {
+    synchronized (recent) {
+      recent.put(cacheKey(c.tenantId(), c.operation(), c.key()), c);
+    }
+  }
+
+  private static String scope(final String tenantId) {
+    return tenantId == null || tenantId.isBlank() ? NO_TENANT : tenantId;
+  }
 
-    idem.resultRef = resultRef;
-    repository.persist(idem);
+  private static String cacheKey(final String tenantId, final String operation, final String key) {
+    return tenantId + '\u0000' + operation + '\u0000' + key;
   }
 
   private static WebApplicationException conflict(final String message) {
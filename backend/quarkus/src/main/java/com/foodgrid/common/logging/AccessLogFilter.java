@@ -0,0 +1,153 @@
+package com.foodgrid.common.logging;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Sampled access log. Request threads only take a timestamp and, when body capture is enabled, tee the
+ * first {@code foodgrid.access-log.max-body-bytes} of a textual request body as the application reads it;
+ * formatting and writing happen in {@link AccessLogWriter}.
+ */
+@Provider
+@Priority(5000)
+public class AccessLogFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private static final String START_TIME = AccessLogFilter.class.getName() + ".startTime";
+  private static final String BODY = AccessLogFilter.class.getName() + ".body";
+
+  @Inject AccessLogWriter writer;
+  @Inject CorrelationContext correlationContext;
+  @Inject SecurityIdentity identity;
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext) {
+    if (!writer.enabled()) {
+      return;
+    }
+    requestContext.setProperty(START_TIME, System.nanoTime());
+
+    if (writer.captureBodies() && requestContext.hasEntity() && isTextual(requestContext.getMediaType())) {
+      final CapturingInputStream capture = new CapturingInputStream(requestContext.getEntityStream(), writer.maxBodyBytes());
+      requestContext.setEntityStream(capture);
+      requestContext.setProperty(BODY, capture);
+    }
+  }
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+    if (!(requestContext.getProperty(START_TIME) instanceof final Long startTime)) {
+      return;
+    }
+    final long durationNanos = System.nanoTime() - startTime;
+    final int status = responseContext.getStatus();
+    if (!writer.shouldLog(status, durationNanos)) {
+      return;
+    }
+
+    final String requestBody = requestContext.getProperty(BODY) instanceof final CapturingInputStream capture ? capture.text() : null;
+    final Object responseBody = writer.captureBodies() && status >= 400 && responseContext.hasEntity() ? responseContext.getEntity() : null;
+
+    writer.submit(new AccessLogWriter.Entry(
+      Instant.now(),
+      correlationId(),
+      requestContext.getMethod(),
+      requestContext.getUriInfo().getRequestUri().getRawPath(),
+      requestContext.getUriInfo().getRequestUri().getRawQuery(),
+      status,
+      durationNanos / 1_000,
+      principal(),
+      requestBody,
+      responseBody
+    ));
+  }
+
+  private String correlationId() {
+    try {
+      return correlationContext.getCorrelationId();
+    } catch (final Exception e) {
+      return "unknown";
+    }
+  }
+
+  private String principal() {
+    if (identity == null || identity.isAnonymous() || identity.getPrincipal() == null) {
+      return null;
+    }
+    return identity.getPrincipal().getName();
+  }
+
+  private static boolean isTextual(final MediaType type) {
+    return type != null && (type.isCompatible(MediaType.APPLICATION_JSON_TYPE)
+      || type.isCompatible(MediaType.APPLICATION_FORM_URLENCODED_TYPE)
+      || "text".equals(type.getType()));
+  }
+
+  /**
+   * Passes the body through unchanged while keeping a copy of its first {@code limit} bytes.
+   */
+  static final class CapturingInputStream extends FilterInputStream {
+    private final byte[] captured;
+    private int length;
+    private boolean truncated;
+
+    CapturingInputStream(final InputStream in, final int limit) {
+      super(in);
+      this.captured = new byte[limit];
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b >= 0) {
+        if (length < captured.length) {
+          captured[length++] = (byte) b;
+        } else {
+          truncated = true;
+        }
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int n = super.read(b, off, len);
+      if (n > 0) {
+        keep(b, off, n);
+      }
+      return n;
+    }
+
+    private void keep(final byte[] b, final int off, final int n) {
+      final int room = captured.length - length;
+      if (n > room) {
+        truncated = true;
+      }
+      final int copy = Math.min(room, n);
+      if (copy > 0) {
+        System.arraycopy(b, off, captured, length, copy);
+        length += copy;
+      }
+    }
+
+    String text() {
+      if (length == 0) {
+        return null;
+      }
+      final String s = new String(captured, 0, length, StandardCharsets.UTF_8);
+      return truncated ? s + "...[truncated]" : s;
+    }
+  }
+}
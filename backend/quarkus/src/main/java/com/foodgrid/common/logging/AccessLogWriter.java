@@ -0,0 +1,202 @@
+package com.foodgrid.common.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Formats and writes access log lines off the request thread.
+ *
+ * Request threads only enqueue an {@link Entry}; a single daemon thread redacts, truncates and serializes it
+ * with one shared {@link ObjectWriter} and logs it as a JSON line under the {@code foodgrid.access} category.
+ * The queue is a ring: when it is full the oldest pending line is dropped and counted.
+ */
+@ApplicationScoped
+public class AccessLogWriter {
+
+  private static final Logger ACCESS = Logger.getLogger("foodgrid.access");
+  private static final Logger LOG = Logger.getLogger(AccessLogWriter.class);
+  private static final String REDACTED = "***";
+
+  @Inject ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "foodgrid.access-log.enabled", defaultValue = "true")
+  boolean enabled;
+
+  /** Share of successful, fast requests that are logged; errors and slow requests are always logged. */
+  @ConfigProperty(name = "foodgrid.access-log.sample-rate", defaultValue = "0.1")
+  double sampleRate;
+
+  @ConfigProperty(name = "foodgrid.access-log.slow-threshold", defaultValue = "1s")
+  Duration slowThreshold;
+
+  @ConfigProperty(name = "foodgrid.access-log.capture-bodies", defaultValue = "false")
+  boolean captureBodies;
+
+  @ConfigProperty(name = "foodgrid.access-log.max-body-bytes", defaultValue = "2048")
+  int maxBodyBytes;
+
+  @ConfigProperty(name = "foodgrid.access-log.buffer-size", defaultValue = "4096")
+  int bufferSize;
+
+  @ConfigProperty(name = "foodgrid.access-log.redact-fields",
+    defaultValue = "password,pin,otp,token,accessToken,refreshToken,secret,keySecret,webhookSecret,authorization,cvv,cardNumber")
+  List<String> redactFields;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private BlockingQueue<Entry> queue;
+  private ObjectWriter writer;
+  private Pattern jsonRedaction;
+  // Query strings and form-urlencoded bodies
+  private Pattern formRedaction;
+  private Thread worker;
+
+  /**
+   * @param query        raw query string, redacted before writing
+   * @param requestBody  captured prefix of the request body, or null
+   * @param responseBody response entity of a failed request, serialized by the writer thread, or null
+   */
+  public record Entry(
+    Instant at,
+    String correlationId,
+    String method,
+    String path,
+    String query,
+    int status,
+    long durationMicros,
+    String principal,
+    String requestBody,
+    Object responseBody
+  ) {}
+
+  record Line(
+    Instant at,
+    String correlationId,
+    String method,
+    String path,
+    String query,
+    int status,
+    double durationMs,
+    String principal,
+    String requestBody,
+    String responseBody
+  ) {}
+
+  @PostConstruct
+  void init() {
+    queue = new ArrayBlockingQueue<>(bufferSize);
+    writer = objectMapper.writer();
+
+    final String fields = String.join("|", redactFields.stream().map(Pattern::quote).toList());
+    jsonRedaction = Pattern.compile("(\"(?:" + fields + ")\"\\s*:\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\]\\s]+)", Pattern.CASE_INSENSITIVE);
+    formRedaction = Pattern.compile("((?:^|&)(?:" + fields + ")=)[^&]*", Pattern.CASE_INSENSITIVE);
+
+    worker = new Thread(this::drain, "access-log-writer");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    worker.interrupt();
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  public boolean captureBodies() {
+    return captureBodies;
+  }
+
+  public int maxBodyBytes() {
+    return maxBodyBytes;
+  }
+
+  public boolean shouldLog(final int status, final long durationNanos) {
+    return status >= 400
+      || durationNanos >= slowThreshold.toNanos()
+      || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  public void submit(final Entry entry) {
+    while (!queue.offer(entry)) {
+      if (queue.poll() != null) {
+        dropped.incrementAndGet();
+      }
+    }
+  }
+
+  public long droppedCount() {
+    return dropped.get();
+  }
+
+  private void drain() {
+    while (!Thread.currentThread().isInterrupted()) {
+      final Entry e;
+      try {
+        e = queue.take();
+      } catch (final InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      try {
+        write(e);
+      } catch (final Exception ex) {
+        LOG.debug("Failed to write access log line", ex);
+      }
+    }
+  }
+
+  private void write(final Entry e) throws Exception {
+    final String responseBody = e.responseBody() == null ? null
+      : redactJson(truncate(e.responseBody() instanceof String s ? s : writer.writeValueAsString(e.responseBody())));
+
+    final String json = writer.writeValueAsString(new Line(
+      e.at(),
+      e.correlationId(),
+      e.method(),
+      e.path(),
+      e.query() == null || e.query().isEmpty() ? null : redactForm(e.query()),
+      e.status(),
+      e.durationMicros() / 1000.0,
+      e.principal(),
+      e.requestBody() == null ? null : redactForm(redactJson(e.requestBody())),
+      responseBody
+    ));
+
+    if (e.status() >= 500) {
+      ACCESS.error(json);
+    } else if (e.status() >= 400) {
+      ACCESS.warn(json);
+    } else {
+      ACCESS.info(json);
+    }
+  }
+
+  private String redactJson(final String body) {
+    return jsonRedaction.matcher(body).replaceAll("$1\"" + REDACTED + "\"");
+  }
+
+  private String redactForm(final String body) {
+    return formRedaction.matcher(body).replaceAll("$1" + REDACTED);
+  }
+
+  private String truncate(final String s) {
+    return s.length() <= maxBodyBytes ? s : s.substring(0, maxBodyBytes) + "...[truncated]";
+  }
+}
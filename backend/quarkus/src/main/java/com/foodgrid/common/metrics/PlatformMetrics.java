@@ -0,0 +1,136 @@
+package com.foodgrid.common.metrics;
+
+import com.foodgrid.common.audit.AuditLogWriter;
+import com.foodgrid.common.logging.AccessLogWriter;
+import com.foodgrid.common.rest.VirtualThreadAdmissionFilter;
+import com.foodgrid.common.sql.SqlRequestStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters for the shared request infrastructure: background writers, virtual-thread admission
+ * and per-endpoint SQL usage.
+ *
+ * HTTP timers and connection pool gauges come from the Quarkus binders. Everything here is skipped when
+ * {@code foodgrid.metrics.enabled} is false, so the recording paths then cost a field read.
+ */
+@ApplicationScoped
+public class PlatformMetrics implements MeterBinder {
+
+  @ConfigProperty(name = "foodgrid.metrics.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @Inject AuditLogWriter auditLogWriter;
+  @Inject AccessLogWriter accessLogWriter;
+  @Inject VirtualThreadAdmissionFilter virtualThreadAdmission;
+
+  private final Map<String, SqlMeters> sqlMeters = new ConcurrentHashMap<>();
+  private volatile MeterRegistry registry;
+
+  private record SqlMeters(DistributionSummary statements, DistributionSummary entityLoads, Timer jdbcTime) {}
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    if (!enabled) {
+      return;
+    }
+    this.registry = registry;
+
+    Gauge.builder("foodgrid.audit.queue.depth", auditLogWriter, AuditLogWriter::queueDepth)
+      .description("Audit rows waiting to be written")
+      .register(registry);
+    FunctionCounter.builder("foodgrid.audit.rows", auditLogWriter, AuditLogWriter::writtenCount)
+      .tag("outcome", "written")
+      .register(registry);
+    FunctionCounter.builder("foodgrid.audit.rows", auditLogWriter, AuditLogWriter::spilledCount)
+      .tag("outcome", "spilled")
+      .register(registry);
+    FunctionCounter.builder("foodgrid.audit.rows", auditLogWriter, AuditLogWriter::droppedCount)
+      .tag("outcome", "dropped")
+      .register(registry);
+    FunctionCounter.builder("foodgrid.access-log.dropped", accessLogWriter, AccessLogWriter::droppedCount)
+      .description("Access log entries discarded because the writer queue was full")
+      .register(registry);
+    Gauge.builder("foodgrid.virtual-threads.admitted", virtualThreadAdmission, VirtualThreadAdmissionFilter::admittedCount)
+      .description("Virtual-thread requests currently admitted")
+      .register(registry);
+  }
+
+  /**
+   * Latency histograms for the per-endpoint HTTP server timers, so percentiles can be aggregated across instances.
+   */
+  @Produces
+  @Singleton
+  MeterFilter httpServerHistograms() {
+    if (!enabled) {
+      return new MeterFilter() {};
+    }
+    final DistributionStatisticConfig histogram = DistributionStatisticConfig.builder()
+      .percentilesHistogram(true)
+      .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+      .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+      .build();
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(final Meter.Id id, final DistributionStatisticConfig config) {
+        return "http.server.requests".equals(id.getName()) ? histogram.merge(config) : config;
+      }
+    };
+  }
+
+  /**
+   * Records one request's SQL usage against its endpoint template; the meters of an endpoint are created on
+   * its first request.
+   */
+  public void recordSql(final String endpoint, final SqlRequestStats stats) {
+    final MeterRegistry r = registry;
+    if (r == null) {
+      return;
+    }
+    SqlMeters m = sqlMeters.get(endpoint);
+    if (m == null) {
+      m = sqlMeters.computeIfAbsent(endpoint, e -> new SqlMeters(
+        DistributionSummary.builder("foodgrid.sql.statements")
+          .description("SQL statements issued per request")
+          .tag("endpoint", e)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(1.0)
+          .maximumExpectedValue(1000.0)
+          .register(r),
+        DistributionSummary.builder("foodgrid.sql.entity.loads")
+          .description("Entities hydrated per request")
+          .tag("endpoint", e)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(1.0)
+          .maximumExpectedValue(1000.0)
+          .register(r),
+        Timer.builder("foodgrid.sql.time")
+          .description("Time spent in JDBC execution per request")
+          .tag("endpoint", e)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofMillis(1))
+          .maximumExpectedValue(Duration.ofSeconds(10))
+          .register(r)));
+    }
+    m.statements().record(stats.statements());
+    m.entityLoads().record(stats.entityLoads());
+    m.jdbcTime().record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+  }
+}
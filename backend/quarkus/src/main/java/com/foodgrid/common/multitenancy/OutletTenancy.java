@@ -0,0 +1,26 @@
+package com.foodgrid.common.multitenancy;
+
+import com.foodgrid.auth.model.Outlet;
+
+/**
+ * The parts of an outlet that tenant checks need.
+ */
+public record OutletTenancy(
+  String outletId,
+  String clientId,
+  String ownerId,
+  String timezone,
+  String name
+) {
+
+  public static OutletTenancy of(final Outlet o) {
+    return new OutletTenancy(o.id, o.clientId, o.ownerId, o.timezone, o.name);
+  }
+
+  /**
+   * @return the client the outlet belongs to, or its owner for outlets not yet assigned to a client.
+   */
+  public String tenantId() {
+    return (clientId != null && !clientId.isBlank()) ? clientId : ownerId;
+  }
+}
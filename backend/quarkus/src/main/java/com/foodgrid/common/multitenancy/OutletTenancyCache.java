@@ -0,0 +1,127 @@
+package com.foodgrid.common.multitenancy;
+
+import com.foodgrid.auth.repo.OutletRepository;
+import io.quarkus.arc.Arc;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outlet to tenant lookups for {@link TenantFilter} and {@code TenantGuards}.
+ *
+ * Lookups are memoized for the current request and cached application-wide for
+ * {@code foodgrid.tenancy-cache.ttl}. Outlet and client writes call {@link #invalidate} or
+ * {@link #invalidateTenant}; entries are dropped once the write commits, and a load that raced with the
+ * write is not stored. Unknown outlets are not cached, so a new outlet is visible immediately.
+ */
+@ApplicationScoped
+public class OutletTenancyCache {
+
+  @Inject OutletRepository outletRepository;
+  @Inject OutletTenancyMemo memo;
+  @Inject Event<OutletChanged> changes;
+
+  @ConfigProperty(name = "foodgrid.tenancy-cache.ttl", defaultValue = "5m")
+  Duration ttl;
+
+  @ConfigProperty(name = "foodgrid.tenancy-cache.max-outlets", defaultValue = "10000")
+  int maxOutlets;
+
+  private final Map<String, Cached> outlets = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * @param outletId the changed outlet, or null when every outlet of {@code clientId} is affected
+   */
+  public record OutletChanged(String outletId, String clientId) {}
+
+  private record Cached(OutletTenancy tenancy, Instant loadedAt) {}
+
+  public Optional<OutletTenancy> find(final String outletId) {
+    if (outletId == null || outletId.isBlank()) {
+      return Optional.empty();
+    }
+    final boolean inRequest = Arc.container().requestContext().isActive();
+    if (inRequest) {
+      final OutletTenancy memoized = memo.outlets.get(outletId);
+      if (memoized != null) {
+        return Optional.of(memoized);
+      }
+    }
+
+    final OutletTenancy tenancy = lookup(outletId);
+    if (tenancy != null && inRequest) {
+      memo.outlets.put(outletId, tenancy);
+    }
+    return Optional.ofNullable(tenancy);
+  }
+
+  /**
+   * Drops the outlet once the current transaction commits (immediately without one).
+   */
+  public void invalidate(final String outletId) {
+    if (Arc.container().requestContext().isActive()) {
+      memo.outlets.remove(outletId);
+    }
+    changes.fire(new OutletChanged(outletId, null));
+  }
+
+  /**
+   * Drops every cached outlet of the client once the current transaction commits.
+   */
+  public void invalidateTenant(final String clientId) {
+    if (Arc.container().requestContext().isActive()) {
+      memo.outlets.clear();
+    }
+    changes.fire(new OutletChanged(null, clientId));
+  }
+
+  void onOutletChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final OutletChanged event) {
+    generation.incrementAndGet();
+    if (event.outletId() != null) {
+      outlets.remove(event.outletId());
+    } else {
+      outlets.values().removeIf(c -> event.clientId().equals(c.tenancy().clientId()));
+    }
+  }
+
+  private OutletTenancy lookup(final String outletId) {
+    final Cached cached = outlets.get(outletId);
+    if (cached != null && Instant.now().isBefore(cached.loadedAt().plus(ttl))) {
+      return cached.tenancy();
+    }
+
+    final long gen = generation.get();
+    final OutletTenancy loaded = outletRepository.findByIdOptional(outletId).map(OutletTenancy::of).orElse(null);
+    if (loaded == null) {
+      outlets.remove(outletId);
+    } else if (generation.get() == gen) {
+      evictIfFull();
+      outlets.put(outletId, new Cached(loaded, Instant.now()));
+    }
+    return loaded;
+  }
+
+  private void evictIfFull() {
+    if (outlets.size() < maxOutlets) {
+      return;
+    }
+    final Instant now = Instant.now();
+    outlets.values().removeIf(c -> !now.isBefore(c.loadedAt().plus(ttl)));
+    if (outlets.size() >= maxOutlets) {
+      outlets.entrySet().stream()
+        .min((a, b) -> a.getValue().loadedAt().compareTo(b.getValue().loadedAt()))
+        .ifPresent(oldest -> outlets.remove(oldest.getKey(), oldest.getValue()));
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.foodgrid.common.multitenancy;
+
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outlets already resolved during the current request.
+ */
+@RequestScoped
+class OutletTenancyMemo {
+
+  final Map<String, OutletTenancy> outlets = new HashMap<>();
+}
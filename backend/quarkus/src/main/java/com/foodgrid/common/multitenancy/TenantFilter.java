@@ -1,7 +1,5 @@
 package com.foodgrid.common.multitenancy;
 
-import com.foodgrid.auth.model.Outlet;
-import com.foodgrid.auth.repo.OutletRepository;
 import com.foodgrid.common.exception.ErrorCode;
 import com.foodgrid.common.exception.ErrorResponse;
 import com.foodgrid.common.logging.CorrelationContext;
@@ -29,7 +27,7 @@ public class TenantFilter implements ContainerRequestFilter {
   JsonWebToken jwt;
 
   @Inject
-  OutletRepository outletRepository;
+  OutletTenancyCache outletTenancy;
 
   @Inject
   CorrelationContext correlationContext;
@@ -69,10 +67,9 @@ public class TenantFilter implements ContainerRequestFilter {
     // 3) Fallback to outletId claim and resolve owner
     final String outletId = jwt.getClaim("outletId");
     if (outletId != null && !outletId.isBlank()) {
-      final Optional<Outlet> maybeOutlet = outletRepository.findByIdOptional(outletId);
+      final Optional<OutletTenancy> maybeOutlet = outletTenancy.find(outletId);
       if (maybeOutlet.isPresent()) {
-        final Outlet o = maybeOutlet.get();
-        final String resolvedClient = (o.clientId != null && !o.clientId.isBlank()) ? o.clientId : o.ownerId;
+        final String resolvedClient = maybeOutlet.get().tenantId();
         if (resolvedClient != null && !resolvedClient.isBlank()) {
           tenantContext.setTenantId(resolvedClient);
           return;
@@ -0,0 +1,116 @@
+package com.foodgrid.common.rest;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.CompletionCallback;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveContainerRequestContext;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds how many {@link RunOnVirtualThread} requests run at once.
+ *
+ * Virtual threads remove the worker pool as the natural cap, so without this every request past the
+ * connection pool size would sit in Agroal's acquisition queue. Admission is limited to
+ * {@code foodgrid.virtual-threads.max-concurrent} (by default the datasource max-size); requests that
+ * cannot be admitted within {@code acquire-timeout} get a 503. Inactive unless
+ * {@code quarkus.virtual-threads.enabled} is set, since the worker pool already bounds blocking requests.
+ *
+ * The permit is returned by the response filter, or by a request completion callback when the response filter
+ * does not run (a failed or aborted request, a client disconnect), whichever comes first.
+ */
+@Provider
+@Priority(Priorities.USER - 100)
+public class VirtualThreadAdmissionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private static final Logger LOG = Logger.getLogger(VirtualThreadAdmissionFilter.class);
+  private static final String ADMITTED = VirtualThreadAdmissionFilter.class.getName() + ".admitted";
+
+  @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @ConfigProperty(name = "foodgrid.virtual-threads.max-concurrent", defaultValue = "20")
+  int maxConcurrent;
+
+  @ConfigProperty(name = "foodgrid.virtual-threads.acquire-timeout", defaultValue = "5s")
+  Duration acquireTimeout;
+
+  @Context ResourceInfo resourceInfo;
+
+  private Semaphore permits;
+
+  @PostConstruct
+  void init() {
+    permits = new Semaphore(Math.max(1, maxConcurrent), true);
+  }
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext) {
+    if (!enabled || !runsOnVirtualThread()) {
+      return;
+    }
+    try {
+      if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        final Admission admission = new Admission();
+        requestContext.setProperty(ADMITTED, admission);
+        ((ResteasyReactiveContainerRequestContext) requestContext).getServerRequestContext()
+          .registerCompletionCallback(admission);
+        return;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    LOG.debugf("Rejecting %s %s: virtual-thread admission limit reached",
+      requestContext.getMethod(), requestContext.getUriInfo().getPath());
+    requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1").build());
+  }
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+    if (requestContext.getProperty(ADMITTED) instanceof final Admission admission) {
+      admission.release();
+    }
+  }
+
+  /** Virtual-thread requests currently admitted. */
+  public int admittedCount() {
+    return Math.max(1, maxConcurrent) - permits.availablePermits();
+  }
+
+  /** One admitted request's permit, released at most once. */
+  private final class Admission implements CompletionCallback {
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+
+    @Override
+    public void onComplete(final Throwable throwable) {
+      release();
+    }
+  }
+
+  private boolean runsOnVirtualThread() {
+    return resourceInfo.getResourceMethod() != null
+      && (resourceInfo.getResourceMethod().isAnnotationPresent(RunOnVirtualThread.class)
+        || resourceInfo.getResourceClass().isAnnotationPresent(RunOnVirtualThread.class));
+  }
+}
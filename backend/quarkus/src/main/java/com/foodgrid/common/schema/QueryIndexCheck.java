@@ -0,0 +1,120 @@
+package com.foodgrid.common.schema;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Verifies at startup that the access paths of the hot repository queries are backed by an index.
+ *
+ * Each path lists the equality columns followed by the sort/range column, and is covered by any index whose
+ * leading columns match it in order. Missing paths are logged, or fail startup when
+ * {@code foodgrid.schema.index-check=fail}. The check reads MySQL's {@code information_schema} and is skipped
+ * on databases without it.
+ */
+@ApplicationScoped
+public class QueryIndexCheck {
+
+  private static final Logger LOG = Logger.getLogger(QueryIndexCheck.class);
+
+  record AccessPath(String table, List<String> columns, String usedBy) {
+    static AccessPath of(final String table, final String columns, final String usedBy) {
+      return new AccessPath(table, List.of(columns.split(",\\s*")), usedBy);
+    }
+  }
+
+  /** Keep in step with the repository queries and changelogs 17, 19, 20 and 21. */
+  static final List<AccessPath> PATHS = List.of(
+    AccessPath.of("orders", "outlet_id, created_at", "OrderRepository.listRecentByOutlet/listByOutletAndDateRange"),
+    AccessPath.of("orders", "customer_id, created_at", "OrderRepository.listByCustomer"),
+    AccessPath.of("orders", "customer_id, outlet_id, created_at", "OrderRepository.listByCustomerAndOutlet"),
+    AccessPath.of("orders", "source_channel, external_order_id", "ExternalOrderService.ingestOrder"),
+    AccessPath.of("order_items", "order_id, created_at, id", "OrderItemRepository.listByOrder/listByOrderIds"),
+    AccessPath.of("payments", "order_id", "PaymentRepository.listByOrder"),
+    AccessPath.of("payments", "client_id, created_at, id", "PaymentRepository.findByClientIdAfter"),
+    AccessPath.of("gateway_transactions", "client_id, created_at, id", "GatewayTransactionRepository.findByClientIdAfter"),
+    AccessPath.of("gateway_transactions", "status, created_at, id", "GatewayTransactionRepository.findPendingPage"),
+    AccessPath.of("gateway_webhook_events", "processed_at, next_attempt_at", "GatewayWebhookEventRepository.findDueIds"),
+    AccessPath.of("stock_movements", "ingredient_id, recorded_at", "StockMovementRepository.listByIngredient*"),
+    AccessPath.of("stock_movements", "outlet_id, recorded_at", "StockMovementRepository.listByOutlet*"),
+    AccessPath.of("stock_movements", "outlet_id, movement_type, recorded_at", "StockMovementRepository.listByOutletAndType"),
+    AccessPath.of("menu_item_images", "menu_item_id, sort_order", "MenuItemImageRepository.listByMenuItem/listByMenuItemIds"),
+    AccessPath.of("menu_item_recipes", "menu_item_id, sort_order, created_at", "MenuItemRecipeRepository.findByMenuItemId/listByMenuItemIds")
+  );
+
+  @Inject EntityManager em;
+
+  /** warn, fail or off */
+  @ConfigProperty(name = "foodgrid.schema.index-check", defaultValue = "warn")
+  String mode;
+
+  void onStart(@Observes final StartupEvent ev) {
+    if ("off".equalsIgnoreCase(mode)) {
+      return;
+    }
+
+    final Map<String, List<List<String>>> indexes;
+    try {
+      indexes = QuarkusTransaction.requiringNew().call(this::loadIndexes);
+    } catch (final RuntimeException e) {
+      LOG.debugf("Skipping query index check: %s", e.getMessage());
+      return;
+    }
+
+    final List<AccessPath> missing = new ArrayList<>();
+    for (final AccessPath path : PATHS) {
+      final List<List<String>> tableIndexes = indexes.get(path.table());
+      if (tableIndexes == null) {
+        continue; // Table not created yet
+      }
+      if (tableIndexes.stream().noneMatch(cols -> covers(cols, path.columns()))) {
+        missing.add(path);
+      }
+    }
+    if (missing.isEmpty()) {
+      LOG.debugf("Query index check passed for %d access paths", PATHS.size());
+      return;
+    }
+
+    for (final AccessPath path : missing) {
+      LOG.warnf("No index on %s(%s) used by %s", path.table(), String.join(", ", path.columns()), path.usedBy());
+    }
+    if ("fail".equalsIgnoreCase(mode)) {
+      throw new IllegalStateException(missing.size() + " query access paths have no index; see the log for details");
+    }
+  }
+
+  static boolean covers(final List<String> indexColumns, final List<String> pathColumns) {
+    return indexColumns.size() >= pathColumns.size()
+      && indexColumns.subList(0, pathColumns.size()).equals(pathColumns);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, List<List<String>>> loadIndexes() {
+    final List<Object[]> rows = em.createNativeQuery(
+        "select table_name, index_name, column_name from information_schema.statistics " +
+          "where table_schema = database() order by table_name, index_name, seq_in_index")
+      .getResultList();
+
+    final Map<String, Map<String, List<String>>> byTable = new HashMap<>();
+    for (final Object[] row : rows) {
+      byTable.computeIfAbsent(((String) row[0]).toLowerCase(), t -> new TreeMap<>())
+        .computeIfAbsent((String) row[1], i -> new ArrayList<>())
+        .add(((String) row[2]).toLowerCase());
+    }
+    final Map<String, List<List<String>>> result = new HashMap<>();
+    byTable.forEach((table, idx) -> result.put(table, new ArrayList<>(idx.values())));
+    return result;
+  }
+}
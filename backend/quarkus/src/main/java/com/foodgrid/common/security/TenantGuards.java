@@ -1,7 +1,7 @@
 package com.foodgrid.common.security;
 
-import com.foodgrid.auth.model.Outlet;
-import com.foodgrid.auth.repo.OutletRepository;
+import com.foodgrid.common.multitenancy.OutletTenancy;
+import com.foodgrid.common.multitenancy.OutletTenancyCache;
 import com.foodgrid.common.multitenancy.TenantContext;
 import io.quarkus.security.identity.SecurityIdentity;
 import org.eclipse.microprofile.jwt.JsonWebToken;
@@ -17,7 +17,7 @@ import jakarta.ws.rs.NotFoundException;
 public class TenantGuards {
 
   @Inject TenantContext tenantContext;
-  @Inject OutletRepository outletRepository;
+  @Inject OutletTenancyCache outletTenancy;
   @Inject SecurityIdentity identity;
   @Inject JsonWebToken jwt;
 
@@ -32,24 +32,25 @@ public class TenantGuards {
   }
 
   /**
-   * Ensures outlet belongs to current tenant.
+   * Ensures outlet belongs to current tenant. The outlet is resolved through {@link OutletTenancyCache}, so
+   * repeated checks in one request do not hit the database.
    */
-  public Outlet requireOutletInTenant(final String outletId) {
+  public OutletTenancy requireOutletInTenant(final String outletId) {
     if (outletId == null || outletId.isBlank()) {
       throw new NotFoundException("Outlet not found");
     }
 
-    final Outlet outlet = outletRepository.findByIdOptional(outletId)
+    final OutletTenancy outlet = outletTenancy.find(outletId)
       .orElseThrow(() -> new NotFoundException("Outlet not found"));
 
     final String tenantId = requireTenant();
-    final String outletTenant = (outlet.clientId != null && !outlet.clientId.isBlank()) ? outlet.clientId : outlet.ownerId;
+    final String outletTenant = outlet.tenantId();
 
     if (outletTenant == null || outletTenant.isBlank() || !outletTenant.equals(tenantId)) {
       // Fallback: If tenant check failed, allow if the current user is specifically the ownerId of this outlet.
       // This handles cases where an owner has a clientId in their token but the outlet record still uses ownerId.
       final String sub = claim("sub");
-      if (sub != null && !sub.isBlank() && sub.equals(outlet.ownerId)) {
+      if (sub != null && !sub.isBlank() && sub.equals(outlet.ownerId())) {
         return outlet;
       }
       
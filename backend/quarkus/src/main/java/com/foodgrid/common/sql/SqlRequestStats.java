@@ -0,0 +1,160 @@
+package com.foodgrid.common.sql;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import org.hibernate.Interceptor;
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * SQL work done on behalf of one REST request: statements prepared, time spent executing JDBC statements and
+ * batches, and entities loaded.
+ *
+ * {@link SqlStatsFilter} binds an instance to the CDI request context rather than to a thread, so it follows the
+ * request across thread switches and is discarded with the context however the request ends. The Hibernate
+ * hooks below add to whatever is bound; work outside an active request context (scheduler, executor threads)
+ * is not attributed to any request.
+ */
+public final class SqlRequestStats {
+
+  private int statements;
+  private int entityLoads;
+  private long jdbcNanos;
+  private long executeStart;
+
+  static SqlRequestStats begin() {
+    final SqlRequestStats stats = new SqlRequestStats();
+    final Binding binding = binding();
+    if (binding != null) {
+      binding.set(stats);
+    }
+    return stats;
+  }
+
+  /**
+   * Stops counting for the request; statements issued after the response filter are not included.
+   */
+  static void end(final SqlRequestStats stats) {
+    final Binding binding = binding();
+    if (binding != null && binding.get() == stats) {
+      binding.set(null);
+    }
+  }
+
+  private static SqlRequestStats current() {
+    final Binding binding = binding();
+    return binding != null ? binding.get() : null;
+  }
+
+  private static Binding binding() {
+    final ArcContainer container = Arc.container();
+    if (container == null || !container.requestContext().isActive()) {
+      return null;
+    }
+    return container.instance(Binding.class).get();
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public int entityLoads() {
+    return entityLoads;
+  }
+
+  public long jdbcNanos() {
+    return jdbcNanos;
+  }
+
+  public long jdbcMillis() {
+    return jdbcNanos / 1_000_000;
+  }
+
+  /** The request's stats; destroyed with the request context. */
+  @RequestScoped
+  public static class Binding {
+    private SqlRequestStats stats;
+
+    SqlRequestStats get() {
+      return stats;
+    }
+
+    void set(final SqlRequestStats stats) {
+      this.stats = stats;
+    }
+  }
+
+  /** Counts every SQL string Hibernate prepares, including native queries and batched DML. */
+  @PersistenceUnitExtension
+  @ApplicationScoped
+  public static class StatementCounter implements StatementInspector {
+    @Override
+    public String inspect(final String sql) {
+      final SqlRequestStats stats = current();
+      if (stats != null) {
+        stats.statements++;
+      }
+      return sql;
+    }
+  }
+
+  @PersistenceUnitExtension
+  @ApplicationScoped
+  public static class EntityLoadCounter implements Interceptor {
+    @Override
+    public boolean onLoad(final Object entity, final Object id, final Object[] state, final String[] propertyNames,
+                          final Type[] types) {
+      final SqlRequestStats stats = current();
+      if (stats != null) {
+        stats.entityLoads++;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Times JDBC executions. Hibernate creates one per session from {@code hibernate.session.events.auto}.
+   */
+  @RegisterForReflection
+  public static class TimingListener implements SessionEventListener {
+    @Override
+    public void jdbcExecuteStatementStart() {
+      start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+      stop();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+      start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+      stop();
+    }
+
+    private static void start() {
+      final SqlRequestStats stats = current();
+      if (stats != null) {
+        stats.executeStart = System.nanoTime();
+      }
+    }
+
+    private static void stop() {
+      final SqlRequestStats stats = current();
+      if (stats != null && stats.executeStart != 0) {
+        stats.jdbcNanos += System.nanoTime() - stats.executeStart;
+        stats.executeStart = 0;
+      }
+    }
+  }
+}
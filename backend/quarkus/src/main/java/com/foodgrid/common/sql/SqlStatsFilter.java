@@ -0,0 +1,113 @@
+package com.foodgrid.common.sql;
+
+import com.foodgrid.common.metrics.PlatformMetrics;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link SqlRequestStats} per REST request to surface N+1 query patterns.
+ *
+ * Requests issuing more than {@code foodgrid.sql-stats.statement-budget} statements are logged with their
+ * endpoint template. With {@code foodgrid.sql-stats.headers} (on in dev) the figures are also returned as
+ * {@code X-Sql-Statements}, {@code X-Sql-Time-Ms} and {@code X-Sql-Entity-Loads} response headers.
+ * Matched requests are also recorded as per-endpoint histograms by {@link PlatformMetrics}. Runs outside the
+ * other filters so their queries (tenancy, idempotency) are included.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class SqlStatsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private static final Logger LOG = Logger.getLogger(SqlStatsFilter.class);
+  private static final String STATS = SqlStatsFilter.class.getName() + ".stats";
+
+  @ConfigProperty(name = "foodgrid.sql-stats.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "foodgrid.sql-stats.headers", defaultValue = "false")
+  boolean headers;
+
+  @ConfigProperty(name = "foodgrid.sql-stats.statement-budget", defaultValue = "40")
+  int statementBudget;
+
+  @Inject PlatformMetrics metrics;
+
+  @Context ResourceInfo resourceInfo;
+
+  private final Map<Method, String> templates = new ConcurrentHashMap<>();
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext) {
+    if (enabled) {
+      requestContext.setProperty(STATS, SqlRequestStats.begin());
+    }
+  }
+
+  @Override
+  public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+    if (!(requestContext.getProperty(STATS) instanceof final SqlRequestStats stats)) {
+      return;
+    }
+    SqlRequestStats.end(stats);
+
+    if (headers) {
+      responseContext.getHeaders().putSingle("X-Sql-Statements", stats.statements());
+      responseContext.getHeaders().putSingle("X-Sql-Time-Ms", stats.jdbcMillis());
+      responseContext.getHeaders().putSingle("X-Sql-Entity-Loads", stats.entityLoads());
+    }
+    if (resourceInfo.getResourceMethod() != null) {
+      metrics.recordSql(endpoint(requestContext), stats);
+    }
+    if (stats.statements() > statementBudget) {
+      LOG.warnf("%s issued %d SQL statements (budget %d, %d ms JDBC, %d entities loaded); likely N+1",
+        endpoint(requestContext), stats.statements(), statementBudget, stats.jdbcMillis(), stats.entityLoads());
+    }
+  }
+
+  /**
+   * Method and path template, e.g. {@code GET /api/v1/pos/orders/{orderId}}; the raw path when no resource matched.
+   */
+  String endpoint(final ContainerRequestContext requestContext) {
+    final Method method = resourceInfo.getResourceMethod();
+    if (method == null) {
+      return requestContext.getMethod() + " " + requestContext.getUriInfo().getPath();
+    }
+    return templates.computeIfAbsent(method, m -> httpMethod(m) + " " + template(resourceInfo.getResourceClass(), m));
+  }
+
+  private static String template(final Class<?> resourceClass, final Method method) {
+    final Path classPath = resourceClass.getAnnotation(Path.class);
+    final Path methodPath = method.getAnnotation(Path.class);
+    String path = classPath != null ? classPath.value() : "";
+    if (methodPath != null && !methodPath.value().isEmpty() && !"/".equals(methodPath.value())) {
+      path = path.replaceAll("/+$", "") + (methodPath.value().startsWith("/") ? "" : "/") + methodPath.value();
+    }
+    return path.isEmpty() ? "/" : path;
+  }
+
+  private static String httpMethod(final Method method) {
+    for (final Annotation a : method.getAnnotations()) {
+      final HttpMethod http = a.annotationType().getAnnotation(HttpMethod.class);
+      if (http != null) {
+        return http.value();
+      }
+    }
+    return "*";
+  }
+}
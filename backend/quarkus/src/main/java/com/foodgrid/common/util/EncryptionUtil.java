@@ -1,6 +1,9 @@
 package com.foodgrid.common.util;
 
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.crypto.Cipher;
@@ -14,12 +17,26 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * AES-256-GCM encryption utility for sensitive data like payment credentials.
  * Uses PBKDF2 for key derivation from master key.
+ *
+ * Keys are derived once at startup and kept in a key ring indexed by key id. Ciphertexts carry the id of
+ * the key that produced them as a {@code <keyId>:} header, so the master key can be rotated by adding a new
+ * active key id while older ids stay available for decryption. Ciphertexts without a header predate key ids
+ * and are decrypted with the {@code legacy} key if configured, falling back to the active key; once the master
+ * key has been rotated, {@code foodgrid.encryption.keys.legacy} must hold the key they were written with.
+ * Both forms stay readable, so stored ciphertexts can be brought to the active key with {@link #reencrypt}
+ * whenever convenient.
  */
 @ApplicationScoped
+@Startup
 public class EncryptionUtil {
 
     private static final String ALGORITHM = "AES/GCM/NoPadding";
@@ -28,14 +45,61 @@ public class EncryptionUtil {
     private static final int ITERATION_COUNT = 65536;
     private static final int KEY_LENGTH = 256;
     private static final byte[] SALT = "FoodGridPaymentSalt2024".getBytes(StandardCharsets.UTF_8);
+    private static final char HEADER_SEPARATOR = ':';
+    private static final String LEGACY_KEY_ID = "legacy";
+    private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (final Exception e) {
+            throw new IllegalStateException("AES/GCM not available", e);
+        }
+    });
 
     @ConfigProperty(name = "foodgrid.encryption.master-key", defaultValue = "default-dev-master-key-change-in-prod")
     String masterKey;
 
-    private SecretKey deriveKey() {
+    @ConfigProperty(name = "foodgrid.encryption.key-id", defaultValue = "k1")
+    String activeKeyId;
+
+    /** Ids of previous master keys still needed for decryption; secrets live in foodgrid.encryption.keys.&lt;id&gt;. */
+    @ConfigProperty(name = "foodgrid.encryption.retired-key-ids")
+    Optional<List<String>> retiredKeyIds;
+
+    private final Map<String, SecretKey> keyRing = new HashMap<>();
+    private SecretKey activeKey;
+    private SecretKey legacyKey;
+    private boolean legacyKeyConfigured;
+
+    @PostConstruct
+    void init() {
+        if (!KEY_ID_PATTERN.matcher(activeKeyId).matches()) {
+            throw new IllegalStateException("Invalid foodgrid.encryption.key-id: " + activeKeyId);
+        }
+        activeKey = deriveKey(masterKey);
+        keyRing.put(activeKeyId, activeKey);
+
+        for (final String id : retiredKeyIds.orElse(List.of())) {
+            final String secret = keySecret(id)
+                .orElseThrow(() -> new IllegalStateException("Missing foodgrid.encryption.keys." + id));
+            keyRing.putIfAbsent(id, deriveKey(secret));
+        }
+
+        final Optional<String> legacySecret = keySecret(LEGACY_KEY_ID);
+        legacyKeyConfigured = legacySecret.isPresent();
+        legacyKey = legacySecret.map(EncryptionUtil::deriveKey).orElse(activeKey);
+    }
+
+    private static Optional<String> keySecret(final String keyId) {
+        return ConfigProvider.getConfig().getOptionalValue("foodgrid.encryption.keys." + keyId, String.class);
+    }
+
+    static SecretKey deriveKey(final String secret) {
         try {
             final SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            final KeySpec spec = new PBEKeySpec(masterKey.toCharArray(), SALT, ITERATION_COUNT, KEY_LENGTH);
+            final KeySpec spec = new PBEKeySpec(secret.toCharArray(), SALT, ITERATION_COUNT, KEY_LENGTH);
             final SecretKey tmp = factory.generateSecret(spec);
             return new SecretKeySpec(tmp.getEncoded(), "AES");
         } catch (final Exception e) {
@@ -44,24 +108,23 @@ public class EncryptionUtil {
     }
 
     /**
-     * Encrypt a plaintext string.
+     * Encrypt a plaintext string with the active key.
      * @param plaintext The text to encrypt
-     * @return Base64 encoded ciphertext (IV + encrypted data)
+     * @return {@code <keyId>:} followed by Base64 encoded ciphertext (IV + encrypted data)
      */
     public String encrypt(final String plaintext) {
         if (plaintext == null || plaintext.isBlank()) {
             return null;
         }
         try {
-            final SecretKey key = deriveKey();
-            final Cipher cipher = Cipher.getInstance(ALGORITHM);
+            final Cipher cipher = CIPHERS.get();
 
             // Generate random IV
             final byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+            RANDOM.nextBytes(iv);
             final GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
 
-            cipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
+            cipher.init(Cipher.ENCRYPT_MODE, activeKey, parameterSpec);
             final byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
 
             // Prepend IV to ciphertext
@@ -69,7 +132,7 @@ public class EncryptionUtil {
             byteBuffer.put(iv);
             byteBuffer.put(ciphertext);
 
-            return Base64.getEncoder().encodeToString(byteBuffer.array());
+            return activeKeyId + HEADER_SEPARATOR + Base64.getEncoder().encodeToString(byteBuffer.array());
         } catch (final Exception e) {
             throw new RuntimeException("Encryption failed", e);
         }
@@ -77,31 +140,68 @@ public class EncryptionUtil {
 
     /**
      * Decrypt a ciphertext string.
-     * @param ciphertext Base64 encoded ciphertext (IV + encrypted data)
+     * @param ciphertext Optional {@code <keyId>:} header followed by Base64 encoded ciphertext (IV + encrypted data)
      * @return Decrypted plaintext
      */
     public String decrypt(final String ciphertext) {
         if (ciphertext == null || ciphertext.isBlank()) {
             return null;
         }
-        try {
-            final SecretKey key = deriveKey();
-            final byte[] decoded = Base64.getDecoder().decode(ciphertext);
-
-            // Extract IV and ciphertext
-            final ByteBuffer byteBuffer = ByteBuffer.wrap(decoded);
-            final byte[] iv = new byte[GCM_IV_LENGTH];
-            byteBuffer.get(iv);
-            final byte[] encrypted = new byte[byteBuffer.remaining()];
-            byteBuffer.get(encrypted);
-
-            final Cipher cipher = Cipher.getInstance(ALGORITHM);
-            final GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+        // Base64 never contains ':', so a separator means a key id header is present
+        final int sep = ciphertext.indexOf(HEADER_SEPARATOR);
+        if (sep >= 0) {
+            final String keyId = ciphertext.substring(0, sep);
+            final SecretKey key = keyRing.get(keyId);
+            if (key == null) {
+                throw new IllegalStateException("Unknown encryption key id: " + keyId);
+            }
+            try {
+                return decrypt(key, ciphertext.substring(sep + 1));
+            } catch (final Exception e) {
+                throw new RuntimeException("Decryption failed", e);
+            }
+        }
 
-            return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+        try {
+            return decrypt(legacyKey, ciphertext);
         } catch (final Exception e) {
+            if (legacyKey != activeKey) {
+                // Written with the current master key before key ids were introduced
+                try {
+                    return decrypt(activeKey, ciphertext);
+                } catch (final Exception ignored) {
+                    // Report the legacy key failure below
+                }
+            }
+            if (!legacyKeyConfigured) {
+                throw new IllegalStateException("Decryption of a ciphertext without key id failed; set "
+                    + "foodgrid.encryption.keys." + LEGACY_KEY_ID + " to the master key it was written with", e);
+            }
             throw new RuntimeException("Decryption failed", e);
         }
     }
+
+    private static String decrypt(final SecretKey key, final String body) throws Exception {
+        final byte[] decoded = Base64.getDecoder().decode(body);
+        final GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, decoded, 0, GCM_IV_LENGTH);
+
+        final Cipher cipher = CIPHERS.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+
+        return new String(cipher.doFinal(decoded, GCM_IV_LENGTH, decoded.length - GCM_IV_LENGTH), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true when the ciphertext was not produced by the active key and should be re-encrypted
+     */
+    public boolean needsReencryption(final String ciphertext) {
+        return ciphertext != null && !ciphertext.isBlank() && !ciphertext.startsWith(activeKeyId + HEADER_SEPARATOR);
+    }
+
+    /**
+     * @return the ciphertext encrypted with the active key; the argument itself when it already is
+     */
+    public String reencrypt(final String ciphertext) {
+        return needsReencryption(ciphertext) ? encrypt(decrypt(ciphertext)) : ciphertext;
+    }
 }
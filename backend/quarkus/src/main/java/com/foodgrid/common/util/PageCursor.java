@@ -0,0 +1,50 @@
+package com.foodgrid.common.util;
+
+import com.foodgrid.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (createdAt desc, id desc)}: the last row of the previous page.
+ * Clients receive it as an opaque URL-safe token and pass it back unchanged.
+ */
+public record PageCursor(Instant createdAt, String id) {
+
+  public static PageCursor after(final Instant createdAt, final String id) {
+    return new PageCursor(createdAt, id);
+  }
+
+  public String encode() {
+    final String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return null for a null/blank token (first page)
+   */
+  public static PageCursor decode(final String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      final int colon = raw.indexOf(':');
+      final int dot = raw.indexOf('.');
+      if (dot < 0 || colon < dot || colon == raw.length() - 1) {
+        throw invalid();
+      }
+      final Instant createdAt = Instant.ofEpochSecond(
+        Long.parseLong(raw.substring(0, dot)), Long.parseLong(raw.substring(dot + 1, colon)));
+      return new PageCursor(createdAt, raw.substring(colon + 1));
+    } catch (final IllegalArgumentException | DateTimeException e) {
+      throw invalid();
+    }
+  }
+
+  private static ValidationException invalid() {
+    return ValidationException.invalidInput("Invalid page cursor");
+  }
+}
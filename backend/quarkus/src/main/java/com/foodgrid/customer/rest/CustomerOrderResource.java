@@ -4,6 +4,9 @@ package com.foodgrid.customer.rest;
 import com.foodgrid.pos.dto.*;
 import com.foodgrid.customer.service.OrderCustomerService;
 import com.foodgrid.payment.service.PaymentService;
+import com.foodgrid.pos.rest.OrderEventSse;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -11,6 +14,8 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import java.util.List;
@@ -26,18 +31,20 @@ public class CustomerOrderResource {
     @Inject PaymentService paymentService;
     
     @Context SecurityContext securityContext;
+    @Context Sse sse;
 
     @POST
     @Operation(summary = "Create order", description = "Place a new order for the authenticated customer")
     public OrderResponse create(
         @Valid final OrderCreateRequest request, 
         @QueryParam("outletId") final String outletId,
-        @QueryParam("customerId") final String customerId
+        @QueryParam("customerId") final String customerId,
+        @HeaderParam("Idempotency-Key") final String idempotencyKey
     ) {
         // Enforce customer identity from context if customerId not provided
         final String actualCustomerId = customerId != null ? customerId : securityContext.getUserPrincipal().getName();
         
-        return orderCustomerService.create(request, outletId, actualCustomerId);
+        return orderCustomerService.create(request, outletId, actualCustomerId, idempotencyKey);
     }
 
     @GET
@@ -61,6 +68,21 @@ public class CustomerOrderResource {
         return orderCustomerService.listByCustomer(actualCustomerId, limit, outletId);
     }
 
+    @GET
+    @Path("/{orderId}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Blocking
+    @Operation(summary = "Order event stream", description = "Server-sent events for status and payment changes of an order owned by the customer")
+    public Multi<OutboundSseEvent> events(
+        @PathParam("orderId") final String orderId,
+        @HeaderParam("Last-Event-ID") final String lastEventIdHeader,
+        @QueryParam("lastEventId") final String lastEventId
+    ) {
+        final String customerId = securityContext.getUserPrincipal().getName();
+        return OrderEventSse.toSse(sse,
+            orderCustomerService.streamForOrder(orderId, customerId, OrderEventSse.cursor(lastEventIdHeader, lastEventId)));
+    }
+
     @POST
     @Path("/{orderId}/items")
     @Operation(summary = "Add item to order", description = "Add an item to an existing order")
@@ -4,18 +4,23 @@ import com.foodgrid.admin.dto.OutletResponse;
 import com.foodgrid.admin.service.OutletAdminService;
 import com.foodgrid.customer.service.MenuCustomerService;
 import com.foodgrid.customer.service.OutletCustomerService;
-import com.foodgrid.pos.dto.MenuCategoryResponse;
-import com.foodgrid.pos.dto.MenuItemResponse;
 import com.foodgrid.pos.dto.ImageUploadResponse;
 import com.foodgrid.pos.service.MenuAdminService;
+import com.foodgrid.pos.service.MenuCatalogCache;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Path("/api/v1/customer/outlets")
 @Produces(MediaType.APPLICATION_JSON)
@@ -44,18 +49,20 @@ public class CustomerOutletResource {
 
     @GET
     @Path("/{outletId}/menu/categories")
-    @Operation(summary = "List menu categories", description = "Get all menu categories for an outlet")
-    public List<MenuCategoryResponse> listCategories(@PathParam("outletId") final String outletId) {
-        return menuCustomerService.listCategories(outletId);
+    @Operation(summary = "List menu categories", description = "Get all menu categories for an outlet; supports If-None-Match")
+    public Response listCategories(@PathParam("outletId") final String outletId, @Context final Request request) {
+        return conditional(request, menuCustomerService.menu(outletId), MenuCatalogCache.Snapshot::categories);
     }
 
     @GET
     @Path("/{outletId}/menu/items")
-    @Operation(summary = "List menu items", description = "Get all menu items for an outlet")
-    public List<MenuItemResponse> listItems(
+    @Operation(summary = "List menu items", description = "Get all menu items for an outlet; supports If-None-Match")
+    public Response listItems(
             @PathParam("outletId") final String outletId,
-            @QueryParam("categoryId") final String categoryId) {
-        return menuCustomerService.listItems(outletId, categoryId);
+            @QueryParam("categoryId") final String categoryId,
+            @Context final Request request) {
+        return conditional(request, menuCustomerService.menu(outletId),
+            menu -> (categoryId == null || categoryId.isBlank()) ? menu.items() : menu.itemsOfCategory(categoryId));
     }
 
     @GET
@@ -76,4 +83,23 @@ public class CustomerOutletResource {
                 ))
                 .toList();
     }
+
+    /**
+     * Answers 304 without building a body when the client already holds this menu version.
+     * Clients must revalidate on every use, so an admin change shows up on the next request.
+     */
+    private static Response conditional(
+            final Request request,
+            final MenuCatalogCache.Snapshot menu,
+            final Function<MenuCatalogCache.Snapshot, List<?>> body) {
+        final EntityTag etag = new EntityTag(menu.etag(), true);
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.tag(etag).cacheControl(cacheControl).build();
+        }
+        return Response.ok(body.apply(menu)).tag(etag).cacheControl(cacheControl).build();
+    }
 }
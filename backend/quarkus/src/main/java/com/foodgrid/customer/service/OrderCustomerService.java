@@ -3,10 +3,14 @@ package com.foodgrid.customer.service;
 import com.foodgrid.pos.dto.*;
 import com.foodgrid.pos.model.*;
 import com.foodgrid.pos.repo.*;
-import com.foodgrid.auth.repo.OutletRepository;
+import com.foodgrid.common.idempotency.IdempotencyService;
+import com.foodgrid.common.idempotency.RequestHash;
 import com.foodgrid.common.util.Ids;
 import com.foodgrid.pos.service.IngredientService;
+import com.foodgrid.pos.service.OrderEventBus;
+import com.foodgrid.pos.service.OrderHydrator;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -16,23 +20,38 @@ import jakarta.ws.rs.NotFoundException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class OrderCustomerService {
 
+    private static final String OP_CREATE = "CUSTOMER_ORDER_CREATE";
+
     @Inject OrderRepository orderRepository;
     @Inject OrderItemRepository orderItemRepository;
     @Inject MenuItemRepository menuItemRepository;
     @Inject MenuItemRecipeRepository recipeRepository;
     @Inject IngredientService ingredientService;
     @Inject SecurityIdentity identity;
-    @Inject OutletRepository outletRepository;
-    @Inject DiningTableRepository tableRepository;
-    @Inject MenuItemImageRepository menuItemImageRepository;
+    @Inject OrderHydrator hydrator;
+    @Inject OrderEventBus events;
+    @Inject IdempotencyService idempotency;
 
+    /**
+     * Creates an order; retries carrying the same {@code idempotencyKey} return the order created first.
+     */
     @Transactional
-    public OrderResponse create(final OrderCreateRequest req, final String outletId, final String customerId) {
+    public OrderResponse create(final OrderCreateRequest req, final String outletId, final String customerId, final String idempotencyKey) {
+        // Keys are scoped to the customer placing the order
+        final String requestFingerprint = RequestHash.sha256Hex(outletId + ":" + req);
+        final var replay = idempotency.checkOrReserve(customerId, OP_CREATE, idempotencyKey, requestFingerprint);
+        if (replay.isPresent()) {
+            return get(replay.get().resultRef(), customerId);
+        }
+
         // Create order for the specific customer
         final Order o = new Order();
         o.id = Ids.uuid();
@@ -55,11 +74,17 @@ public class OrderCustomerService {
 
         orderRepository.persist(o);
 
-        // Process items if provided
+        // Process items if provided; all menu items are validated with one query
+        final List<OrderItem> lines = new ArrayList<>();
         if (req.orderItems() != null && !req.orderItems().isEmpty()) {
+            final Map<String, MenuItem> menuItems = menuItemRepository.mapByIdsAndOutlet(
+                req.orderItems().stream().map(OrderAddItemRequest::itemId).collect(Collectors.toSet()), o.outletId);
+
             for (final OrderAddItemRequest itemReq : req.orderItems()) {
-                final MenuItem mi = menuItemRepository.findByIdAndOutlet(itemReq.itemId(), o.outletId)
-                    .orElseThrow(() -> new BadRequestException("Invalid itemId: " + itemReq.itemId()));
+                final MenuItem mi = menuItems.get(itemReq.itemId());
+                if (mi == null) {
+                    throw new BadRequestException("Invalid itemId: " + itemReq.itemId());
+                }
 
                 if (mi.status != MenuItem.Status.ACTIVE) {
                     throw new BadRequestException("Item inactive: " + mi.name);
@@ -75,13 +100,17 @@ public class OrderCustomerService {
                 oi.lineTotal = money(itemReq.qty().multiply(mi.basePrice));
                 oi.status = OrderItem.Status.OPEN;
                 oi.createdAt = Instant.now();
-
-                orderItemRepository.persist(oi);
+                lines.add(oi);
             }
-            recomputeTotals(o);
+            orderItemRepository.persist(lines);
+
+            o.subtotal = money(lines.stream().map(i -> i.lineTotal).reduce(moneyZero(), BigDecimal::add));
+            o.grandTotal = money(o.subtotal.add(o.taxTotal).subtract(o.discountTotal));
         }
+        idempotency.markCompleted(customerId, OP_CREATE, idempotencyKey, requestFingerprint, o.id);
+        events.publish(o, "ORDER_CREATED");
 
-        return get(o.id, customerId);
+        return hydrator.hydrate(o, lines);
     }
 
     @Transactional
@@ -113,38 +142,28 @@ public class OrderCustomerService {
         orderItemRepository.persist(oi);
 
         recomputeTotals(o);
+        events.publish(o, "ORDER_UPDATED");
 
         return get(orderId, customerId);
     }
 
     public OrderResponse get(final String orderId, final String customerId) {
         final Order o = getOrderForCustomer(orderId, customerId);
-        final List<OrderItemResponse> items = orderItemRepository.listByOrder(o.id).stream()
-          .map(this::toResponse)
-          .toList();
-        return toResponse(o, items);
+        return hydrator.hydrate(o);
     }
 
     public List<OrderItemResponse> getOrderItems(final String orderId, final String customerId) {
         final Order o = getOrderForCustomer(orderId, customerId);
-        return orderItemRepository.listByOrder(o.id).stream()
-          .map(this::toResponse)
-          .toList();
+        return hydrator.hydrateItems(orderItemRepository.listByOrder(o.id));
     }
 
     public List<OrderResponse> listByCustomer(final String customerId, final Integer limit, final String outletId) {
         final int lim = (limit == null || limit <= 0 || limit > 200) ? 50 : limit;
 
         if (outletId != null && !outletId.isBlank()) {
-            return orderRepository.listByCustomerAndOutlet(customerId, outletId, lim)
-                .stream()
-                .map(o -> toResponse(o, orderItemRepository.listByOrder(o.id).stream().map(this::toResponse).toList()))
-                .toList();
+            return hydrator.hydrate(orderRepository.listByCustomerAndOutlet(customerId, outletId, lim));
         } else {
-            return orderRepository.listByCustomer(customerId, lim)
-                .stream()
-                .map(o -> toResponse(o, orderItemRepository.listByOrder(o.id).stream().map(this::toResponse).toList()))
-                .toList();
+            return hydrator.hydrate(orderRepository.listByCustomer(customerId, lim));
         }
     }
 
@@ -160,6 +179,15 @@ public class OrderCustomerService {
         o.status = Order.Status.CANCELLED;
         o.updatedAt = Instant.now();
         orderRepository.persist(o);
+        events.publish(o, "ORDER_STATUS_CHANGED");
+    }
+
+    /**
+     * Live events for one of the customer's orders, optionally resuming after {@code lastEventId}.
+     */
+    public Multi<OrderEvent> streamForOrder(final String orderId, final String customerId, final Long lastEventId) {
+        final Order o = getOrderForCustomer(orderId, customerId);
+        return events.subscribe(e -> o.id.equals(e.orderId()) || e.isHeartbeat(), lastEventId);
     }
 
     private Order getOrderForCustomer(final String orderId, final String customerId) {
@@ -207,50 +235,4 @@ public class OrderCustomerService {
         if (v == null) return moneyZero();
         return v.setScale(2, RoundingMode.HALF_UP);
     }
-
-    private OrderItemResponse toResponse(final OrderItem i) {
-        final String imageUrl = menuItemImageRepository.listByMenuItem(i.itemId).stream()
-          .filter(img -> img.isPrimary)
-          .findFirst()
-          .or(() -> menuItemImageRepository.listByMenuItem(i.itemId).stream().findFirst())
-          .map(img -> img.imageUrl)
-          .orElse(null);
-
-        return new OrderItemResponse(i.id, i.itemId, i.itemName, i.qty, i.unitPrice, i.lineTotal, i.status.name(), imageUrl);
-    }
-
-    private OrderResponse toResponse(final Order o, final List<OrderItemResponse> items) {
-        final String outletName = outletRepository.findByIdOptional(o.outletId)
-            .map(outlet -> outlet.name)
-            .orElse("Unknown Store");
-
-        String tableName = null;
-        if (o.tableId != null && !o.tableId.isBlank()) {
-            tableName = tableRepository.findByIdOptional(o.tableId)
-                .map(t -> t.displayName != null ? t.displayName : t.tableCode)
-                .orElse(null);
-        }
-
-        return new OrderResponse(
-            o.id,
-            o.outletId,
-            o.deviceId,
-            o.shiftId,
-            o.employeeId,
-            o.tableId,
-            tableName,
-            o.orderType.name(),
-            o.status.name(),
-            o.subtotal,
-            o.taxTotal,
-            o.discountTotal,
-            o.grandTotal,
-            o.notes,
-            o.createdAt,
-            outletName,
-            o.sourceChannel != null ? o.sourceChannel.name() : "FOODGRID",
-            o.externalOrderId,
-            items
-        );
-    }
 }
@@ -8,10 +8,12 @@ import com.foodgrid.pos.model.OrderItem;
 import com.foodgrid.pos.repo.OrderRepository;
 import com.foodgrid.pos.repo.OrderItemRepository;
 import com.foodgrid.pos.repo.MenuItemRepository;
+import com.foodgrid.pos.service.OrderEventBus;
 import com.foodgrid.common.util.Ids;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
@@ -25,9 +27,26 @@ public class ExternalOrderService {
     @Inject MenuItemRepository menuItemRepository;
     @Inject ChannelIntegrationRepository integrationRepository;
     @Inject MenuChannelMappingRepository mappingRepository;
+    @Inject OrderEventBus orderEvents;
 
-    @Transactional
+    /**
+     * Creates the order for an external delivery, or returns the one already ingested for the same
+     * (channel, external order id). The unique key {@code uk_orders_channel_external} settles concurrent
+     * deliveries: the losing insert rolls back and the winner's order is returned.
+     */
     public Order ingestOrder(SourceChannel channel, String externalStoreId, ExternalOrderPayload payload) {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> createOrder(channel, externalStoreId, payload));
+        } catch (RuntimeException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            return QuarkusTransaction.requiringNew().call(() -> findExisting(channel, payload.externalOrderId))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Order createOrder(SourceChannel channel, String externalStoreId, ExternalOrderPayload payload) {
         // 1. Find outlet by external store ID
         var integration = integrationRepository.find("channel = ?1 and externalStoreId = ?2", channel, externalStoreId)
                 .firstResultOptional()
@@ -35,9 +54,8 @@ public class ExternalOrderService {
 
         String outletId = integration.outletId;
 
-        // 2. Idempotency check
-        Optional<Order> existingOrder = orderRepository.find("sourceChannel = ?1 and externalOrderId = ?2", channel, payload.externalOrderId)
-                .firstResultOptional();
+        // 2. Idempotency check (redeliveries normally stop here)
+        Optional<Order> existingOrder = findExisting(channel, payload.externalOrderId);
         
         if (existingOrder.isPresent()) {
             return existingOrder.get();
@@ -60,6 +78,8 @@ public class ExternalOrderService {
         o.updatedAt = Instant.now();
         
         orderRepository.persist(o);
+        // Surface a concurrent duplicate before the items are written
+        orderRepository.flush();
 
         // 4. Create Order Items
         for (var itemPayload : payload.items) {
@@ -87,9 +107,24 @@ public class ExternalOrderService {
             orderItemRepository.persist(oi);
         }
 
+        orderEvents.publish(o, "ORDER_CREATED");
         return o;
     }
 
+    private Optional<Order> findExisting(SourceChannel channel, String externalOrderId) {
+        return orderRepository.find("sourceChannel = ?1 and externalOrderId = ?2", channel, externalOrderId)
+                .firstResultOptional();
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private BigDecimal money(BigDecimal v) {
         if (v == null) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         return v.setScale(2, RoundingMode.HALF_UP);
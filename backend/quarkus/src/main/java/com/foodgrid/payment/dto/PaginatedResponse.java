@@ -4,6 +4,9 @@ import java.util.List;
 
 /**
  * Paginated response wrapper.
+ *
+ * Offset pages fill {@code page}/{@code totalPages}. Cursor pages return {@code nextCursor} (null on the last
+ * page) and report {@code totalElements}/{@code totalPages} as -1 when the total was not counted.
  */
 public record PaginatedResponse<T>(
     List<T> content,
@@ -12,12 +15,20 @@ public record PaginatedResponse<T>(
     long totalElements,
     int totalPages,
     boolean hasNext,
-    boolean hasPrevious
+    boolean hasPrevious,
+    String nextCursor
 ) {
     public static <T> PaginatedResponse<T> of(List<T> content, int page, int size, long totalElements) {
         final int totalPages = (int) Math.ceil((double) totalElements / size);
         final boolean hasNext = page < totalPages - 1;
         final boolean hasPrevious = page > 0;
-        return new PaginatedResponse<>(content, page, size, totalElements, totalPages, hasNext, hasPrevious);
+        return new PaginatedResponse<>(content, page, size, totalElements, totalPages, hasNext, hasPrevious, null);
+    }
+
+    public static <T> PaginatedResponse<T> keyset(List<T> content, int size, long totalElements,
+                                                  String nextCursor, boolean hasPrevious) {
+        final int totalPages = totalElements < 0 ? -1 : (int) Math.ceil((double) totalElements / size);
+        return new PaginatedResponse<>(content, 0, size, totalElements, totalPages, nextCursor != null, hasPrevious,
+            nextCursor);
     }
 }
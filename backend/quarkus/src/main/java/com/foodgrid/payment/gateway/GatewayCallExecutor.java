@@ -0,0 +1,206 @@
+package com.foodgrid.payment.gateway;
+
+import com.foodgrid.common.exception.ErrorCode;
+import com.foodgrid.common.exception.ExternalServiceException;
+import com.foodgrid.common.exception.PaymentException;
+import com.foodgrid.payment.model.PaymentGatewayType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking gateway HTTP calls on a bounded pool, outside of any database transaction.
+ *
+ * Each gateway type gets its own concurrency limit and per-call timeout
+ * ({@code foodgrid.payment.gateway.<type>.max-concurrency} / {@code .timeout}), so one slow provider
+ * cannot exhaust the pool or hold request threads for the full HTTP connect timeout. Every call is timed into
+ * {@link GatewayMetrics} with its outcome.
+ */
+@ApplicationScoped
+public class GatewayCallExecutor {
+
+    private static final Logger LOG = Logger.getLogger(GatewayCallExecutor.class);
+
+    @ConfigProperty(name = "foodgrid.payment.gateway.executor-threads", defaultValue = "16")
+    int executorThreads;
+
+    @ConfigProperty(name = "foodgrid.payment.gateway.max-concurrency", defaultValue = "8")
+    int defaultMaxConcurrency;
+
+    @ConfigProperty(name = "foodgrid.payment.gateway.timeout", defaultValue = "15s")
+    Duration defaultTimeout;
+
+    /** How long a caller waits for a free slot before the gateway is reported as unavailable. */
+    @ConfigProperty(name = "foodgrid.payment.gateway.acquire-timeout", defaultValue = "2s")
+    Duration acquireTimeout;
+
+    @Inject
+    GatewayMetrics metrics;
+
+    private final Map<PaymentGatewayType, Limits> limits = new EnumMap<>(PaymentGatewayType.class);
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        for (final PaymentGatewayType type : PaymentGatewayType.values()) {
+            final String prefix = "foodgrid.payment.gateway." + type.name().toLowerCase() + ".";
+            final int maxConcurrency = ConfigProvider.getConfig()
+                .getOptionalValue(prefix + "max-concurrency", Integer.class).orElse(defaultMaxConcurrency);
+            final Duration timeout = ConfigProvider.getConfig()
+                .getOptionalValue(prefix + "timeout", Duration.class).orElse(defaultTimeout);
+            limits.put(type, new Limits(new Semaphore(maxConcurrency), maxConcurrency, timeout));
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            executorThreads, executorThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(executorThreads * 4),
+            r -> {
+                final Thread t = new Thread(r, "gateway-call-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executes a gateway call within that gateway's concurrency limit and timeout.
+     *
+     * @throws ExternalServiceException EXT_SERVICE_UNAVAILABLE when the gateway is saturated,
+     *                                  EXT_TIMEOUT when the call does not finish in time
+     */
+    public <T> T call(final PaymentGatewayType type, final String operation, final Supplier<T> call) {
+        final long started = System.nanoTime();
+        GatewayMetrics.Outcome outcome = GatewayMetrics.Outcome.ERROR;
+        try {
+            final T result = execute(type, operation, call);
+            outcome = outcomeOf(result);
+            return result;
+        } catch (final ExternalServiceException e) {
+            if (e.getErrorCode() == ErrorCode.EXT_TIMEOUT) {
+                outcome = GatewayMetrics.Outcome.TIMEOUT;
+            } else if (e.getErrorCode() == ErrorCode.EXT_SERVICE_UNAVAILABLE) {
+                outcome = GatewayMetrics.Outcome.REJECTED;
+            }
+            throw e;
+        } finally {
+            metrics.recordCall(type, operation, outcome, System.nanoTime() - started);
+        }
+    }
+
+    /** Calls currently holding one of the gateway's concurrency slots. */
+    public int inFlight(final PaymentGatewayType type) {
+        final Limits l = limits.get(type);
+        return l.maxConcurrency() - l.permits().availablePermits();
+    }
+
+    public int activeThreads() {
+        return executor.getActiveCount();
+    }
+
+    public int queuedCalls() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T execute(final PaymentGatewayType type, final String operation, final Supplier<T> call) {
+        final Limits l = limits.get(type);
+        try {
+            if (!l.permits().tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOG.warnf("Gateway %s saturated, rejecting %s", type, operation);
+                throw ExternalServiceException.unavailable(type.getDisplayName());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExternalServiceException.unavailable(type.getDisplayName());
+        }
+
+        // Whoever sets this owns the permit: the worker when it starts the call, or the caller when it cancels
+        // the call before a worker picked it up
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final Future<T> future;
+        try {
+            // The permit is released by the worker, so a timed-out call keeps its slot until it really ends
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return call.get();
+                } finally {
+                    l.permits().release();
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            l.permits().release();
+            LOG.warnf("Gateway call pool full, rejecting %s %s", type, operation);
+            throw ExternalServiceException.unavailable(type.getDisplayName());
+        }
+
+        try {
+            return future.get(l.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            cancel(future, claimed, l);
+            LOG.warnf("Gateway %s %s timed out after %s", type, operation, l.timeout());
+            throw ExternalServiceException.timeout(type.getDisplayName(), operation);
+        } catch (final InterruptedException e) {
+            cancel(future, claimed, l);
+            Thread.currentThread().interrupt();
+            throw ExternalServiceException.timeout(type.getDisplayName(), operation);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw PaymentException.gatewayError(type.name(), operation + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Cancels a call; a call still queued never runs, so its permit is returned here.
+     */
+    private static void cancel(final Future<?> future, final AtomicBoolean claimed, final Limits l) {
+        future.cancel(true);
+        if (claimed.compareAndSet(false, true)) {
+            l.permits().release();
+        }
+    }
+
+    private static GatewayMetrics.Outcome outcomeOf(final Object result) {
+        final boolean success;
+        if (result instanceof final GatewayOrderResult r) {
+            success = r.success();
+        } else if (result instanceof final GatewayVerifyResult r) {
+            success = r.success();
+        } else if (result instanceof final GatewayRefundResult r) {
+            success = r.success();
+        } else {
+            success = true;
+        }
+        return success ? GatewayMetrics.Outcome.SUCCESS : GatewayMetrics.Outcome.DECLINED;
+    }
+
+    private record Limits(Semaphore permits, int maxConcurrency, Duration timeout) {}
+}
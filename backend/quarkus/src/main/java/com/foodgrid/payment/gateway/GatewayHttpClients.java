@@ -0,0 +1,34 @@
+package com.foodgrid.payment.gateway;
+
+import com.foodgrid.payment.model.PaymentGatewayType;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link HttpClient} per gateway type, shared by every client's gateway instance.
+ *
+ * A client pools keep-alive connections per host, so tenants of the same gateway reuse connections instead of
+ * each gateway instance holding its own idle pool. HTTP/2 is preferred, which multiplexes concurrent calls
+ * over one connection; against HTTP/1.1 hosts the number of open connections is bounded by the gateway's
+ * {@code max-concurrency} in {@link GatewayCallExecutor}.
+ */
+@ApplicationScoped
+public class GatewayHttpClients {
+
+    @ConfigProperty(name = "foodgrid.payment.gateway.connect-timeout", defaultValue = "30s")
+    Duration connectTimeout;
+
+    private final Map<PaymentGatewayType, HttpClient> clients = new ConcurrentHashMap<>();
+
+    public HttpClient get(final PaymentGatewayType type) {
+        return clients.computeIfAbsent(type, t -> HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .build());
+    }
+}
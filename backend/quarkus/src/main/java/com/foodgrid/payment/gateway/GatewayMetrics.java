@@ -0,0 +1,101 @@
+package com.foodgrid.payment.gateway;
+
+import com.foodgrid.payment.model.PaymentGatewayType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms of gateway calls by gateway, operation and outcome, and gauges for the
+ * {@link GatewayCallExecutor} pool and the {@link PaymentGatewayFactory} cache.
+ *
+ * Timers are created on the first call of each combination and looked up without allocating afterwards.
+ * Nothing is registered or recorded when {@code foodgrid.metrics.enabled} is false.
+ */
+@ApplicationScoped
+public class GatewayMetrics implements MeterBinder {
+
+    public enum Outcome {
+        /** The gateway accepted the request. */
+        SUCCESS,
+        /** The gateway answered but reported a failure (declined, invalid signature, ...). */
+        DECLINED,
+        /** The call threw, including HTTP and parsing errors. */
+        ERROR,
+        /** The call did not finish within the gateway's timeout. */
+        TIMEOUT,
+        /** No concurrency slot or pool thread was free. */
+        REJECTED;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    @ConfigProperty(name = "foodgrid.metrics.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    GatewayCallExecutor executor;
+
+    @Inject
+    PaymentGatewayFactory factory;
+
+    private final Map<PaymentGatewayType, Map<String, Timer[]>> timers = new EnumMap<>(PaymentGatewayType.class);
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        for (final PaymentGatewayType type : PaymentGatewayType.values()) {
+            timers.put(type, new ConcurrentHashMap<>());
+            Gauge.builder("foodgrid.gateway.calls.in-flight", executor, e -> e.inFlight(type))
+                .description("Gateway calls holding a concurrency slot")
+                .tag("gateway", type.name())
+                .register(registry);
+        }
+        Gauge.builder("foodgrid.gateway.executor.active", executor, GatewayCallExecutor::activeThreads)
+            .description("Gateway call pool threads running a call")
+            .register(registry);
+        Gauge.builder("foodgrid.gateway.executor.queued", executor, GatewayCallExecutor::queuedCalls)
+            .description("Gateway calls waiting for a pool thread")
+            .register(registry);
+        Gauge.builder("foodgrid.gateway.cache.clients", factory, PaymentGatewayFactory::cachedClients)
+            .description("Clients with initialized gateways in the factory cache")
+            .register(registry);
+        this.registry = registry;
+    }
+
+    void recordCall(final PaymentGatewayType type, final String operation, final Outcome outcome, final long nanos) {
+        final MeterRegistry r = registry;
+        if (r == null) {
+            return;
+        }
+        final Timer[] byOutcome = timers.get(type).computeIfAbsent(operation, op -> new Timer[Outcome.values().length]);
+        Timer timer = byOutcome[outcome.ordinal()];
+        if (timer == null) {
+            // Racing registrations resolve to the same meter
+            timer = Timer.builder("foodgrid.gateway.calls")
+                .description("Payment gateway call latency, including the wait for a concurrency slot")
+                .tag("gateway", type.name())
+                .tag("operation", operation)
+                .tag("outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(5))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(r);
+            byOutcome[outcome.ordinal()] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
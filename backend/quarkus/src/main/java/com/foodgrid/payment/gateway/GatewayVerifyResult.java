@@ -20,4 +20,15 @@ public record GatewayVerifyResult(
     public static GatewayVerifyResult failure(final String errorMessage, final String rawResponse) {
         return new GatewayVerifyResult(false, GatewayTransactionStatus.FAILED, null, null, errorMessage, rawResponse);
     }
+
+    /**
+     * The gateway has not settled the payment yet; {@code errorMessage} is set when the status could not be read.
+     */
+    public static GatewayVerifyResult pending(final String errorMessage, final String rawResponse) {
+        return new GatewayVerifyResult(false, GatewayTransactionStatus.PENDING, null, null, errorMessage, rawResponse);
+    }
+
+    public static GatewayVerifyResult expired(final String errorMessage, final String rawResponse) {
+        return new GatewayVerifyResult(false, GatewayTransactionStatus.EXPIRED, null, null, errorMessage, rawResponse);
+    }
 }
@@ -69,6 +69,17 @@ public interface PaymentGateway {
     GatewayVerifyResult verifyPayment(String gatewayOrderId, String gatewayPaymentId,
                                        String gatewaySignature, Map<String, String> additionalData);
 
+    /**
+     * Query the current state of a gateway order, used to settle transactions whose webhook never arrived.
+     *
+     * @param gatewayOrderId Gateway's order (or payment link) ID
+     * @return CAPTURED, FAILED or EXPIRED once the gateway has settled the order, PENDING otherwise;
+     *         null when the gateway has no status API
+     */
+    default GatewayVerifyResult fetchPaymentStatus(String gatewayOrderId) {
+        return null;
+    }
+
     /**
      * Process a refund.
      *
@@ -88,6 +99,17 @@ public interface PaymentGateway {
      */
     WebhookEvent parseWebhook(String payload, String signature);
 
+    /**
+     * Read the order and payment ids from a webhook payload without verifying it, so the owning client can
+     * be found before its credentials are loaded. Called on an instance that was never initialized.
+     *
+     * @param payload Raw webhook payload
+     * @return Parsed webhook event
+     */
+    default WebhookEvent peekWebhook(String payload) {
+        return parseWebhook(payload, null);
+    }
+
     /**
      * Verify webhook signature.
      *
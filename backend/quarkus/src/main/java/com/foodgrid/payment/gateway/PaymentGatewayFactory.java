@@ -9,9 +9,14 @@ import com.foodgrid.payment.gateway.impl.StripeGateway;
 import com.foodgrid.payment.model.ClientPaymentConfig;
 import com.foodgrid.payment.model.PaymentGatewayType;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -19,6 +24,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * Factory for creating and caching PaymentGateway instances.
  * Uses factory pattern to return the appropriate gateway implementation
  * based on client configuration.
+ *
+ * Initialized gateways and the configs they were resolved from are cached per client, at most
+ * {@code foodgrid.payment.gateway-cache.max-clients} clients, least recently used evicted first. A gateway is
+ * keyed by its config's id and update time, so a changed config never reuses an old instance. Config writes
+ * call {@link #invalidateCache}; the client's entry is dropped once the write commits. Entries also expire
+ * after {@code foodgrid.payment.gateway-cache.ttl}, which bounds staleness when another instance made the change.
  */
 @ApplicationScoped
 public class PaymentGatewayFactory {
@@ -26,8 +37,34 @@ public class PaymentGatewayFactory {
     @Inject
     EncryptionUtil encryptionUtil;
 
-    // Cache of initialized gateways per client+gateway combination
-    private final Map<String, PaymentGateway> gatewayCache = new ConcurrentHashMap<>();
+    @Inject
+    GatewayHttpClients httpClients;
+
+    @Inject
+    Event<ConfigChanged> changes;
+
+    @ConfigProperty(name = "foodgrid.payment.gateway-cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    @ConfigProperty(name = "foodgrid.payment.gateway-cache.max-clients", defaultValue = "1000")
+    int maxClients;
+
+    // Per client; an entry replaced or evicted while a lookup is still filling it is simply never read again
+    private final Map<String, ClientGateways> clients = new ConcurrentHashMap<>();
+
+    // Uninitialized instances used only to read webhook payloads before the owning client is known
+    private final Map<PaymentGatewayType, PaymentGateway> webhookReaders = new ConcurrentHashMap<>();
+
+    public record ConfigChanged(String clientId) {}
+
+    private record Resolved(String version, PaymentGateway gateway) {}
+
+    private static final class ClientGateways {
+        private final long loadedAt = System.nanoTime();
+        private final Map<PaymentGatewayType, Resolved> byType = new ConcurrentHashMap<>();
+        private volatile Resolved primary;
+        private volatile long lastUsed = loadedAt;
+    }
 
     /**
      * Get a payment gateway for a client based on their configuration.
@@ -39,62 +76,127 @@ public class PaymentGatewayFactory {
         if (config == null) {
             throw new BadRequestException("No payment configuration found");
         }
-
-        // Validate that credentials are configured
-        if (config.apiKeyEncrypted == null || config.apiKeyEncrypted.isBlank() ||
-            config.secretKeyEncrypted == null || config.secretKeyEncrypted.isBlank()) {
-            throw new BadRequestException(
-                "Payment gateway credentials not configured for " + config.gatewayType + ". " +
-                "Please configure API keys using: POST /api/v1/payment-config"
-            );
-        }
-
-        final String cacheKey = config.clientId + ":" + config.gatewayType.name() + ":" + config.isLiveMode;
-
-        return gatewayCache.computeIfAbsent(cacheKey, key -> {
-            final GatewayCredentials credentials = decryptCredentials(config);
-            final PaymentGateway gateway = createGateway(config.gatewayType);
-            gateway.initialize(credentials);
-            return gateway;
-        });
+        return resolve(entry(config.clientId), config).gateway();
     }
 
     /**
      * Get gateway for a specific type (used when client has multiple configured gateways).
      */
     public PaymentGateway getGateway(final String clientId, final PaymentGatewayType gatewayType) {
+        final ClientGateways entry = entry(clientId);
+        final Resolved cached = entry.byType.get(gatewayType);
+        if (cached != null) {
+            return cached.gateway();
+        }
         final ClientPaymentConfig config = ClientPaymentConfig.findActiveByClientAndGateway(clientId, gatewayType);
         if (config == null) {
             throw new BadRequestException("Gateway " + gatewayType + " not configured for client");
         }
-        return getGateway(config);
+        return resolve(entry, config).gateway();
     }
 
     /**
      * Get the primary (default) gateway for a client.
      */
     public PaymentGateway getPrimaryGateway(final String clientId) {
+        final ClientGateways entry = entry(clientId);
+        final Resolved cached = entry.primary;
+        if (cached != null) {
+            return cached.gateway();
+        }
         final ClientPaymentConfig config = ClientPaymentConfig.findPrimaryActiveByClient(clientId);
         if (config == null) {
             throw new BadRequestException("No payment gateway configured for client");
         }
-        return getGateway(config);
+        final Resolved resolved = resolve(entry, config);
+        entry.primary = resolved;
+        return resolved.gateway();
     }
 
     /**
-     * Clear cached gateway for a client (use when credentials are updated).
+     * Read the routing ids of a webhook payload without any client's credentials.
+     *
+     * @return the unverified event, or null when the gateway type is not supported
+     */
+    public WebhookEvent peekWebhook(final PaymentGatewayType gatewayType, final String payload) {
+        final PaymentGateway reader;
+        try {
+            reader = webhookReaders.computeIfAbsent(gatewayType, this::createGateway);
+        } catch (final BadRequestException e) {
+            return null;
+        }
+        return reader.peekWebhook(payload);
+    }
+
+    /**
+     * Clear cached gateways for a client once the current transaction commits (use when credentials are updated).
      */
     public void invalidateCache(final String clientId, final PaymentGatewayType gatewayType) {
-        gatewayCache.entrySet().removeIf(entry ->
-            entry.getKey().startsWith(clientId + ":" + gatewayType.name()));
+        changes.fire(new ConfigChanged(clientId));
     }
 
     /**
-     * Clear all cached gateways for a client.
+     * Clear all cached gateways for a client once the current transaction commits.
      */
     public void invalidateClientCache(final String clientId) {
-        gatewayCache.entrySet().removeIf(entry ->
-            entry.getKey().startsWith(clientId + ":"));
+        changes.fire(new ConfigChanged(clientId));
+    }
+
+    public int cachedClients() {
+        return clients.size();
+    }
+
+    void onConfigChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final ConfigChanged event) {
+        clients.remove(event.clientId());
+    }
+
+    private ClientGateways entry(final String clientId) {
+        final long now = System.nanoTime();
+        ClientGateways entry = clients.get(clientId);
+        if (entry != null && now - entry.loadedAt >= ttl.toNanos()) {
+            clients.remove(clientId, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            evictIfFull();
+            entry = clients.computeIfAbsent(clientId, k -> new ClientGateways());
+        }
+        entry.lastUsed = now;
+        return entry;
+    }
+
+    private Resolved resolve(final ClientGateways entry, final ClientPaymentConfig config) {
+        // Validate that credentials are configured
+        if (config.apiKeyEncrypted == null || config.apiKeyEncrypted.isBlank() ||
+            config.secretKeyEncrypted == null || config.secretKeyEncrypted.isBlank()) {
+            throw new BadRequestException(
+                "Payment gateway credentials not configured for " + config.gatewayType + ". " +
+                "Please configure API keys using: POST /api/v1/payment-config"
+            );
+        }
+
+        final String version = config.id + "@" + (config.updatedAt != null ? config.updatedAt.getTime() : 0L);
+        return entry.byType.compute(config.gatewayType, (type, cached) -> {
+            if (cached != null && cached.version().equals(version)) {
+                return cached;
+            }
+            final PaymentGateway gateway = createGateway(type);
+            gateway.initialize(decryptCredentials(config));
+            return new Resolved(version, gateway);
+        });
+    }
+
+    private void evictIfFull() {
+        if (clients.size() < maxClients) {
+            return;
+        }
+        final long now = System.nanoTime();
+        clients.values().removeIf(e -> now - e.loadedAt >= ttl.toNanos());
+        if (clients.size() >= maxClients) {
+            clients.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed))
+                .ifPresent(lru -> clients.remove(lru.getKey(), lru.getValue()));
+        }
     }
 
     /**
@@ -102,10 +204,10 @@ public class PaymentGatewayFactory {
      */
     private PaymentGateway createGateway(final PaymentGatewayType type) {
         return switch (type) {
-            case RAZORPAY -> new RazorpayGateway();
-            case STRIPE -> new StripeGateway();
-            case PAYU -> new PayUGateway();
-            case BHARATPAY -> new BharatPayGateway();
+            case RAZORPAY -> new RazorpayGateway(httpClients.get(type));
+            case STRIPE -> new StripeGateway(httpClients.get(type));
+            case PAYU -> new PayUGateway(httpClients.get(type));
+            case BHARATPAY -> new BharatPayGateway(httpClients.get(type));
             case PHONEPE -> throw new BadRequestException("PhonePe gateway not yet implemented");
             case CASHFREE -> throw new BadRequestException("Cashfree gateway not yet implemented");
         };
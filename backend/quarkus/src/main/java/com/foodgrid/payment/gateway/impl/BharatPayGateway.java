@@ -15,7 +15,6 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.HashMap;
@@ -38,9 +37,16 @@ public class BharatPayGateway implements PaymentGateway {
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private GatewayCredentials credentials;
-    private HttpClient httpClient;
+    private final HttpClient httpClient;
     private String baseUrl;
 
+    /**
+     * @param httpClient client shared by all instances of this gateway type
+     */
+    public BharatPayGateway(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     @Override
     public PaymentGatewayType getType() {
         return PaymentGatewayType.BHARATPAY;
@@ -50,9 +56,6 @@ public class BharatPayGateway implements PaymentGateway {
     public void initialize(final GatewayCredentials credentials) {
         this.credentials = credentials;
         this.baseUrl = credentials.getBaseUrl();
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
     }
 
     @Override
@@ -241,8 +244,7 @@ public class BharatPayGateway implements PaymentGateway {
             final JsonNode json = MAPPER.readTree(payload);
 
             // Verify webhook signature
-            final String expectedSignature = generateWebhookSignature(payload);
-            if (signatureHeader != null && !expectedSignature.equals(signatureHeader)) {
+            if (signatureHeader != null && !generateWebhookSignature(payload).equals(signatureHeader)) {
                 return WebhookEvent.invalid("Invalid webhook signature");
             }
 
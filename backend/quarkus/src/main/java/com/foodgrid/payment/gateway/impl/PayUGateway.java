@@ -14,7 +14,6 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,9 +27,16 @@ public class PayUGateway implements PaymentGateway {
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private GatewayCredentials credentials;
-    private HttpClient httpClient;
+    private final HttpClient httpClient;
     private String baseUrl;
 
+    /**
+     * @param httpClient client shared by all instances of this gateway type
+     */
+    public PayUGateway(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     @Override
     public PaymentGatewayType getType() {
         return PaymentGatewayType.PAYU;
@@ -41,9 +47,6 @@ public class PayUGateway implements PaymentGateway {
         this.credentials = credentials;
         this.baseUrl = credentials.isLiveMode() ?
             "https://secure.payu.in" : "https://sandboxsecure.payu.in";
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
     }
 
     @Override
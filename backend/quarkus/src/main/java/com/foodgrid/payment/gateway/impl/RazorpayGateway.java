@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.foodgrid.payment.dto.GatewayCredentials;
 import com.foodgrid.payment.gateway.*;
 import com.foodgrid.payment.model.PaymentGatewayType;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
@@ -16,7 +17,6 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,7 +36,15 @@ public class RazorpayGateway implements PaymentGateway {
     String webhookUrl = "https://foodgrid-be.theblueman.in/api/v1/webhooks/payment/razorpay";
 
     private GatewayCredentials credentials;
-    private HttpClient httpClient;
+    private final HttpClient httpClient;
+    private String baseUrl = BASE_URL;
+
+    /**
+     * @param httpClient client shared by all instances of this gateway type
+     */
+    public RazorpayGateway(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
 
     @Override
     public PaymentGatewayType getType() {
@@ -46,9 +54,9 @@ public class RazorpayGateway implements PaymentGateway {
     @Override
     public void initialize(final GatewayCredentials credentials) {
         this.credentials = credentials;
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
+        // Overridable so the gateway can be pointed at a local stub
+        this.baseUrl = ConfigProvider.getConfig()
+            .getOptionalValue("foodgrid.payment.gateway.razorpay.base-url", String.class).orElse(BASE_URL);
     }
 
     @Override
@@ -69,7 +77,7 @@ public class RazorpayGateway implements PaymentGateway {
             final String requestBody = MAPPER.writeValueAsString(orderRequest);
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/orders"))
+                .uri(URI.create(baseUrl + "/orders"))
                 .header("Content-Type", "application/json")
                 .header("Authorization", getBasicAuth())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -115,7 +123,7 @@ public class RazorpayGateway implements PaymentGateway {
 
             // Fetch payment details to confirm status
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payments/" + gatewayPaymentId))
+                .uri(URI.create(baseUrl + "/payments/" + gatewayPaymentId))
                 .header("Authorization", getBasicAuth())
                 .GET()
                 .build();
@@ -152,7 +160,7 @@ public class RazorpayGateway implements PaymentGateway {
             final String requestBody = MAPPER.writeValueAsString(captureRequest);
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payments/" + paymentId + "/capture"))
+                .uri(URI.create(baseUrl + "/payments/" + paymentId + "/capture"))
                 .header("Content-Type", "application/json")
                 .header("Authorization", getBasicAuth())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -173,6 +181,43 @@ public class RazorpayGateway implements PaymentGateway {
     }
 
         @Override
+    public GatewayVerifyResult fetchPaymentStatus(final String gatewayOrderId) {
+        try {
+            // Payment links and orders are queried through different APIs
+            final boolean paymentLink = gatewayOrderId.startsWith("plink_");
+            final HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + (paymentLink ? "/payment_links/" + gatewayOrderId : "/orders/" + gatewayOrderId + "/payments")))
+                .header("Authorization", getBasicAuth())
+                .GET()
+                .build();
+
+            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return GatewayVerifyResult.pending("Status query returned HTTP " + response.statusCode(), response.body());
+            }
+
+            final JsonNode json = MAPPER.readTree(response.body());
+            final JsonNode payments = paymentLink ? json.path("payments") : json.path("items");
+            for (final JsonNode payment : payments) {
+                final String id = payment.has("payment_id") ? payment.get("payment_id").asText() : payment.path("id").asText(null);
+                if ("captured".equals(payment.path("status").asText())) {
+                    return GatewayVerifyResult.success(id, payment.path("method").asText(null), response.body());
+                }
+            }
+
+            if (paymentLink) {
+                final String status = json.path("status").asText();
+                if ("expired".equals(status) || "cancelled".equals(status)) {
+                    return GatewayVerifyResult.expired("Payment link " + status, response.body());
+                }
+            }
+            return GatewayVerifyResult.pending(null, response.body());
+        } catch (final Exception e) {
+            return GatewayVerifyResult.pending("Razorpay API error: " + e.getMessage(), null);
+        }
+    }
+
+    @Override
     public GatewayRefundResult processRefund(final String gatewayPaymentId, final BigDecimal amount, final String reason) {
         try {
             final long amountInPaise = amount.multiply(BigDecimal.valueOf(100)).longValue();
@@ -188,7 +233,7 @@ public class RazorpayGateway implements PaymentGateway {
             final String requestBody = MAPPER.writeValueAsString(refundRequest);
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/refunds"))
+                .uri(URI.create(baseUrl + "/refunds"))
                 .header("Content-Type", "application/json")
                 .header("Authorization", getBasicAuth())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -254,7 +299,7 @@ public class RazorpayGateway implements PaymentGateway {
             final String requestBody = MAPPER.writeValueAsString(paymentLinkRequest);
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payment_links"))
+                .uri(URI.create(baseUrl + "/payment_links"))
                 .header("Content-Type", "application/json")
                 .header("Authorization", getBasicAuth())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -396,7 +441,7 @@ public class RazorpayGateway implements PaymentGateway {
         return "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
     }
 
-    private String generateHmacSha256(final String data, final String key) throws Exception {
+    static String generateHmacSha256(final String data, final String key) throws Exception {
         final Mac mac = Mac.getInstance("HmacSHA256");
         final SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
         mac.init(secretKeySpec);
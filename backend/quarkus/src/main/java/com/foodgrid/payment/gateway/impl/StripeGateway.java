@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.foodgrid.payment.dto.GatewayCredentials;
 import com.foodgrid.payment.gateway.*;
 import com.foodgrid.payment.model.PaymentGatewayType;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -15,7 +16,6 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,7 +30,15 @@ public class StripeGateway implements PaymentGateway {
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private GatewayCredentials credentials;
-    private HttpClient httpClient;
+    private final HttpClient httpClient;
+    private String baseUrl = BASE_URL;
+
+    /**
+     * @param httpClient client shared by all instances of this gateway type
+     */
+    public StripeGateway(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
 
     @Override
     public PaymentGatewayType getType() {
@@ -40,9 +48,9 @@ public class StripeGateway implements PaymentGateway {
     @Override
     public void initialize(final GatewayCredentials credentials) {
         this.credentials = credentials;
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
+        // Overridable so the gateway can be pointed at a local stub
+        this.baseUrl = ConfigProvider.getConfig()
+            .getOptionalValue("foodgrid.payment.gateway.stripe.base-url", String.class).orElse(BASE_URL);
     }
 
     @Override
@@ -73,7 +81,7 @@ public class StripeGateway implements PaymentGateway {
                 .collect(Collectors.joining("&"));
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payment_intents"))
+                .uri(URI.create(baseUrl + "/payment_intents"))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .header("Authorization", "Bearer " + credentials.secretKey())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -110,7 +118,7 @@ public class StripeGateway implements PaymentGateway {
         try {
             // For Stripe, gatewayOrderId is the PaymentIntent ID
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payment_intents/" + gatewayOrderId))
+                .uri(URI.create(baseUrl + "/payment_intents/" + gatewayOrderId))
                 .header("Authorization", "Bearer " + credentials.secretKey())
                 .GET()
                 .build();
@@ -146,10 +154,40 @@ public class StripeGateway implements PaymentGateway {
         }
     }
 
+    @Override
+    public GatewayVerifyResult fetchPaymentStatus(final String gatewayOrderId) {
+        try {
+            final HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/payment_intents/" + gatewayOrderId))
+                .header("Authorization", "Bearer " + credentials.secretKey())
+                .GET()
+                .build();
+
+            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return GatewayVerifyResult.pending("Status query returned HTTP " + response.statusCode(), response.body());
+            }
+
+            final JsonNode json = MAPPER.readTree(response.body());
+            final String status = json.path("status").asText();
+            if ("succeeded".equals(status)) {
+                final String chargeId = json.hasNonNull("latest_charge") ? json.get("latest_charge").asText() : gatewayOrderId;
+                final String paymentMethod = json.hasNonNull("payment_method") ? json.get("payment_method").asText() : null;
+                return GatewayVerifyResult.success(chargeId, paymentMethod, response.body());
+            }
+            if ("canceled".equals(status)) {
+                return GatewayVerifyResult.expired("Payment status: canceled", response.body());
+            }
+            return GatewayVerifyResult.pending(null, response.body());
+        } catch (final Exception e) {
+            return GatewayVerifyResult.pending("Stripe API error: " + e.getMessage(), null);
+        }
+    }
+
     private GatewayVerifyResult capturePayment(final String paymentIntentId) {
         try {
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/payment_intents/" + paymentIntentId + "/capture"))
+                .uri(URI.create(baseUrl + "/payment_intents/" + paymentIntentId + "/capture"))
                 .header("Authorization", "Bearer " + credentials.secretKey())
                 .POST(HttpRequest.BodyPublishers.noBody())
                 .build();
@@ -188,7 +226,7 @@ public class StripeGateway implements PaymentGateway {
                 .collect(Collectors.joining("&"));
 
             final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/refunds"))
+                .uri(URI.create(baseUrl + "/refunds"))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .header("Authorization", "Bearer " + credentials.secretKey())
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
@@ -24,9 +24,21 @@ public class GatewayWebhookEvent extends PanacheEntityBase {
     @Column(name = "event_type", length = 100)
     public String eventType;
 
+    /**
+     * Set when the webhook was delivered to the client-specific URL.
+     */
+    @Column(name = "client_id", length = 36)
+    public String clientId;
+
     @Column(name = "gateway_event_id", length = 255)
     public String gatewayEventId;
 
+    /**
+     * The gateway's event id, or a hash of the payload when the gateway sends none; unique per gateway type.
+     */
+    @Column(name = "dedup_key", length = 80)
+    public String dedupKey;
+
     @Column(columnDefinition = "TEXT")
     public String payload;
 
@@ -45,9 +57,18 @@ public class GatewayWebhookEvent extends PanacheEntityBase {
     @Column(name = "created_at")
     public Instant createdAt;
 
+    /** Set once the event is finished, including when it was parked after too many attempts. */
     @Column(name = "processed_at")
     public Instant processedAt;
 
+    /** Processing attempts that left the event unprocessed. */
+    @Column(name = "attempts", nullable = false)
+    public int attempts;
+
+    /** When the sweep picks the event up next, while it is unprocessed. */
+    @Column(name = "next_attempt_at")
+    public Instant nextAttemptAt;
+
     public static GatewayWebhookEvent findByGatewayEventId(final String gatewayEventId) {
         return find("gatewayEventId", gatewayEventId).firstResult();
     }
@@ -5,6 +5,7 @@ import com.foodgrid.payment.model.RefundStatus;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,13 @@ public class GatewayRefundRepository implements PanacheRepositoryBase<GatewayRef
         return find("gatewayRefundId", gatewayRefundId).firstResultOptional();
     }
 
+    /** INITIATED refunds created before {@code createdBefore}, oldest first. */
+    public List<GatewayRefund> findStaleInitiated(final Instant createdBefore, final int limit) {
+        return find("status = ?1 and createdAt < ?2 order by createdAt", RefundStatus.INITIATED, createdBefore)
+            .page(0, limit)
+            .list();
+    }
+
     public List<GatewayRefund> findPendingRefunds() {
         return list("status", RefundStatus.PROCESSING);
     }
@@ -1,11 +1,16 @@
 package com.foodgrid.payment.repo;
 
+import com.foodgrid.common.util.PageCursor;
 import com.foodgrid.payment.model.GatewayTransaction;
 import com.foodgrid.payment.model.GatewayTransactionStatus;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -19,6 +24,15 @@ public class GatewayTransactionRepository implements PanacheRepositoryBase<Gatew
         return find("gatewayPaymentId", gatewayPaymentId).firstResultOptional();
     }
 
+    /** Locks the transaction, so webhook, verification and reconciliation settle it one at a time. */
+    public Optional<GatewayTransaction> findByGatewayOrderIdForUpdate(final String gatewayOrderId) {
+        return find("gatewayOrderId", gatewayOrderId).withLock(LockModeType.PESSIMISTIC_WRITE).firstResultOptional();
+    }
+
+    public Optional<GatewayTransaction> findByGatewayPaymentIdForUpdate(final String gatewayPaymentId) {
+        return find("gatewayPaymentId", gatewayPaymentId).withLock(LockModeType.PESSIMISTIC_WRITE).firstResultOptional();
+    }
+
     public Optional<GatewayTransaction> findByOrderId(final String orderId) {
         return find("orderId = ?1 order by createdAt desc", orderId).firstResultOptional();
     }
@@ -48,39 +62,48 @@ public class GatewayTransactionRepository implements PanacheRepositoryBase<Gatew
             GatewayTransactionStatus.INITIATED, GatewayTransactionStatus.PENDING);
     }
 
+    /**
+     * One page of INITIATED/PENDING transactions created in {@code [createdFrom, createdTo)}, ordered by
+     * (createdAt, id) and starting after the given cursor.
+     */
+    public List<GatewayTransaction> findPendingPage(final Instant createdFrom, final Instant createdTo,
+                                                    final Instant afterCreatedAt, final String afterId, final int limit) {
+        return find("status in (?1, ?2) and createdAt >= ?3 and createdAt < ?4 " +
+                "and (createdAt > ?5 or (createdAt = ?5 and id > ?6)) order by createdAt asc, id asc",
+                GatewayTransactionStatus.INITIATED, GatewayTransactionStatus.PENDING,
+                createdFrom, createdTo, afterCreatedAt, afterId)
+            .page(0, limit)
+            .list();
+    }
+
+    public Optional<Instant> findOldestPendingCreatedAt() {
+        return getEntityManager().createQuery(
+                "select min(t.createdAt) from GatewayTransaction t where t.status in (?1, ?2)", Instant.class)
+            .setParameter(1, GatewayTransactionStatus.INITIATED)
+            .setParameter(2, GatewayTransactionStatus.PENDING)
+            .getResultStream()
+            .filter(Objects::nonNull)
+            .findFirst();
+    }
+
     public long countByStatus(final GatewayTransactionStatus status) {
         return count("status", status);
     }
 
-    public List<GatewayTransaction> findByClientIdPaginated(
+    /**
+     * Up to {@code limit} of a client's transactions, newest first, starting after {@code after} (null for the
+     * first page). Served by {@code idx_gtx_client_created} (client_id, created_at, id).
+     */
+    public List<GatewayTransaction> findByClientIdAfter(
             final String clientId,
-            final int page,
-            final int size,
             final String status,
             final String paymentMethod,
             final String fromDate,
-            final String toDate) {
-        
-        final StringBuilder query = new StringBuilder("clientId = ?1");
-        int paramIndex = 2;
-        
-        if (status != null && !status.isBlank()) {
-            query.append(" and status = ?").append(paramIndex++);
-        }
-        if (paymentMethod != null && !paymentMethod.isBlank()) {
-            query.append(" and paymentMethod = ?").append(paramIndex++);
-        }
-        if (fromDate != null && !fromDate.isBlank()) {
-            query.append(" and createdAt >= ?").append(paramIndex++);
-        }
-        if (toDate != null && !toDate.isBlank()) {
-            query.append(" and createdAt <= ?").append(paramIndex++);
-        }
-        
-        query.append(" order by createdAt desc");
-        
-        var panacheQuery = find(query.toString(), buildParams(clientId, status, paymentMethod, fromDate, toDate));
-        return panacheQuery.page(page, size).list();
+            final String toDate,
+            final PageCursor after,
+            final int limit) {
+        final ClientFilter filter = ClientFilter.of(clientId, status, paymentMethod, fromDate, toDate, after);
+        return find(filter.query() + " order by createdAt desc, id desc", filter.params()).page(0, limit).list();
     }
 
     public long countByClientIdFiltered(
@@ -89,44 +112,47 @@ public class GatewayTransactionRepository implements PanacheRepositoryBase<Gatew
             final String paymentMethod,
             final String fromDate,
             final String toDate) {
-        
-        final StringBuilder query = new StringBuilder("clientId = ?1");
-        int paramIndex = 2;
-        
-        if (status != null && !status.isBlank()) {
-            query.append(" and status = ?").append(paramIndex++);
-        }
-        if (paymentMethod != null && !paymentMethod.isBlank()) {
-            query.append(" and paymentMethod = ?").append(paramIndex++);
-        }
-        if (fromDate != null && !fromDate.isBlank()) {
-            query.append(" and createdAt >= ?").append(paramIndex++);
-        }
-        if (toDate != null && !toDate.isBlank()) {
-            query.append(" and createdAt <= ?").append(paramIndex++);
-        }
-        
-        return count(query.toString(), buildParams(clientId, status, paymentMethod, fromDate, toDate));
+        final ClientFilter filter = ClientFilter.of(clientId, status, paymentMethod, fromDate, toDate, null);
+        return count(filter.query(), filter.params());
     }
 
-    private Object[] buildParams(final String clientId, final String status, final String paymentMethod, 
-                                  final String fromDate, final String toDate) {
-        final java.util.ArrayList<Object> params = new java.util.ArrayList<>();
-        params.add(clientId);
-        
-        if (status != null && !status.isBlank()) {
-            params.add(GatewayTransactionStatus.valueOf(status));
-        }
-        if (paymentMethod != null && !paymentMethod.isBlank()) {
-            params.add(paymentMethod);
-        }
-        if (fromDate != null && !fromDate.isBlank()) {
-            params.add(java.time.Instant.parse(fromDate));
-        }
-        if (toDate != null && !toDate.isBlank()) {
-            params.add(java.time.Instant.parse(toDate));
+    private record ClientFilter(String query, Object[] params) {
+
+        static ClientFilter of(
+                final String clientId,
+                final String status,
+                final String paymentMethod,
+                final String fromDate,
+                final String toDate,
+                final PageCursor after) {
+            final List<String> clauses = new ArrayList<>(6);
+            final List<Object> params = new ArrayList<>(7);
+            clauses.add("clientId = ?1");
+            params.add(clientId);
+
+            if (status != null && !status.isBlank()) {
+                params.add(GatewayTransactionStatus.valueOf(status));
+                clauses.add("status = ?" + params.size());
+            }
+            if (paymentMethod != null && !paymentMethod.isBlank()) {
+                params.add(paymentMethod);
+                clauses.add("paymentMethod = ?" + params.size());
+            }
+            if (fromDate != null && !fromDate.isBlank()) {
+                params.add(Instant.parse(fromDate));
+                clauses.add("createdAt >= ?" + params.size());
+            }
+            if (toDate != null && !toDate.isBlank()) {
+                params.add(Instant.parse(toDate));
+                clauses.add("createdAt <= ?" + params.size());
+            }
+            if (after != null) {
+                params.add(after.createdAt());
+                final int createdAt = params.size();
+                params.add(after.id());
+                clauses.add("(createdAt < ?" + createdAt + " or (createdAt = ?" + createdAt + " and id < ?" + params.size() + "))");
+            }
+            return new ClientFilter(String.join(" and ", clauses), params.toArray());
         }
-        
-        return params.toArray();
     }
 }
@@ -4,7 +4,10 @@ import com.foodgrid.payment.model.GatewayWebhookEvent;
 import com.foodgrid.payment.model.PaymentGatewayType;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +25,44 @@ public class GatewayWebhookEventRepository implements PanacheRepositoryBase<Gate
     public List<GatewayWebhookEvent> findByGatewayType(final PaymentGatewayType gatewayType) {
         return list("gatewayType = ?1 order by createdAt desc", gatewayType);
     }
+
+    /**
+     * Stores a received webhook unless one with the same dedup key was already stored.
+     *
+     * @return false for a redelivery
+     */
+    public boolean enqueue(final GatewayWebhookEvent e) {
+        return getEntityManager().createNativeQuery(
+                "insert ignore into gateway_webhook_events " +
+                "(id, gateway_type, client_id, gateway_event_id, dedup_key, payload, signature, is_verified, is_processed, " +
+                "created_at, attempts, next_attempt_at) " +
+                "values (?1, ?2, ?3, ?4, ?5, ?6, ?7, false, false, ?8, 0, ?9)")
+            .setParameter(1, e.id)
+            .setParameter(2, e.gatewayType.name())
+            .setParameter(3, e.clientId)
+            .setParameter(4, e.gatewayEventId)
+            .setParameter(5, e.dedupKey)
+            .setParameter(6, e.payload)
+            .setParameter(7, e.signature)
+            .setParameter(8, Timestamp.from(e.createdAt))
+            .setParameter(9, Timestamp.from(e.nextAttemptAt))
+            .executeUpdate() == 1;
+    }
+
+    public Optional<GatewayWebhookEvent> findByIdForUpdate(final String id) {
+        return find("id", id).withLock(LockModeType.PESSIMISTIC_WRITE).firstResultOptional();
+    }
+
+    /**
+     * Unfinished events due for another attempt, longest overdue first. Served by {@code idx_webhook_next_attempt}.
+     */
+    public List<String> findDueIds(final Instant now, final int limit) {
+        return getEntityManager().createQuery(
+                "select e.id from GatewayWebhookEvent e where e.processedAt is null and e.nextAttemptAt <= ?1 " +
+                "order by e.nextAttemptAt",
+                String.class)
+            .setParameter(1, now)
+            .setMaxResults(limit)
+            .getResultList();
+    }
 }
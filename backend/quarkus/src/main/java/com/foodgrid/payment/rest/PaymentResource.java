@@ -3,6 +3,7 @@ package com.foodgrid.payment.rest;
 import com.foodgrid.common.security.TenantGuards;
 import com.foodgrid.payment.dto.*;
 import com.foodgrid.payment.service.PaymentService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +21,7 @@ import java.util.List;
  * Used by POS and customer-facing applications.
  */
 @Path("/api/v1/payments")
+@RunOnVirtualThread
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Payments", description = "Payment gateway operations")
@@ -97,8 +99,12 @@ public class PaymentResource {
     @GET
     @Path("/client")
     @RolesAllowed({"ADMIN", "CLIENT_ADMIN"})
-    @Operation(summary = "List all client transactions", description = "List all transactions for the client with pagination")
+    @Operation(summary = "List all client transactions",
+        description = "List all transactions for the client, newest first. Pass the returned nextCursor as cursor for the next page; " +
+            "the total is counted on the first page unless includeTotal is set.")
     public Response listClientTransactions(
+            @QueryParam("cursor") final String cursor,
+            @QueryParam("includeTotal") final Boolean includeTotal,
             @QueryParam("page") @DefaultValue("0") final int page,
             @QueryParam("size") @DefaultValue("20") final int size,
             @QueryParam("status") final String status,
@@ -108,7 +114,8 @@ public class PaymentResource {
         final String clientId = jwt.getClaim("clientId");
         // Fallback to sub if clientId claim is missing (for legacy or strictly global admins)
         final String effectiveClientId = (clientId != null && !clientId.isBlank()) ? clientId : jwt.getSubject();
-        final var result = paymentService.listClientTransactions(effectiveClientId, page, size, status, paymentMethod, fromDate, toDate);
+        final var result = paymentService.listClientTransactions(effectiveClientId, page, size, status, paymentMethod, fromDate, toDate,
+            cursor, includeTotal);
         return Response.ok(result).build();
     }
 
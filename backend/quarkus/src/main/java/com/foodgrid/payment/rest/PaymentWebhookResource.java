@@ -1,10 +1,12 @@
 package com.foodgrid.payment.rest;
 
 import com.foodgrid.payment.model.PaymentGatewayType;
-import com.foodgrid.payment.service.PaymentService;
+import com.foodgrid.payment.service.WebhookIngestionService;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -14,6 +16,11 @@ import org.jboss.logging.Logger;
 /**
  * REST resource for receiving payment gateway webhooks.
  * These endpoints are publicly accessible (no auth) as they're called by payment gateways.
+ *
+ * Webhooks are acknowledged as soon as they are stored and are processed asynchronously by
+ * {@link WebhookIngestionService}. A 503 is returned only when storing fails, so the gateway retries.
+ * Clients may register {@code /{gateway}/clients/{clientId}} as their webhook URL; on the shared URLs the
+ * owning client is found through the payload's gateway order or payment id.
  */
 @Path("/api/v1/webhooks/payment")
 @Tag(name = "Payment Webhooks", description = "Payment gateway webhook endpoints")
@@ -22,7 +29,7 @@ public class PaymentWebhookResource {
     private static final Logger LOG = Logger.getLogger(PaymentWebhookResource.class);
 
     @Inject
-    PaymentService paymentService;
+    WebhookIngestionService ingestion;
 
     @POST
     @Path("/razorpay")
@@ -32,19 +39,10 @@ public class PaymentWebhookResource {
     @Operation(summary = "Razorpay webhook", description = "Receive webhooks from Razorpay")
     public Response razorpayWebhook(
             @HeaderParam("X-Razorpay-Signature") final String signature,
+            @HeaderParam("X-Razorpay-Event-Id") final String eventId,
             final String payload) {
         LOG.infof("Received Razorpay webhook, signature present: %s", signature != null);
-        LOG.debugf("Payload: %s", payload);
-
-        try {
-            paymentService.processWebhook(PaymentGatewayType.RAZORPAY, payload, signature);
-            LOG.infof("Razorpay webhook processed successfully");
-            return Response.ok().build();
-        } catch (final Exception e) {
-            LOG.errorf(e, "Error processing Razorpay webhook");
-            // Return 200 to prevent retries from Razorpay - we've logged the error
-            return Response.ok().build();
-        }
+        return accept(PaymentGatewayType.RAZORPAY, null, payload, signature, eventId);
     }
 
     @GET
@@ -73,13 +71,7 @@ public class PaymentWebhookResource {
             @HeaderParam("Stripe-Signature") final String signature,
             final String payload) {
         LOG.infof("Received Stripe webhook, signature present: %s", signature != null);
-        try {
-            paymentService.processWebhook(PaymentGatewayType.STRIPE, payload, signature);
-            return Response.ok().build();
-        } catch (final Exception e) {
-            LOG.errorf(e, "Error processing Stripe webhook");
-            return Response.ok().build();
-        }
+        return accept(PaymentGatewayType.STRIPE, null, payload, signature, null);
     }
 
     @POST
@@ -90,13 +82,7 @@ public class PaymentWebhookResource {
     @Operation(summary = "PayU webhook/callback", description = "Receive callbacks from PayU")
     public Response payuWebhook(final String payload) {
         LOG.infof("Received PayU callback");
-        try {
-            paymentService.processWebhook(PaymentGatewayType.PAYU, payload, null);
-            return Response.ok().build();
-        } catch (final Exception e) {
-            LOG.errorf(e, "Error processing PayU webhook");
-            return Response.ok().build();
-        }
+        return accept(PaymentGatewayType.PAYU, null, payload, null, null);
     }
 
     @POST
@@ -109,13 +95,7 @@ public class PaymentWebhookResource {
             @HeaderParam("X-VERIFY") final String signature,
             final String payload) {
         LOG.infof("Received PhonePe webhook");
-        try {
-            paymentService.processWebhook(PaymentGatewayType.PHONEPE, payload, signature);
-            return Response.ok().build();
-        } catch (final Exception e) {
-            LOG.errorf(e, "Error processing PhonePe webhook");
-            return Response.ok().build();
-        }
+        return accept(PaymentGatewayType.PHONEPE, null, payload, signature, null);
     }
 
     @POST
@@ -129,15 +109,8 @@ public class PaymentWebhookResource {
             @HeaderParam("x-webhook-timestamp") final String timestamp,
             final String payload) {
         LOG.infof("Received Cashfree webhook");
-        try {
-            // Include timestamp in signature verification
-            final String fullSignature = timestamp + ":" + signature;
-            paymentService.processWebhook(PaymentGatewayType.CASHFREE, payload, fullSignature);
-            return Response.ok().build();
-        } catch (final Exception e) {
-            LOG.errorf(e, "Error processing Cashfree webhook");
-            return Response.ok().build();
-        }
+        // Include timestamp in signature verification
+        return accept(PaymentGatewayType.CASHFREE, null, payload, timestamp + ":" + signature, null);
     }
 
     @POST
@@ -150,12 +123,48 @@ public class PaymentWebhookResource {
             @HeaderParam("X-BharatPay-Signature") final String signature,
             final String payload) {
         LOG.infof("Received BharatPay webhook, signature present: %s", signature != null);
+        return accept(PaymentGatewayType.BHARATPAY, null, payload, signature, null);
+    }
+
+    @POST
+    @Path("/{gateway}/clients/{clientId}")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_FORM_URLENCODED})
+    @Produces(MediaType.APPLICATION_JSON)
+    @PermitAll
+    @Operation(summary = "Client webhook", description = "Receive webhooks on a client-specific URL, routed without a lookup")
+    public Response clientWebhook(
+            @PathParam("gateway") final String gateway,
+            @PathParam("clientId") final String clientId,
+            @Context final HttpHeaders headers,
+            final String payload) {
+        final PaymentGatewayType type;
         try {
-            paymentService.processWebhook(PaymentGatewayType.BHARATPAY, payload, signature);
+            type = PaymentGatewayType.valueOf(gateway.toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        LOG.infof("Received %s webhook for client %s", type, clientId);
+
+        final String signature = switch (type) {
+            case RAZORPAY -> headers.getHeaderString("X-Razorpay-Signature");
+            case STRIPE -> headers.getHeaderString("Stripe-Signature");
+            case PAYU -> null;
+            case PHONEPE -> headers.getHeaderString("X-VERIFY");
+            case CASHFREE -> headers.getHeaderString("x-webhook-timestamp") + ":" + headers.getHeaderString("x-webhook-signature");
+            case BHARATPAY -> headers.getHeaderString("X-BharatPay-Signature");
+        };
+        final String eventId = type == PaymentGatewayType.RAZORPAY ? headers.getHeaderString("X-Razorpay-Event-Id") : null;
+        return accept(type, clientId, payload, signature, eventId);
+    }
+
+    private Response accept(final PaymentGatewayType type, final String clientId, final String payload,
+                            final String signature, final String eventId) {
+        try {
+            ingestion.accept(type, clientId, payload, signature, eventId);
             return Response.ok().build();
         } catch (final Exception e) {
-            LOG.errorf(e, "Error processing BharatPay webhook");
-            return Response.ok().build();
+            LOG.errorf(e, "Could not store %s webhook", type);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
         }
     }
 }
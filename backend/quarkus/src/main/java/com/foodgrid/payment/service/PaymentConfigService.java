@@ -9,10 +9,14 @@ import com.foodgrid.payment.gateway.PaymentGatewayFactory;
 import com.foodgrid.payment.model.ClientPaymentConfig;
 import com.foodgrid.payment.model.PaymentGatewayType;
 import com.foodgrid.payment.repo.ClientPaymentConfigRepository;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 import java.time.Instant;
 import java.util.Date;
@@ -24,6 +28,8 @@ import java.util.List;
 @ApplicationScoped
 public class PaymentConfigService {
 
+    private static final Logger LOG = Logger.getLogger(PaymentConfigService.class);
+
     @Inject
     ClientPaymentConfigRepository configRepository;
 
@@ -36,6 +42,61 @@ public class PaymentConfigService {
     @Inject
     AuditLogService auditService;
 
+    @ConfigProperty(name = "foodgrid.encryption.reencrypt-on-start", defaultValue = "false")
+    boolean reencryptOnStart;
+
+    void onStart(@Observes final StartupEvent ev) {
+        if (reencryptOnStart) {
+            reencryptCredentials();
+        }
+    }
+
+    /**
+     * Re-encrypts stored gateway credentials written with a retired or legacy key, so those keys can later be
+     * dropped from configuration. Runs at startup only when {@code foodgrid.encryption.reencrypt-on-start} is
+     * set. A config whose credentials cannot be decrypted is logged and left as it is; reads keep accepting
+     * every stored format, so the migration can be repeated once the right legacy key is configured.
+     *
+     * @return number of configs still holding credentials that need re-encryption
+     */
+    @Transactional
+    public int reencryptCredentials() {
+        int count = 0;
+        int failed = 0;
+        for (final ClientPaymentConfig config : configRepository.list(
+            "apiKeyEncrypted is not null or secretKeyEncrypted is not null or webhookSecretEncrypted is not null")) {
+            if (!encryptionUtil.needsReencryption(config.apiKeyEncrypted)
+                && !encryptionUtil.needsReencryption(config.secretKeyEncrypted)
+                && !encryptionUtil.needsReencryption(config.webhookSecretEncrypted)) {
+                continue;
+            }
+            final String apiKey;
+            final String secretKey;
+            final String webhookSecret;
+            try {
+                apiKey = encryptionUtil.reencrypt(config.apiKeyEncrypted);
+                secretKey = encryptionUtil.reencrypt(config.secretKeyEncrypted);
+                webhookSecret = encryptionUtil.reencrypt(config.webhookSecretEncrypted);
+            } catch (final RuntimeException e) {
+                LOG.warnf(e, "Cannot re-encrypt credentials of payment config %s; left unchanged", config.id);
+                failed++;
+                continue;
+            }
+            config.apiKeyEncrypted = apiKey;
+            config.secretKeyEncrypted = secretKey;
+            config.webhookSecretEncrypted = webhookSecret;
+            count++;
+        }
+        if (count > 0) {
+            LOG.infof("Re-encrypted credentials of %d payment configs with the active key", count);
+        }
+        if (failed > 0) {
+            LOG.warnf("%d payment configs still hold credentials written with another key; keep that key configured "
+                + "and re-run the migration", failed);
+        }
+        return failed;
+    }
+
     /**
      * Create or update payment gateway configuration for a client.
      */
@@ -0,0 +1,85 @@
+package com.foodgrid.payment.service;
+
+import com.foodgrid.payment.model.PaymentGatewayType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Webhook processing lag and backlog, and payment reconciliation progress.
+ *
+ * Webhook lag is the time from a webhook being stored to a worker picking it up, so it grows with the worker
+ * queue and with events left for the sweep. Nothing is registered or recorded when
+ * {@code foodgrid.metrics.enabled} is false.
+ */
+@ApplicationScoped
+public class PaymentMetrics implements MeterBinder {
+
+    @ConfigProperty(name = "foodgrid.metrics.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    WebhookIngestionService webhookIngestion;
+
+    @Inject
+    PaymentReconciliationService reconciliation;
+
+    private final Map<PaymentGatewayType, Timer> webhookLag = new EnumMap<>(PaymentGatewayType.class);
+    private volatile boolean bound;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        for (final PaymentGatewayType type : PaymentGatewayType.values()) {
+            webhookLag.put(type, Timer.builder("foodgrid.payment.webhook.lag")
+                .description("Time from a webhook being stored to its processing")
+                .tag("gateway", type.name())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(5))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry));
+        }
+        Gauge.builder("foodgrid.payment.webhook.in-flight", webhookIngestion, WebhookIngestionService::inFlightCount)
+            .description("Webhook events submitted to the workers and not finished")
+            .register(registry);
+        Gauge.builder("foodgrid.payment.webhook.queued", webhookIngestion, WebhookIngestionService::queuedCount)
+            .description("Webhook events waiting for a worker")
+            .register(registry);
+
+        FunctionCounter.builder("foodgrid.payment.reconcile.checked", reconciliation, PaymentReconciliationService::checkedCount)
+            .description("Pending transactions checked with their gateway")
+            .register(registry);
+        FunctionCounter.builder("foodgrid.payment.reconcile.settled", reconciliation, PaymentReconciliationService::settledCount)
+            .description("Pending transactions settled by reconciliation")
+            .register(registry);
+        FunctionCounter.builder("foodgrid.payment.reconcile.errors", reconciliation, PaymentReconciliationService::errorCount)
+            .register(registry);
+        Gauge.builder("foodgrid.payment.reconcile.oldest.pending", reconciliation, PaymentReconciliationService::oldestPendingAgeSeconds)
+            .description("Age of the oldest pending transaction at the end of the last run")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("foodgrid.payment.reconcile.last.run", reconciliation, PaymentReconciliationService::lastRunMillis)
+            .baseUnit("milliseconds")
+            .register(registry);
+        bound = true;
+    }
+
+    void recordWebhookLag(final PaymentGatewayType type, final Instant storedAt, final Instant processedAt) {
+        if (!bound || type == null || storedAt == null) {
+            return;
+        }
+        webhookLag.get(type).record(Duration.between(storedAt, processedAt));
+    }
+}
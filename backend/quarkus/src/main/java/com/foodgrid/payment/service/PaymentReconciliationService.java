@@ -0,0 +1,376 @@
+package com.foodgrid.payment.service;
+
+import com.foodgrid.common.audit.AuditLogService;
+import com.foodgrid.payment.gateway.GatewayCallExecutor;
+import com.foodgrid.payment.gateway.GatewayVerifyResult;
+import com.foodgrid.payment.gateway.PaymentGateway;
+import com.foodgrid.payment.gateway.PaymentGatewayFactory;
+import com.foodgrid.payment.model.GatewayRefund;
+import com.foodgrid.payment.model.GatewayTransaction;
+import com.foodgrid.payment.model.GatewayTransactionStatus;
+import com.foodgrid.payment.model.PaymentGatewayType;
+import com.foodgrid.payment.model.RefundStatus;
+import com.foodgrid.payment.repo.GatewayRefundRepository;
+import com.foodgrid.payment.repo.GatewayTransactionRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settles gateway transactions left in INITIATED/PENDING, typically because the webhook was lost.
+ *
+ * Each run pages through pending transactions aged between {@code min-age} and {@code max-age} and asks the
+ * gateway for their status, {@code parallelism} at a time and at most {@code rate-per-second} calls per gateway
+ * type (override with {@code foodgrid.payment.reconcile.<type>.rate-per-second}). Calls go through
+ * {@link GatewayCallExecutor}, so the usual per-gateway concurrency limits and timeouts apply. Settled outcomes
+ * are applied like a webhook, through {@link PaymentService#updateOrderAndCreatePayment}. Transactions that
+ * never got a gateway order are expired after {@code abandon-after}.
+ *
+ * Refunds still INITIATED after {@code refund-expire-after} were never confirmed by the gateway (the call timed
+ * out or the instance stopped mid-call). They are marked FAILED so they stop counting against the refundable
+ * amount, and audited for manual verification since the gateway may still have processed them.
+ */
+@ApplicationScoped
+public class PaymentReconciliationService {
+
+    private static final Logger LOG = Logger.getLogger(PaymentReconciliationService.class);
+
+    @Inject
+    GatewayTransactionRepository transactionRepository;
+
+    @Inject
+    GatewayRefundRepository refundRepository;
+
+    @Inject
+    PaymentGatewayFactory gatewayFactory;
+
+    @Inject
+    GatewayCallExecutor gatewayCalls;
+
+    @Inject
+    PaymentService paymentService;
+
+    @Inject
+    AuditLogService auditService;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.enabled", defaultValue = "true")
+    boolean enabled;
+
+    /** Leaves recent transactions to the webhook. */
+    @ConfigProperty(name = "foodgrid.payment.reconcile.min-age", defaultValue = "2m")
+    Duration minAge;
+
+    /** Older transactions are no longer polled. */
+    @ConfigProperty(name = "foodgrid.payment.reconcile.max-age", defaultValue = "48h")
+    Duration maxAge;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.abandon-after", defaultValue = "30m")
+    Duration abandonAfter;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.refund-expire-after", defaultValue = "1h")
+    Duration refundExpireAfter;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.max-per-run", defaultValue = "2000")
+    int maxPerRun;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.parallelism", defaultValue = "8")
+    int parallelism;
+
+    @ConfigProperty(name = "foodgrid.payment.reconcile.rate-per-second", defaultValue = "5")
+    double defaultRatePerSecond;
+
+    private final Map<PaymentGatewayType, RateLimiter> rateLimiters = new EnumMap<>(PaymentGatewayType.class);
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long oldestPendingAgeSeconds;
+    private volatile long lastRunMillis;
+    private ExecutorService workers;
+
+    private record Check(String transactionId, String clientId, PaymentGatewayType type, PaymentGateway gateway,
+                         String gatewayOrderId) {}
+
+    @PostConstruct
+    void init() {
+        for (final PaymentGatewayType type : PaymentGatewayType.values()) {
+            final double rate = ConfigProvider.getConfig()
+                .getOptionalValue("foodgrid.payment.reconcile." + type.name().toLowerCase() + ".rate-per-second", Double.class)
+                .orElse(defaultRatePerSecond);
+            rateLimiters.put(type, new RateLimiter(rate));
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(parallelism, r -> {
+            final Thread t = new Thread(r, "payment-reconcile-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(every = "${foodgrid.payment.reconcile.interval:1m}", identity = "payment-reconcile",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        if (!enabled) {
+            return;
+        }
+        final long started = System.nanoTime();
+        final Instant now = Instant.now();
+        final Instant createdFrom = now.minus(maxAge);
+        final Instant createdTo = now.minus(minAge);
+
+        int processed = 0;
+        int settledThisRun = 0;
+        Instant cursorCreatedAt = Instant.EPOCH;
+        String cursorId = "";
+        while (processed < maxPerRun) {
+            final Instant afterCreatedAt = cursorCreatedAt;
+            final String afterId = cursorId;
+            final int limit = Math.min(batchSize, maxPerRun - processed);
+            final List<GatewayTransaction> page = QuarkusTransaction.requiringNew().call(() ->
+                transactionRepository.findPendingPage(createdFrom, createdTo, afterCreatedAt, afterId, limit));
+            if (page.isEmpty()) {
+                break;
+            }
+            settledThisRun += reconcile(page, now);
+            processed += page.size();
+            final GatewayTransaction last = page.get(page.size() - 1);
+            cursorCreatedAt = last.createdAt;
+            cursorId = last.id;
+        }
+
+        final int expiredRefunds = expireStaleRefunds(now.minus(refundExpireAfter));
+
+        oldestPendingAgeSeconds = QuarkusTransaction.requiringNew().call(() ->
+            transactionRepository.findOldestPendingCreatedAt()
+                .map(oldest -> Duration.between(oldest, Instant.now()).toSeconds())
+                .orElse(0L));
+        lastRunMillis = (System.nanoTime() - started) / 1_000_000;
+        if (processed > 0) {
+            LOG.infof("Payment reconciliation checked %d transactions, settled %d in %d ms; oldest pending is %d s old",
+                processed, settledThisRun, lastRunMillis, oldestPendingAgeSeconds);
+        }
+        if (expiredRefunds > 0) {
+            LOG.warnf("Payment reconciliation expired %d refunds never confirmed by their gateway", expiredRefunds);
+        }
+    }
+
+    public long checkedCount() {
+        return checked.get();
+    }
+
+    public long settledCount() {
+        return settled.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    /** Age of the oldest INITIATED/PENDING transaction at the end of the last run. */
+    public long oldestPendingAgeSeconds() {
+        return oldestPendingAgeSeconds;
+    }
+
+    public long lastRunMillis() {
+        return lastRunMillis;
+    }
+
+    private int reconcile(final List<GatewayTransaction> page, final Instant now) {
+        int count = 0;
+        final List<Check> checks = new ArrayList<>();
+        final Map<String, PaymentGateway> gateways = new HashMap<>();
+        for (final GatewayTransaction tx : page) {
+            if (tx.gatewayOrderId == null || tx.gatewayOrderId.isBlank()) {
+                // The gateway order was never created (e.g. the instance stopped mid-initiation)
+                if (tx.createdAt.isBefore(now.minus(abandonAfter))
+                    && apply(tx.id, GatewayVerifyResult.expired("Gateway order was never created", null))) {
+                    count++;
+                }
+                continue;
+            }
+            final PaymentGateway gateway = gateways.computeIfAbsent(tx.clientId + ":" + tx.gatewayType, k -> resolve(tx));
+            if (gateway != null) {
+                checks.add(new Check(tx.id, tx.clientId, tx.gatewayType, gateway, tx.gatewayOrderId));
+            }
+        }
+
+        final List<Future<GatewayVerifyResult>> results = new ArrayList<>(checks.size());
+        for (final Check c : checks) {
+            results.add(workers.submit(() -> {
+                rateLimiters.get(c.type()).acquire();
+                return gatewayCalls.call(c.type(), "fetchPaymentStatus", () -> c.gateway().fetchPaymentStatus(c.gatewayOrderId()));
+            }));
+        }
+
+        for (int i = 0; i < checks.size(); i++) {
+            final Check c = checks.get(i);
+            checked.incrementAndGet();
+            final GatewayVerifyResult result;
+            try {
+                result = results.get(i).get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return count;
+            } catch (final ExecutionException e) {
+                errors.incrementAndGet();
+                LOG.debugf("Status query failed for transaction %s: %s", c.transactionId(), e.getCause().getMessage());
+                continue;
+            }
+            if (result == null) {
+                continue;
+            }
+            if (result.status() == GatewayTransactionStatus.PENDING) {
+                if (result.errorMessage() != null) {
+                    errors.incrementAndGet();
+                    LOG.debugf("Status query failed for transaction %s: %s", c.transactionId(), result.errorMessage());
+                }
+                continue;
+            }
+            try {
+                if (apply(c.transactionId(), result)) {
+                    count++;
+                }
+            } catch (final RuntimeException e) {
+                errors.incrementAndGet();
+                LOG.warnf(e, "Could not apply reconciled status to transaction %s", c.transactionId());
+            }
+        }
+        return count;
+    }
+
+    private PaymentGateway resolve(final GatewayTransaction tx) {
+        try {
+            return gatewayFactory.getGateway(tx.clientId, tx.gatewayType);
+        } catch (final RuntimeException e) {
+            errors.incrementAndGet();
+            LOG.debugf("No usable %s gateway for client %s: %s", tx.gatewayType, tx.clientId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Applies a settled outcome unless a webhook or verification settled the transaction first.
+     */
+    private boolean apply(final String transactionId, final GatewayVerifyResult result) {
+        final boolean applied = QuarkusTransaction.requiringNew().call(() -> {
+            final GatewayTransaction tx = transactionRepository.findById(transactionId, LockModeType.PESSIMISTIC_WRITE);
+            if (tx == null || tx.paymentId != null
+                || (tx.status != GatewayTransactionStatus.INITIATED && tx.status != GatewayTransactionStatus.PENDING)) {
+                return false;
+            }
+            tx.updatedAt = Instant.now();
+            if (result.success()) {
+                tx.status = GatewayTransactionStatus.CAPTURED;
+                tx.gatewayPaymentId = result.gatewayPaymentId();
+                tx.paymentMethod = result.paymentMethod();
+                tx.completedAt = Instant.now();
+                transactionRepository.persist(tx);
+                paymentService.updateOrderAndCreatePayment(tx);
+                auditService.record("PAYMENT_RECONCILED_CAPTURED", tx.outletId, "GatewayTransaction", tx.id,
+                    "gatewayPaymentId=" + tx.gatewayPaymentId);
+            } else {
+                tx.status = result.status();
+                tx.failureReason = result.errorMessage() != null ? result.errorMessage() : "Payment not completed (reconciliation)";
+                transactionRepository.persist(tx);
+                auditService.record("PAYMENT_RECONCILED_" + result.status().name(), tx.outletId, "GatewayTransaction", tx.id,
+                    tx.failureReason);
+            }
+            return true;
+        });
+        if (applied) {
+            settled.incrementAndGet();
+        }
+        return applied;
+    }
+
+    private int expireStaleRefunds(final Instant createdBefore) {
+        final List<GatewayRefund> stale = QuarkusTransaction.requiringNew().call(() ->
+            refundRepository.findStaleInitiated(createdBefore, maxPerRun));
+        int count = 0;
+        for (final GatewayRefund refund : stale) {
+            try {
+                if (expireRefund(refund.id, refund.transactionId)) {
+                    count++;
+                }
+            } catch (final RuntimeException e) {
+                errors.incrementAndGet();
+                LOG.warnf(e, "Could not expire refund %s", refund.id);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fails a refund still INITIATED. The transaction is locked first, in the same order as
+     * {@link PaymentService#processRefund}, so a refund being completed concurrently is not overwritten.
+     */
+    private boolean expireRefund(final String refundId, final String transactionId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            final GatewayTransaction tx = transactionRepository.findById(transactionId, LockModeType.PESSIMISTIC_WRITE);
+            final GatewayRefund refund = refundRepository.findById(refundId);
+            if (refund == null || refund.status != RefundStatus.INITIATED) {
+                return false;
+            }
+            refund.status = RefundStatus.FAILED;
+            refund.gatewayResponse = "Expired: no gateway confirmation; verify the refund with the gateway";
+            refund.processedAt = Instant.now();
+            refundRepository.persist(refund);
+            auditService.record("PAYMENT_REFUND_EXPIRED", tx != null ? tx.outletId : null, "GatewayRefund", refund.id,
+                "transactionId=" + transactionId + ", amount=" + refund.amount + "; gateway outcome unknown");
+            return true;
+        });
+    }
+
+    /**
+     * Spaces calls evenly at a fixed rate; callers block until their slot.
+     */
+    private static final class RateLimiter {
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        private RateLimiter(final double permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            final long waitNanos;
+            synchronized (this) {
+                final long now = System.nanoTime();
+                final long slot = Math.max(nextFreeNanos, now);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            }
+        }
+    }
+}
@@ -7,9 +7,12 @@ import com.foodgrid.admin.repo.ClientRepository;
 import com.foodgrid.auth.repo.OutletRepository;
 import com.foodgrid.common.audit.AuditLogService;
 import com.foodgrid.common.exception.*;
+import com.foodgrid.common.idempotency.IdempotencyService;
+import com.foodgrid.common.idempotency.RequestHash;
 import com.foodgrid.common.logging.AppLogger;
 import com.foodgrid.common.util.EncryptionUtil;
 import com.foodgrid.common.util.Ids;
+import com.foodgrid.common.util.PageCursor;
 import com.foodgrid.payment.dto.*;
 import com.foodgrid.payment.gateway.*;
 import com.foodgrid.payment.model.*;
@@ -18,10 +21,13 @@ import com.foodgrid.pos.model.Order;
 import com.foodgrid.pos.model.Payment;
 import com.foodgrid.pos.repo.OrderRepository;
 import com.foodgrid.pos.repo.PaymentRepository;
+import com.foodgrid.pos.service.OrderEventBus;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
@@ -39,6 +45,7 @@ import java.util.Map;
 public class PaymentService {
 
     private static final Logger LOG = Logger.getLogger(PaymentService.class);
+    private static final String OP_INITIATE = "PAYMENT_INITIATE";
 
     @Inject
     PaymentGatewayFactory gatewayFactory;
@@ -73,6 +80,21 @@ public class PaymentService {
     @Inject
     AppLogger appLogger;
 
+    @Inject
+    OrderEventBus orderEvents;
+
+    @Inject
+    GatewayCallExecutor gatewayCalls;
+
+    @Inject
+    PaymentMetrics metrics;
+
+    @Inject
+    IdempotencyService idempotency;
+
+    @Inject
+    WebhookRetryPolicy webhookRetries;
+
     public void onStart(@Observes final StartupEvent ev) {
         backfillClientId();
     }
@@ -111,83 +133,102 @@ public class PaymentService {
     /**
      * Initiate a payment for an order.
      * Creates a gateway order and returns data needed for client-side payment.
+     *
+     * Runs in two short transactions around the gateway call: the INITIATED row is committed first,
+     * the gateway is called with no transaction (and no pooled connection) held, then the result is applied.
      */
-    @Transactional
     public InitiatePaymentResponse initiatePayment(final String tenantId, final String clientId, final String outletId,
                                                    final InitiatePaymentRequest request) {
-        // Check for idempotent request
-        if (request.idempotencyKey() != null) {
-            final var existing = transactionRepository.findByIdempotencyKey(request.idempotencyKey());
-            if (existing.isPresent()) {
-                final GatewayTransaction tx = existing.get();
-                final PaymentGateway gateway = gatewayFactory.getPrimaryGateway(clientId);
-                return new InitiatePaymentResponse(
-                    tx.id, tx.orderId, tx.gatewayType, tx.gatewayOrderId,
-                    tx.amount, tx.currency, tx.status, null, gateway.getPublicKey()
-                );
-            }
-        }
-
         // Get the primary gateway for this client
         final PaymentGateway gateway = gatewayFactory.getPrimaryGateway(clientId);
+        final String requestFingerprint = RequestHash.sha256Hex(
+            request.orderId() + ":" + request.amount() + ":" + request.effectiveCurrency() + ":" + request.paymentId());
+
+        // Phase 1: reserve the idempotency key and create the transaction record together, so a retry either
+        // replays this transaction or, if this phase rolled back, starts over
+        final GatewayTransaction[] replayed = new GatewayTransaction[1];
+        final GatewayTransaction tx = QuarkusTransaction.requiringNew().call(() -> {
+            final var replay = idempotency.checkOrReserve(tenantId, OP_INITIATE, request.idempotencyKey(), requestFingerprint);
+            if (replay.isPresent()) {
+                replayed[0] = transactionRepository.findByIdOptional(replay.get().resultRef())
+                    .orElseThrow(() -> ResourceNotFoundException.transaction(replay.get().resultRef()));
+                return null;
+            }
 
-        // Create transaction record
-        final GatewayTransaction tx = new GatewayTransaction();
-        tx.id = Ids.uuid();
-        tx.tenantId = tenantId;
-        tx.clientId = clientId;
-        tx.outletId = outletId;
-        tx.orderId = request.orderId();
-        tx.paymentId = request.paymentId();
-        tx.gatewayType = gateway.getType();
-        tx.amount = request.amount();
-        tx.currency = request.effectiveCurrency();
-        tx.status = GatewayTransactionStatus.INITIATED;
-        tx.idempotencyKey = request.idempotencyKey();
-        tx.createdAt = Instant.now();
-        tx.updatedAt = Instant.now();
-
-        transactionRepository.persist(tx);
-
-        // Create order with gateway
-        final String receipt = "FG-" + tx.id.substring(0, 8).toUpperCase();
-        final GatewayOrderResult result = gateway.createOrder(
-            tx.id, request.amount(), request.effectiveCurrency(), receipt, request.metadata()
-        );
-
-        if (!result.success()) {
-            tx.failureReason = result.errorMessage();
-            tx.gatewayResponse = result.rawResponse();
-            tx.updatedAt = Instant.now();
-            transactionRepository.persist(tx);
-
-            auditService.record("PAYMENT_INITIATE_FAILED", outletId, "GatewayTransaction", tx.id,
-                "order=" + request.orderId() + ", error=" + result.errorMessage());
-
-            appLogger.error(LOG, "Payment initiation failed for order=%s: %s", request.orderId(), result.errorMessage());
-            throw PaymentException.initiationFailed(request.orderId(), result.errorMessage());
+            final GatewayTransaction t = new GatewayTransaction();
+            t.id = Ids.uuid();
+            t.tenantId = tenantId;
+            t.clientId = clientId;
+            t.outletId = outletId;
+            t.orderId = request.orderId();
+            t.paymentId = request.paymentId();
+            t.gatewayType = gateway.getType();
+            t.amount = request.amount();
+            t.currency = request.effectiveCurrency();
+            t.status = GatewayTransactionStatus.INITIATED;
+            t.idempotencyKey = request.idempotencyKey();
+            t.createdAt = Instant.now();
+            t.updatedAt = Instant.now();
+            transactionRepository.persist(t);
+            idempotency.markCompleted(tenantId, OP_INITIATE, request.idempotencyKey(), requestFingerprint, t.id);
+            return t;
+        });
+
+        if (replayed[0] != null) {
+            final GatewayTransaction existing = replayed[0];
+            return new InitiatePaymentResponse(
+                existing.id, existing.orderId, existing.gatewayType, existing.gatewayOrderId,
+                existing.amount, existing.currency, existing.status, null, gateway.getPublicKey()
+            );
         }
 
-        // Update transaction with gateway order info
-        tx.gatewayOrderId = result.gatewayOrderId();
-        tx.status = GatewayTransactionStatus.PENDING;
-        tx.gatewayResponse = result.rawResponse();
-        tx.updatedAt = Instant.now();
-        transactionRepository.persist(tx);
+        // Phase 2: create order with gateway, outside any transaction
+        final String receipt = "FG-" + tx.id.substring(0, 8).toUpperCase();
+        GatewayOrderResult result;
+        try {
+            result = gatewayCalls.call(gateway.getType(), "createOrder", () -> gateway.createOrder(
+                tx.id, request.amount(), request.effectiveCurrency(), receipt, request.metadata()
+            ));
+        } catch (final FoodGridException e) {
+            result = GatewayOrderResult.failure(e.getMessage(), null);
+        }
 
-        auditService.record("PAYMENT_INITIATED", outletId, "GatewayTransaction", tx.id,
-            "order=" + request.orderId() + ", gateway=" + gateway.getType());
+        // Phase 3: reconcile
+        final GatewayOrderResult outcome = result;
+        QuarkusTransaction.requiringNew().run(() -> {
+            final GatewayTransaction t = transactionRepository.findById(tx.id);
+            t.gatewayResponse = outcome.rawResponse();
+            t.updatedAt = Instant.now();
+            if (outcome.success()) {
+                t.gatewayOrderId = outcome.gatewayOrderId();
+                t.status = GatewayTransactionStatus.PENDING;
+                auditService.record("PAYMENT_INITIATED", outletId, "GatewayTransaction", t.id,
+                    "order=" + request.orderId() + ", gateway=" + gateway.getType());
+            } else {
+                t.status = GatewayTransactionStatus.FAILED;
+                t.failureReason = outcome.errorMessage();
+                auditService.record("PAYMENT_INITIATE_FAILED", outletId, "GatewayTransaction", t.id,
+                    "order=" + request.orderId() + ", error=" + outcome.errorMessage());
+            }
+            transactionRepository.persist(t);
+            tx.gatewayOrderId = t.gatewayOrderId;
+            tx.status = t.status;
+        });
+
+        if (!outcome.success()) {
+            appLogger.error(LOG, "Payment initiation failed for order=%s: %s", request.orderId(), outcome.errorMessage());
+            throw PaymentException.initiationFailed(request.orderId(), outcome.errorMessage());
+        }
 
         return new InitiatePaymentResponse(
             tx.id, tx.orderId, tx.gatewayType, tx.gatewayOrderId,
-            tx.amount, tx.currency, tx.status, result.clientData(), gateway.getPublicKey()
+            tx.amount, tx.currency, tx.status, outcome.clientData(), gateway.getPublicKey()
         );
     }
 
-/**
+    /**
      * Verify and capture a payment after client-side completion.
      */
-    @Transactional
     public GatewayTransactionResponse verifyPayment(final String clientId, final VerifyPaymentRequest request) {
         appLogger.info(LOG, "Verifying payment for transaction=%s", request.transactionId());
         final GatewayTransaction tx = transactionRepository.findById(request.transactionId());
@@ -204,7 +245,6 @@ public class PaymentService {
     /**
      * Public verify - gets clientId from transaction.
      */
-    @Transactional
     public GatewayTransactionResponse verifyPaymentPublic(final VerifyPaymentRequest request) {
         appLogger.info(LOG, "Public payment verification for transaction=%s", request.transactionId());
         final GatewayTransaction tx = transactionRepository.findById(request.transactionId());
@@ -230,115 +270,168 @@ public class PaymentService {
 
         final PaymentGateway gateway = gatewayFactory.getGateway(clientId, tx.gatewayType);
 
-        final GatewayVerifyResult result = gateway.verifyPayment(
+        // A timeout leaves the transaction PENDING; the client may retry or the webhook settles it
+        final GatewayVerifyResult result = gatewayCalls.call(tx.gatewayType, "verifyPayment", () -> gateway.verifyPayment(
             request.gatewayOrderId() != null ? request.gatewayOrderId() : tx.gatewayOrderId,
             request.gatewayPaymentId(),
             request.gatewaySignature(),
             request.additionalData()
-        );
+        ));
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            // Locked like the webhook and reconciliation paths, so only one of them settles the transaction
+            final GatewayTransaction t = transactionRepository.findById(tx.id, LockModeType.PESSIMISTIC_WRITE);
+            if (t.status == GatewayTransactionStatus.CAPTURED || t.paymentId != null) {
+                // Settled concurrently (e.g. by webhook) while the gateway call was in flight
+                return toResponse(t);
+            }
 
-        tx.gatewayPaymentId = request.gatewayPaymentId();
-        tx.gatewaySignature = request.gatewaySignature();
-        tx.gatewayResponse = result.rawResponse();
-        tx.updatedAt = Instant.now();
+            t.gatewayPaymentId = request.gatewayPaymentId();
+            t.gatewaySignature = request.gatewaySignature();
+            t.gatewayResponse = result.rawResponse();
+            t.updatedAt = Instant.now();
 
-        if (result.success()) {
-            tx.status = result.status();
-            tx.paymentMethod = result.paymentMethod();
-            tx.completedAt = Instant.now();
+            if (result.success()) {
+                t.status = result.status();
+                t.paymentMethod = result.paymentMethod();
+                t.completedAt = Instant.now();
 
-            auditService.record("PAYMENT_CAPTURED", tx.outletId, "GatewayTransaction", tx.id,
-                "order=" + tx.orderId + ", method=" + tx.paymentMethod);
-        } else {
-            tx.status = GatewayTransactionStatus.FAILED;
-            tx.failureReason = result.errorMessage();
+                auditService.record("PAYMENT_CAPTURED", t.outletId, "GatewayTransaction", t.id,
+                    "order=" + t.orderId + ", method=" + t.paymentMethod);
+            } else {
+                t.status = GatewayTransactionStatus.FAILED;
+                t.failureReason = result.errorMessage();
 
-            auditService.record("PAYMENT_VERIFY_FAILED", tx.outletId, "GatewayTransaction", tx.id,
-                "order=" + tx.orderId + ", error=" + result.errorMessage());
-        }
+                auditService.record("PAYMENT_VERIFY_FAILED", t.outletId, "GatewayTransaction", t.id,
+                    "order=" + t.orderId + ", error=" + result.errorMessage());
+            }
 
-        transactionRepository.persist(tx);
-        return toResponse(tx);
+            transactionRepository.persist(t);
+            return toResponse(t);
+        });
     }
 
     /**
      * Process a refund for a captured payment.
+     * The refund row is committed as INITIATED before the gateway call so that concurrent refunds
+     * count it against the refundable amount. A call that fails before reaching the gateway marks it FAILED;
+     * only a timed-out call, whose outcome is unknown, leaves it INITIATED to be expired by
+     * {@link PaymentReconciliationService}.
      */
-    @Transactional
     public RefundResponse processRefund(final String clientId, final RefundRequest request) {
         appLogger.info(LOG, "Processing refund for transaction=%s, amount=%s", request.transactionId(), request.amount());
 
-        final GatewayTransaction tx = transactionRepository.findById(request.transactionId());
-        if (tx == null) {
-            throw ResourceNotFoundException.transaction(request.transactionId());
-        }
+        final GatewayRefund pending = QuarkusTransaction.requiringNew().call(() -> {
+            // Locked so concurrent refunds of the transaction check the refundable amount one at a time
+            final GatewayTransaction tx = transactionRepository.findById(request.transactionId(), LockModeType.PESSIMISTIC_WRITE);
+            if (tx == null) {
+                throw ResourceNotFoundException.transaction(request.transactionId());
+            }
 
-        if (tx.status != GatewayTransactionStatus.CAPTURED &&
-            tx.status != GatewayTransactionStatus.PARTIALLY_REFUNDED) {
-            appLogger.warn(LOG, "Cannot refund transaction %s in status %s", tx.id, tx.status);
-            throw BusinessException.paymentAlreadyProcessed(tx.id);
-        }
+            if (tx.status != GatewayTransactionStatus.CAPTURED &&
+                tx.status != GatewayTransactionStatus.PARTIALLY_REFUNDED) {
+                appLogger.warn(LOG, "Cannot refund transaction %s in status %s", tx.id, tx.status);
+                throw BusinessException.paymentAlreadyProcessed(tx.id);
+            }
 
-        // Calculate total already refunded
-        final BigDecimal totalRefunded = refundRepository.findByTransactionId(tx.id).stream()
-            .filter(r -> r.status == RefundStatus.COMPLETED || r.status == RefundStatus.PROCESSING)
-            .map(r -> r.amount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Calculate total already refunded or in flight
+            final BigDecimal totalRefunded = refundedAmount(tx.id, true);
 
-        final BigDecimal available = tx.amount.subtract(totalRefunded);
-        if (totalRefunded.add(request.amount()).compareTo(tx.amount) > 0) {
-            appLogger.warn(LOG, "Refund amount %s exceeds available %s for transaction %s", request.amount(), available, tx.id);
-            throw BusinessException.refundExceedsAmount(request.amount().toString(), available.toString());
-        }
+            final BigDecimal available = tx.amount.subtract(totalRefunded);
+            if (totalRefunded.add(request.amount()).compareTo(tx.amount) > 0) {
+                appLogger.warn(LOG, "Refund amount %s exceeds available %s for transaction %s", request.amount(), available, tx.id);
+                throw BusinessException.refundExceedsAmount(request.amount().toString(), available.toString());
+            }
 
-        final PaymentGateway gateway = gatewayFactory.getGateway(clientId, tx.gatewayType);
+            // Create refund record
+            final GatewayRefund refund = new GatewayRefund();
+            refund.id = Ids.uuid();
+            refund.transactionId = tx.id;
+            refund.amount = request.amount();
+            refund.status = RefundStatus.INITIATED;
+            refund.reason = request.reason();
+            refund.createdAt = Instant.now();
+            refundRepository.persist(refund);
+            return refund;
+        });
 
-        // Create refund record
-        final GatewayRefund refund = new GatewayRefund();
-        refund.id = Ids.uuid();
-        refund.transactionId = tx.id;
-        refund.amount = request.amount();
-        refund.status = RefundStatus.INITIATED;
-        refund.reason = request.reason();
-        refund.createdAt = Instant.now();
-        refundRepository.persist(refund);
-
-        // Process with gateway
-        final GatewayRefundResult result = gateway.processRefund(tx.gatewayPaymentId, request.amount(), request.reason());
-
-        refund.gatewayRefundId = result.gatewayRefundId();
-        refund.gatewayResponse = result.rawResponse();
-        refund.status = result.status();
-
-        if (result.success()) {
-            if (result.status() == RefundStatus.COMPLETED) {
-                refund.processedAt = Instant.now();
+        final GatewayTransaction tx = transactionRepository.findById(request.transactionId());
+        final GatewayRefundResult result;
+        try {
+            final PaymentGateway gateway = gatewayFactory.getGateway(clientId, tx.gatewayType);
+            result = gatewayCalls.call(tx.gatewayType, "processRefund",
+                () -> gateway.processRefund(tx.gatewayPaymentId, request.amount(), request.reason()));
+        } catch (final ExternalServiceException e) {
+            // A timeout may have reached the gateway: leave the refund INITIATED for reconciliation
+            if (e.getErrorCode() != ErrorCode.EXT_TIMEOUT) {
+                failRefund(pending.id, tx, e.getMessage());
             }
+            throw e;
+        } catch (final RuntimeException e) {
+            failRefund(pending.id, tx, e.getMessage());
+            throw e;
+        }
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            final GatewayRefund refund = refundRepository.findById(pending.id);
+            refund.gatewayRefundId = result.gatewayRefundId();
+            refund.gatewayResponse = result.rawResponse();
+            refund.status = result.status();
+
+            if (result.success()) {
+                if (result.status() == RefundStatus.COMPLETED) {
+                    refund.processedAt = Instant.now();
+                }
+                refundRepository.persist(refund);
+
+                // Update transaction status
+                final GatewayTransaction t = transactionRepository.findById(tx.id, LockModeType.PESSIMISTIC_WRITE);
+                final BigDecimal newTotalRefunded = refundedAmount(t.id, false);
+                if (newTotalRefunded.compareTo(t.amount) >= 0) {
+                    t.status = GatewayTransactionStatus.REFUNDED;
+                } else {
+                    t.status = GatewayTransactionStatus.PARTIALLY_REFUNDED;
+                }
+                t.updatedAt = Instant.now();
+                transactionRepository.persist(t);
 
-            // Update transaction status
-            final BigDecimal newTotalRefunded = totalRefunded.add(request.amount());
-            if (newTotalRefunded.compareTo(tx.amount) >= 0) {
-                tx.status = GatewayTransactionStatus.REFUNDED;
+                auditService.record("PAYMENT_REFUND_" + result.status(), t.outletId, "GatewayRefund", refund.id,
+                    "transaction=" + t.id + ", amount=" + request.amount());
             } else {
-                tx.status = GatewayTransactionStatus.PARTIALLY_REFUNDED;
+                refund.status = RefundStatus.FAILED;
+                refundRepository.persist(refund);
+                auditService.record("PAYMENT_REFUND_FAILED", tx.outletId, "GatewayRefund", refund.id,
+                    "transaction=" + tx.id + ", error=" + result.errorMessage());
             }
-            tx.updatedAt = Instant.now();
-            transactionRepository.persist(tx);
 
-            auditService.record("PAYMENT_REFUND_" + result.status(), tx.outletId, "GatewayRefund", refund.id,
-                "transaction=" + tx.id + ", amount=" + request.amount());
-        } else {
+            return new RefundResponse(
+                refund.id, refund.transactionId, refund.gatewayRefundId,
+                refund.amount, refund.status, refund.reason, refund.createdAt, refund.processedAt
+            );
+        });
+    }
+
+    /** Marks a refund that never reached the gateway FAILED, releasing its amount. */
+    private void failRefund(final String refundId, final GatewayTransaction tx, final String error) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            final GatewayRefund refund = refundRepository.findById(refundId);
+            if (refund == null || refund.status != RefundStatus.INITIATED) {
+                return;
+            }
             refund.status = RefundStatus.FAILED;
+            refund.processedAt = Instant.now();
+            refundRepository.persist(refund);
             auditService.record("PAYMENT_REFUND_FAILED", tx.outletId, "GatewayRefund", refund.id,
-                "transaction=" + tx.id + ", error=" + result.errorMessage());
-        }
-
-        refundRepository.persist(refund);
+                "transaction=" + tx.id + ", error=" + error);
+        });
+    }
 
-        return new RefundResponse(
-            refund.id, refund.transactionId, refund.gatewayRefundId,
-            refund.amount, refund.status, refund.reason, refund.createdAt, refund.processedAt
-        );
+    private BigDecimal refundedAmount(final String transactionId, final boolean includeInFlight) {
+        return refundRepository.findByTransactionId(transactionId).stream()
+            .filter(r -> r.status == RefundStatus.COMPLETED || r.status == RefundStatus.PROCESSING
+                || (includeInFlight && r.status == RefundStatus.INITIATED))
+            .map(r -> r.amount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     /**
@@ -365,8 +458,9 @@ public class PaymentService {
      * Create payment link for an order.
      * This is called when an order is billed and proceeds to payment.
      * Returns the payment link URL that the client can use to complete payment.
+     *
+     * The INITIATED transaction is committed before the gateway call, which runs with no transaction held.
      */
-    @Transactional
     public PaymentLinkResponse createPaymentLink(final String tenantId, final String clientId, String outletId,
                                                  final String orderId, final String idempotencyKey) {
         // Check if order exists and is billed
@@ -443,41 +537,65 @@ public class PaymentService {
         
         // Get the primary gateway for this client
         final PaymentGateway gateway = gatewayFactory.getPrimaryGateway(derivedClientId);
-        
-        // Create payment link using the gateway's payment link API
-        final GatewayOrderResult linkResult = gateway.createPaymentLink(
-            orderId,
-            order.grandTotal,
-            "INR",
-            "Payment for Order " + orderId,
-            null, // customer name - can be added later
-            null, // customer contact - can be added later
-            null  // callback URL - can be configured per client
-        );
-        
+        final String txClientId = derivedClientId;
+
+        // Phase 1: create transaction record
+        final GatewayTransaction transaction = QuarkusTransaction.requiringNew().call(() -> {
+            final GatewayTransaction t = new GatewayTransaction();
+            t.id = Ids.uuid();
+            t.tenantId = tenantId;
+            t.clientId = txClientId;
+            t.outletId = effectiveOutletId;
+            t.orderId = orderId;
+            t.gatewayType = gateway.getType();
+            t.amount = order.grandTotal;
+            t.currency = "INR";
+            t.status = GatewayTransactionStatus.INITIATED;
+            t.idempotencyKey = idempotencyKey;
+            t.createdAt = Instant.now();
+            t.updatedAt = Instant.now();
+            transactionRepository.persist(t);
+            return t;
+        });
+
+        // Phase 2: create payment link using the gateway's payment link API, outside any transaction
+        GatewayOrderResult result;
+        try {
+            result = gatewayCalls.call(gateway.getType(), "createPaymentLink", () -> gateway.createPaymentLink(
+                orderId,
+                order.grandTotal,
+                "INR",
+                "Payment for Order " + orderId,
+                null, // customer name - can be added later
+                null, // customer contact - can be added later
+                null  // callback URL - can be configured per client
+            ));
+        } catch (final FoodGridException e) {
+            result = GatewayOrderResult.failure(e.getMessage(), null);
+        }
+
+        // Phase 3: reconcile
+        final GatewayOrderResult linkResult = result;
+        QuarkusTransaction.requiringNew().run(() -> {
+            final GatewayTransaction t = transactionRepository.findById(transaction.id);
+            t.gatewayResponse = linkResult.rawResponse();
+            t.updatedAt = Instant.now();
+            if (linkResult.success()) {
+                t.gatewayOrderId = linkResult.gatewayOrderId();
+                t.gatewayPaymentId = linkResult.gatewayOrderId();
+                t.status = GatewayTransactionStatus.PENDING;
+            } else {
+                t.status = GatewayTransactionStatus.FAILED;
+                t.failureReason = linkResult.errorMessage();
+            }
+            transactionRepository.persist(t);
+            transaction.status = t.status;
+        });
+
         if (!linkResult.success()) {
             throw PaymentException.initiationFailed(orderId, linkResult.errorMessage());
         }
-        
-        // Create transaction record
-        final GatewayTransaction transaction = new GatewayTransaction();
-        transaction.id = Ids.uuid();
-        transaction.tenantId = tenantId;
-        transaction.clientId = derivedClientId;
-        transaction.outletId = effectiveOutletId;
-        transaction.orderId = orderId;
-        transaction.gatewayType = gateway.getType();
-        transaction.gatewayOrderId = linkResult.gatewayOrderId();
-        transaction.gatewayPaymentId = linkResult.gatewayOrderId();
-        transaction.amount = order.grandTotal;
-        transaction.currency = "INR";
-        transaction.status = GatewayTransactionStatus.PENDING;
-        transaction.gatewayResponse = linkResult.rawResponse();
-        transaction.idempotencyKey = idempotencyKey;
-        transaction.createdAt = Instant.now();
-        
-        transactionRepository.persist(transaction);
-        
+
         // Extract payment link from clientData
         String paymentLink = null;
         if (linkResult.clientData() != null) {
@@ -492,7 +610,6 @@ public class PaymentService {
             paymentLink, order.grandTotal, "INR", transaction.status
         );
     }
-    @Transactional
     public PaymentLinkResponse createPaymentLinkForCustomer(final String orderId, final String idempotencyKey) {
         final Order order = orderRepository.findById(orderId);
         if (order == null) {
@@ -598,6 +715,10 @@ public class PaymentService {
 
     /**
      * List transactions for a client with pagination and filters.
+     *
+     * The first page and any request with a {@code cursor} are served by keyset pagination on (createdAt, id).
+     * The total is counted only on the first page unless {@code includeTotal} says otherwise. Requests for
+     * {@code page > 0} without a cursor keep the old offset behaviour.
      */
     public PaginatedResponse<GatewayTransactionResponse> listClientTransactions(
             final String clientId,
@@ -606,16 +727,37 @@ public class PaymentService {
             final String status,
             final String paymentMethod,
             final String fromDate,
-            final String toDate) {
-        
-        // 1. Fetch Payments
-        final List<Payment> payments = paymentRepository.findByClientIdPaginated(
-            clientId, page, size, status, paymentMethod, fromDate, toDate);
-            
-        final long totalElements = paymentRepository.countByClientIdFiltered(
-            clientId, status, paymentMethod, fromDate, toDate);
-            
-        // 2. Fetch Gateway Transactions for GATEWAY payments in batch
+            final String toDate,
+            final String cursor,
+            final Boolean includeTotal) {
+
+        final PageCursor after = PageCursor.decode(cursor);
+        if (after == null && page > 0) {
+            final List<Payment> payments = paymentRepository.findByClientIdPaginated(
+                clientId, page, size, status, paymentMethod, fromDate, toDate);
+            final long totalElements = paymentRepository.countByClientIdFiltered(
+                clientId, status, paymentMethod, fromDate, toDate);
+            return PaginatedResponse.of(toClientResponses(payments), page, size, totalElements);
+        }
+
+        // Fetch one row past the page to learn whether another page follows
+        final List<Payment> rows = paymentRepository.findByClientIdAfter(
+            clientId, status, paymentMethod, fromDate, toDate, after, size + 1);
+        final boolean hasNext = rows.size() > size;
+        final List<Payment> payments = hasNext ? rows.subList(0, size) : rows;
+        final Payment last = hasNext ? payments.get(payments.size() - 1) : null;
+        final String nextCursor = last != null ? PageCursor.after(last.createdAt, last.id).encode() : null;
+
+        final boolean counted = includeTotal != null ? includeTotal : after == null;
+        final long totalElements = counted
+            ? paymentRepository.countByClientIdFiltered(clientId, status, paymentMethod, fromDate, toDate)
+            : -1;
+
+        return PaginatedResponse.keyset(toClientResponses(payments), size, totalElements, nextCursor, after != null);
+    }
+
+    private List<GatewayTransactionResponse> toClientResponses(final List<Payment> payments) {
+        // Fetch Gateway Transactions for GATEWAY payments in batch
         final List<String> gatewayTxIds = payments.stream()
             .filter(p -> p.method == Payment.Method.GATEWAY && p.gatewayTransactionId != null)
             .map(p -> p.gatewayTransactionId)
@@ -627,8 +769,8 @@ public class PaymentService {
             gatewayTxs.forEach(tx -> gatewayTxMap.put(tx.id, tx));
         }
 
-        // 3. Map to Response
-        final List<GatewayTransactionResponse> content = payments.stream()
+        // Map to Response
+        return payments.stream()
             .map(p -> {
                 if (p.method == Payment.Method.GATEWAY && p.gatewayTransactionId != null) {
                     final GatewayTransaction tx = gatewayTxMap.get(p.gatewayTransactionId);
@@ -655,8 +797,6 @@ public class PaymentService {
                 );
             })
             .toList();
-            
-        return PaginatedResponse.of(content, page, size, totalElements);
     }
 
     private GatewayTransactionStatus mapPaymentStatus(final Payment.Status status) {
@@ -681,53 +821,49 @@ public class PaymentService {
     }
 
     /**
-     * Process a webhook event from a gateway.
+     * Process a stored webhook event. Called by {@link WebhookIngestionService} workers; an event that is already
+     * finished, or being processed by another worker, is skipped.
+     *
+     * An event whose owning client or gateway cannot be resolved yet (e.g. it arrived before the transaction
+     * recorded its gateway order id) stays unprocessed for the sweep to retry with backoff, and is parked after
+     * {@code foodgrid.payment.webhook.max-attempts}. Transactions of other clients than the resolved one are
+     * never updated.
      */
     @Transactional
-    public void processWebhook(final PaymentGatewayType gatewayType, final String payload, final String signature) {
-        // Store webhook event
-        final GatewayWebhookEvent event = new GatewayWebhookEvent();
-        event.id = Ids.uuid();
-        event.gatewayType = gatewayType;
-        event.payload = payload;
-        event.signature = signature;
-        event.createdAt = Instant.now();
-
-        // Get any client config for this gateway type to verify signature
-        // In production, you'd want to identify the client from the webhook payload
-        final List<ClientPaymentConfig> configs = configRepository.list("gatewayType = ?1 and isActive = true", gatewayType);
-
-        boolean verified = false;
-        PaymentGateway gateway = null;
-
-        for (final ClientPaymentConfig config : configs) {
-            try {
-                gateway = gatewayFactory.getGateway(config);
-                if (gateway.verifyWebhookSignature(payload, signature)) {
-                    verified = true;
-                    break;
-                }
-            } catch (final Exception e) {
-                // Try next config
-            }
+    public void processWebhookEvent(final String eventId) {
+        final GatewayWebhookEvent event = webhookRepository.findByIdForUpdate(eventId).orElse(null);
+        if (event == null || event.processedAt != null) {
+            return;
         }
+        final Instant now = Instant.now();
 
-        event.isVerified = verified;
+        final WebhookGateway resolved = resolveWebhookGateway(event);
+        if (resolved == null) {
+            if (webhookRetries.failed(event, "No active " + event.gatewayType + " configuration matches this webhook", now)) {
+                LOG.warnf("Parked webhook event %s after %d attempts: no matching configuration", event.id, event.attempts);
+            }
+            return;
+        }
+        // Finished from here on, whether or not it applies; only a rollback leaves it for a retry
+        event.processedAt = now;
+        metrics.recordWebhookLag(event.gatewayType, event.createdAt, event.processedAt);
 
-        if (!verified) {
+        final String clientId = resolved.clientId();
+        final PaymentGateway gateway = resolved.gateway();
+        if (!gateway.verifyWebhookSignature(event.payload, event.signature)) {
             event.processingError = "Signature verification failed";
-            webhookRepository.persist(event);
             return;
         }
+        event.isVerified = true;
 
         try {
-            final WebhookEvent webhookEvent = gateway.parseWebhook(payload, signature);
+            final WebhookEvent webhookEvent = gateway.parseWebhook(event.payload, event.signature);
             event.eventType = webhookEvent.eventType();
-            event.gatewayEventId = webhookEvent.gatewayPaymentId();
 
             // Find and update transaction
             if (webhookEvent.gatewayOrderId() != null) {
-                transactionRepository.findByGatewayOrderId(webhookEvent.gatewayOrderId())
+                transactionRepository.findByGatewayOrderIdForUpdate(webhookEvent.gatewayOrderId())
+                    .filter(tx -> ownedBy(tx, clientId))
                     .ifPresentOrElse(tx -> {
                         LOG.infof("Found transaction by gatewayOrderId: %s", tx.id);
                         updateTransactionFromWebhook(tx, webhookEvent);
@@ -736,8 +872,8 @@ public class PaymentService {
                     });
             }
             if (webhookEvent.gatewayPaymentId() != null) {
-                LOG.infof("Searching for transaction by gatewayPaymentId: %s", webhookEvent.gatewayPaymentId());
-                transactionRepository.findByGatewayPaymentId(webhookEvent.gatewayPaymentId())
+                transactionRepository.findByGatewayPaymentIdForUpdate(webhookEvent.gatewayPaymentId())
+                    .filter(tx -> ownedBy(tx, clientId))
                     .ifPresentOrElse(tx -> {
                         LOG.infof("Found transaction by gatewayPaymentId: %s", tx.id);
                         updateTransactionFromWebhook(tx, webhookEvent);
@@ -745,29 +881,65 @@ public class PaymentService {
                         LOG.warnf("No transaction found with gatewayPaymentId: %s", webhookEvent.gatewayPaymentId());
                     });
             }
-            
-            // If no transaction was found, let's check all transactions for debugging
-            LOG.infof("Checking all transactions for this order...");
-            transactionRepository.findByOrderId("7e90d20f-96dc-4c8c-a706-85d9e755c287")
-                .ifPresent(tx -> {
-                    LOG.infof("Found transaction: id=%s, gatewayOrderId=%s, gatewayPaymentId=%s, status=%s", 
-                        tx.id, tx.gatewayOrderId, tx.gatewayPaymentId, tx.status);
-                });
 
             event.isProcessed = true;
-            event.processedAt = Instant.now();
         } catch (final Exception e) {
             event.processingError = e.getMessage();
         }
+    }
 
-        webhookRepository.persist(event);
+    private boolean ownedBy(final GatewayTransaction tx, final String clientId) {
+        if (clientId.equals(tx.clientId)) {
+            return true;
+        }
+        LOG.warnf("Ignoring webhook for transaction %s of client %s; webhook belongs to client %s",
+            tx.id, tx.clientId, clientId);
+        return false;
     }
 
+    private record WebhookGateway(String clientId, PaymentGateway gateway) {}
+
+    /**
+     * Finds the owning client's gateway: from the webhook URL when it names the client, otherwise through the
+     * transaction that carries the payload's gateway order or payment id.
+     */
+    private WebhookGateway resolveWebhookGateway(final GatewayWebhookEvent event) {
+        String clientId = event.clientId;
+        if (clientId == null) {
+            final WebhookEvent peek = gatewayFactory.peekWebhook(event.gatewayType, event.payload);
+            if (peek == null) {
+                return null;
+            }
+            GatewayTransaction tx = null;
+            if (peek.gatewayOrderId() != null) {
+                tx = transactionRepository.findByGatewayOrderId(peek.gatewayOrderId()).orElse(null);
+            }
+            if (tx == null && peek.gatewayPaymentId() != null) {
+                tx = transactionRepository.findByGatewayPaymentId(peek.gatewayPaymentId()).orElse(null);
+            }
+            if (tx == null) {
+                return null;
+            }
+            clientId = tx.clientId;
+        }
+
+        try {
+            return new WebhookGateway(clientId, gatewayFactory.getGateway(clientId, event.gatewayType));
+        } catch (final Exception e) {
+            LOG.warnf("Gateway %s unavailable for client %s: %s", event.gatewayType, clientId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Applies a webhook to a transaction the caller holds a PESSIMISTIC_WRITE lock on.
+     */
     private void updateTransactionFromWebhook(final GatewayTransaction tx, final WebhookEvent event) {
         final String eventType = event.eventType().toLowerCase();
 
         if (eventType.contains("captured") || eventType.contains("succeeded") || eventType.contains("success") || eventType.contains("paid")) {
-            if (tx.status == GatewayTransactionStatus.PENDING || tx.status == GatewayTransactionStatus.AUTHORIZED) {
+            if ((tx.status == GatewayTransactionStatus.PENDING || tx.status == GatewayTransactionStatus.AUTHORIZED)
+                && tx.paymentId == null) {
                 tx.status = GatewayTransactionStatus.CAPTURED;
                 tx.gatewayPaymentId = event.gatewayPaymentId();
                 tx.paymentMethod = event.paymentMethod();
@@ -808,6 +980,8 @@ public class PaymentService {
 
     /**
      * Create Payment entity and update Order status when payment is successful.
+     * Idempotent per transaction: a Payment already recorded for it is updated instead of adding another.
+     * Callers hold a PESSIMISTIC_WRITE lock on the transaction.
      */
     @Transactional
     public void updateOrderAndCreatePayment(final GatewayTransaction tx) {
@@ -824,6 +998,13 @@ public class PaymentService {
         if (tx.paymentId != null && !tx.paymentId.isBlank()) {
             payment = paymentRepository.findById(tx.paymentId);
         }
+        if (payment == null) {
+            payment = paymentRepository.findByGatewayTransactionId(tx.id).orElse(null);
+            if (payment != null) {
+                tx.paymentId = payment.id;
+                transactionRepository.persist(tx);
+            }
+        }
 
         // Create or update Payment entity
         if (payment == null) {
@@ -862,6 +1043,7 @@ public class PaymentService {
             auditService.record("ORDER_PAID", order.outletId, "Order", order.id,
                 "transaction=" + tx.id + ", totalPaid=" + totalPaid);
         }
+        orderEvents.publish(order, "PAYMENT_CAPTURED");
     }
 
     private GatewayTransactionResponse toResponse(final GatewayTransaction tx) {
@@ -0,0 +1,167 @@
+package com.foodgrid.payment.service;
+
+import com.foodgrid.common.idempotency.RequestHash;
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.payment.model.GatewayWebhookEvent;
+import com.foodgrid.payment.model.PaymentGatewayType;
+import com.foodgrid.payment.repo.GatewayWebhookEventRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts payment gateway webhooks and processes them off the request thread.
+ *
+ * A webhook is acknowledged once its row is committed; redeliveries with the same gateway event id (or, when
+ * the gateway sends none, the same payload) are dropped by a unique key at insert time. Committed events are
+ * handed to a bounded worker pool. Events the pool could not take, that were pending when the instance
+ * stopped, or whose processing did not finish, are picked up by a periodic sweep once due, backing off per
+ * event as set by {@link WebhookRetryPolicy}.
+ */
+@ApplicationScoped
+public class WebhookIngestionService {
+
+    private static final Logger LOG = Logger.getLogger(WebhookIngestionService.class);
+
+    @Inject
+    GatewayWebhookEventRepository webhookRepository;
+
+    @Inject
+    PaymentService paymentService;
+
+    @Inject
+    WebhookRetryPolicy retryPolicy;
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.worker-threads", defaultValue = "4")
+    int workerThreads;
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.sweep-batch-size", defaultValue = "100")
+    int sweepBatchSize;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    void init() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(
+            workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                final Thread t = new Thread(r, "payment-webhook-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Durably stores a webhook and schedules it for processing.
+     *
+     * @param clientId       client named by the webhook URL, or null to route by the payload's gateway ids
+     * @param gatewayEventId the gateway's delivery id when it sends one
+     * @return false when the webhook is a redelivery of one already stored
+     */
+    public boolean accept(final PaymentGatewayType gatewayType, final String clientId, final String payload,
+                          final String signature, final String gatewayEventId) {
+        final GatewayWebhookEvent event = new GatewayWebhookEvent();
+        event.id = Ids.uuid();
+        event.gatewayType = gatewayType;
+        event.clientId = clientId;
+        event.gatewayEventId = gatewayEventId;
+        event.dedupKey = gatewayEventId != null && !gatewayEventId.isBlank() && gatewayEventId.length() <= 80
+            ? gatewayEventId
+            : "sha256:" + RequestHash.sha256Hex(payload == null ? "" : payload);
+        event.payload = payload;
+        event.signature = signature;
+        event.createdAt = Instant.now();
+        event.nextAttemptAt = retryPolicy.firstSweepAt(event.createdAt);
+
+        final boolean stored = QuarkusTransaction.requiringNew().call(() -> webhookRepository.enqueue(event));
+        if (!stored) {
+            LOG.infof("Duplicate %s webhook ignored: %s", gatewayType, event.dedupKey);
+            return false;
+        }
+        submit(event.id);
+        return true;
+    }
+
+    @Scheduled(every = "${foodgrid.payment.webhook.sweep-interval:30s}", identity = "payment-webhook-sweep",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() {
+        final List<String> pending = QuarkusTransaction.requiringNew().call(() ->
+            webhookRepository.findDueIds(Instant.now(), sweepBatchSize));
+        for (final String id : pending) {
+            if (!submit(id)) {
+                break;
+            }
+        }
+    }
+
+    /** Events handed to the worker pool and not finished yet, queued or running. */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public int queuedCount() {
+        return workers.getQueue().size();
+    }
+
+    /** Counts a rolled-back attempt, so an event that always fails backs off and is eventually parked. */
+    private void recordFailure(final String eventId, final Exception failure) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> webhookRepository.findByIdForUpdate(eventId)
+                .filter(e -> e.processedAt == null)
+                .ifPresent(e -> retryPolicy.failed(e, String.valueOf(failure.getMessage()), Instant.now())));
+        } catch (final Exception e) {
+            LOG.warnf(e, "Could not record failed attempt of webhook event %s", eventId);
+        }
+    }
+
+    private boolean submit(final String eventId) {
+        if (!inFlight.add(eventId)) {
+            return true;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    paymentService.processWebhookEvent(eventId);
+                } catch (final Exception e) {
+                    LOG.errorf(e, "Webhook event %s failed", eventId);
+                    recordFailure(eventId, e);
+                } finally {
+                    inFlight.remove(eventId);
+                }
+            });
+            return true;
+        } catch (final RejectedExecutionException e) {
+            // Left in the table for the next sweep
+            inFlight.remove(eventId);
+            LOG.warnf("Webhook worker queue full, deferring event %s", eventId);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.foodgrid.payment.service;
+
+import com.foodgrid.payment.model.GatewayWebhookEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * When the sweep picks up a stored webhook again.
+ *
+ * A new event is first due for the sweep {@code retry-after} after it was received, in case the worker hand-off
+ * failed. Each unsuccessful attempt doubles the delay, up to {@code max-retry-delay}; after
+ * {@code max-attempts} the event is parked: marked processed with its last error and never picked up again.
+ */
+@ApplicationScoped
+public class WebhookRetryPolicy {
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.retry-after", defaultValue = "1m")
+    Duration retryAfter;
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.max-retry-delay", defaultValue = "1h")
+    Duration maxRetryDelay;
+
+    @ConfigProperty(name = "foodgrid.payment.webhook.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    public Instant firstSweepAt(final Instant receivedAt) {
+        return receivedAt.plus(retryAfter);
+    }
+
+    /**
+     * Records an attempt that left the event unprocessed and schedules the next one.
+     *
+     * @return true when the event was parked
+     */
+    public boolean failed(final GatewayWebhookEvent event, final String error, final Instant now) {
+        event.attempts++;
+        event.processingError = error;
+        if (event.attempts >= maxAttempts) {
+            event.processingError = error + " (gave up after " + event.attempts + " attempts)";
+            event.processedAt = now;
+            event.nextAttemptAt = null;
+            return true;
+        }
+        final int doublings = Math.min(event.attempts - 1, 20);
+        final Duration delay = retryAfter.multipliedBy(1L << doublings);
+        event.nextAttemptAt = now.plus(delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay);
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package com.foodgrid.pos.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * A whole cart in one request: a new order with its lines when {@code orderId} is absent (then
+ * {@code orderType} is required), otherwise lines to add to that order.
+ */
+public record OrderCartRequest(
+  String orderId,
+  String orderType,
+  String tableId,
+  String notes,
+  @NotEmpty @Size(max = 200) List<@Valid OrderAddItemRequest> items
+) {}
@@ -0,0 +1,49 @@
+package com.foodgrid.pos.dto;
+
+import com.foodgrid.pos.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Order lifecycle notification pushed to POS and customer clients over SSE.
+ * {@code seq} is the replay cursor; it is sent as the SSE event id and echoed back in {@code Last-Event-ID}.
+ */
+public record OrderEvent(
+  long seq,
+  String type,
+  String orderId,
+  String outletId,
+  String customerId,
+  String status,
+  BigDecimal grandTotal,
+  Instant orderCreatedAt,
+  Instant occurredAt
+) {
+  public static final String HEARTBEAT = "HEARTBEAT";
+  public static final String RESYNC = "RESYNC";
+
+  public static OrderEvent of(final Order o, final String type) {
+    return new OrderEvent(0L, type, o.id, o.outletId, o.customerId,
+      o.status != null ? o.status.name() : null, o.grandTotal, o.createdAt, Instant.now());
+  }
+
+  public static OrderEvent heartbeat(final long seq) {
+    return new OrderEvent(seq, HEARTBEAT, null, null, null, null, null, null, Instant.now());
+  }
+
+  /**
+   * Tells a reconnecting client that its cursor fell out of the replay window and it must refetch.
+   */
+  public static OrderEvent resync(final long seq) {
+    return new OrderEvent(seq, RESYNC, null, null, null, null, null, null, Instant.now());
+  }
+
+  public OrderEvent withSeq(final long newSeq) {
+    return new OrderEvent(newSeq, type, orderId, outletId, customerId, status, grandTotal, orderCreatedAt, occurredAt);
+  }
+
+  public boolean isHeartbeat() {
+    return HEARTBEAT.equals(type);
+  }
+}
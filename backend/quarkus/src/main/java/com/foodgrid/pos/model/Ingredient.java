@@ -2,11 +2,17 @@ package com.foodgrid.pos.model;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * {@code currentStock} is only changed through atomic updates in {@link com.foodgrid.pos.repo.IngredientRepository};
+ * dynamic updates keep edits of other fields from writing back a stale stock value.
+ */
 @Entity
+@DynamicUpdate
 @Table(name = "ingredients")
 public class Ingredient extends PanacheEntityBase {
   @Id
@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_item_images")
+@Table(name = "menu_item_images",
+  indexes = {
+    @Index(name = "idx_menu_item_images_item_sort", columnList = "menu_item_id, sort_order")
+  })
 public class MenuItemImage extends PanacheEntityBase {
   @Id
   @Column(length = 36)
@@ -7,7 +7,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "menu_item_recipes")
+@Table(name = "menu_item_recipes",
+  indexes = {
+    @Index(name = "idx_menu_item_recipes_item_sort", columnList = "menu_item_id, sort_order, created_at")
+  })
 public class MenuItemRecipe extends PanacheEntityBase {
   @Id
   @Column(length = 36)
@@ -7,7 +7,16 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+  uniqueConstraints = {
+    // One order per external delivery; null external ids (FOODGRID orders) do not collide
+    @UniqueConstraint(name = "uk_orders_channel_external", columnNames = {"source_channel", "external_order_id"})
+  },
+  indexes = {
+    @Index(name = "idx_orders_outlet_created", columnList = "outlet_id, created_at"),
+    @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at"),
+    @Index(name = "idx_orders_customer_outlet_created", columnList = "customer_id, outlet_id, created_at")
+  })
 public class Order extends PanacheEntityBase {
   @Id
   @Column(length = 36)
@@ -7,7 +7,10 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+  indexes = {
+    @Index(name = "idx_order_items_order_created", columnList = "order_id, created_at, id")
+  })
 public class OrderItem extends PanacheEntityBase {
   @Id
   @Column(length = 36)
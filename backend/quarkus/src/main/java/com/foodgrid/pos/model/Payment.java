@@ -7,7 +7,12 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+  indexes = {
+    // Client payment listings page by (created_at, id); also created by changelog 20 where the column exists
+    @Index(name = "idx_payments_client_created", columnList = "client_id, created_at, id"),
+    @Index(name = "idx_payments_order", columnList = "order_id")
+  })
 public class Payment extends PanacheEntityBase {
   @Id
   @Column(length = 36)
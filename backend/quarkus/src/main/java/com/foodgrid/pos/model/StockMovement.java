@@ -6,7 +6,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_movements")
+@Table(name = "stock_movements",
+  indexes = {
+    @Index(name = "idx_stock_mov_ingredient_recorded", columnList = "ingredient_id, recorded_at"),
+    @Index(name = "idx_stock_mov_outlet_recorded", columnList = "outlet_id, recorded_at"),
+    @Index(name = "idx_stock_mov_outlet_type_recorded", columnList = "outlet_id, movement_type, recorded_at")
+  })
 public class StockMovement extends PanacheEntityBase {
   @Id
   @Column(length = 36)
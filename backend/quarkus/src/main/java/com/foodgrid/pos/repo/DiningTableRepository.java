@@ -4,6 +4,7 @@ import com.foodgrid.pos.model.DiningTable;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,10 @@ public class DiningTableRepository implements PanacheRepositoryBase<DiningTable,
     return list("outletId", outletId);
   }
 
+  public List<DiningTable> listByIds(Collection<String> ids) {
+    return list("id in ?1", ids);
+  }
+
   public Optional<DiningTable> findByIdAndOutlet(String id, String outletId) {
     return find("id = ?1 and outletId = ?2", id, outletId).firstResultOptional();
   }
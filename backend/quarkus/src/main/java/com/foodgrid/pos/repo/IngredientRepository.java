@@ -3,7 +3,16 @@ package com.foodgrid.pos.repo;
 import com.foodgrid.pos.model.Ingredient;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -50,4 +59,89 @@ public class IngredientRepository implements PanacheRepositoryBase<Ingredient, S
   public long countByCategory(String categoryId) {
     return count("categoryId = ?1", categoryId);
   }
+
+  /**
+   * Applies a stock delta in a single UPDATE, so concurrent movements cannot overwrite each other.
+   * The row stays locked until the transaction ends.
+   *
+   * @param requireAvailable when true the update only happens if the result stays non-negative
+   * @return false if the ingredient does not exist in the outlet or, with requireAvailable, stock is insufficient
+   */
+  public boolean applyStockDelta(String id, String outletId, BigDecimal delta, boolean requireAvailable) {
+    String query = "currentStock = currentStock + ?1, updatedAt = ?2 where id = ?3 and outletId = ?4";
+    if (requireAvailable) {
+      query += " and currentStock + ?1 >= 0";
+    }
+    return update(query, delta, LocalDateTime.now(), id, outletId) == 1;
+  }
+
+  /**
+   * Reads the stock straight from the database, bypassing a possibly stale entity in the session.
+   */
+  public Optional<BigDecimal> findCurrentStock(String id, String outletId) {
+    return getEntityManager()
+      .createQuery("select i.currentStock from Ingredient i where i.id = ?1 and i.outletId = ?2", BigDecimal.class)
+      .setParameter(1, id)
+      .setParameter(2, outletId)
+      .getResultStream()
+      .findFirst();
+  }
+
+  public List<Ingredient> listTrackedByIds(String outletId, Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return list("outletId = ?1 AND id in ?2 AND trackInventory = true", outletId, ids);
+  }
+
+  /**
+   * Deducts several ingredients in one JDBC batch. Each row is only updated if its stock covers the quantity.
+   * Callers should pass ingredients in a stable order (e.g. sorted by id) so concurrent batches lock rows
+   * in the same order.
+   *
+   * @return ids of the ingredients that were not deducted because stock was insufficient
+   */
+  public Set<String> deductStockBatch(String outletId, Map<String, BigDecimal> quantities) {
+    Set<String> insufficient = new HashSet<>();
+    if (quantities.isEmpty()) {
+      return insufficient;
+    }
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement ps = connection.prepareStatement(
+          "update ingredients set current_stock = current_stock - ?, updated_at = ? " +
+          "where id = ? and outlet_id = ? and current_stock >= ?")) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, BigDecimal> e : quantities.entrySet()) {
+          ps.setBigDecimal(1, e.getValue());
+          ps.setObject(2, now);
+          ps.setString(3, e.getKey());
+          ps.setString(4, outletId);
+          ps.setBigDecimal(5, e.getValue());
+          ps.addBatch();
+        }
+        int[] counts = ps.executeBatch();
+        int i = 0;
+        for (String id : quantities.keySet()) {
+          if (counts[i++] == 0) {
+            insufficient.add(id);
+          }
+        }
+      }
+    });
+    return insufficient;
+  }
+
+  public Map<String, BigDecimal> findCurrentStocks(String outletId, Collection<String> ids) {
+    Map<String, BigDecimal> stocks = new HashMap<>();
+    if (ids.isEmpty()) {
+      return stocks;
+    }
+    getEntityManager()
+      .createQuery("select i.id, i.currentStock from Ingredient i where i.outletId = ?1 and i.id in ?2", Object[].class)
+      .setParameter(1, outletId)
+      .setParameter(2, ids)
+      .getResultList()
+      .forEach(r -> stocks.put((String) r[0], (BigDecimal) r[1]));
+    return stocks;
+  }
 }
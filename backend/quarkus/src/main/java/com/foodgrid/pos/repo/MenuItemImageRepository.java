@@ -3,6 +3,7 @@ package com.foodgrid.pos.repo;
 import com.foodgrid.pos.model.MenuItemImage;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
 import java.util.List;
 
 @ApplicationScoped
@@ -12,6 +13,10 @@ public class MenuItemImageRepository implements PanacheRepositoryBase<MenuItemIm
     return list("menuItemId = ?1 ORDER BY sortOrder ASC", menuItemId);
   }
 
+  public List<MenuItemImage> listByMenuItemIds(Collection<String> menuItemIds) {
+    return list("menuItemId in ?1 ORDER BY menuItemId ASC, sortOrder ASC", menuItemIds);
+  }
+
   public void deleteByMenuItem(String menuItemId) {
     delete("menuItemId = ?1", menuItemId);
   }
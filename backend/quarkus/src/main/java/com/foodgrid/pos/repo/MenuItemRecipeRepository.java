@@ -3,6 +3,7 @@ package com.foodgrid.pos.repo;
 import com.foodgrid.pos.model.MenuItemRecipe;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
 import java.util.List;
 
 @ApplicationScoped
@@ -12,6 +13,13 @@ public class MenuItemRecipeRepository implements PanacheRepositoryBase<MenuItemR
     return list("menuItemId = ?1 ORDER BY sortOrder ASC, createdAt ASC", menuItemId);
   }
 
+  public List<MenuItemRecipe> listByMenuItemIds(Collection<String> menuItemIds) {
+    if (menuItemIds.isEmpty()) {
+      return List.of();
+    }
+    return list("menuItemId in ?1 ORDER BY menuItemId, sortOrder ASC, createdAt ASC", menuItemIds);
+  }
+
   public void deleteByMenuItemId(String menuItemId) {
     delete("menuItemId = ?1", menuItemId);
   }
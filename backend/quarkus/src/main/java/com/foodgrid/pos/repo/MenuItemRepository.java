@@ -4,8 +4,12 @@ import com.foodgrid.pos.model.MenuItem;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class MenuItemRepository implements PanacheRepositoryBase<MenuItem, String> {
@@ -17,6 +21,17 @@ public class MenuItemRepository implements PanacheRepositoryBase<MenuItem, Strin
     return find("id = ?1 and outletId = ?2", id, outletId).firstResultOptional();
   }
 
+  /**
+   * The outlet's menu items among {@code ids}, keyed by id, loaded with a single IN-query.
+   */
+  public Map<String, MenuItem> mapByIdsAndOutlet(Collection<String> ids, String outletId) {
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    return list("id in ?1 and outletId = ?2", ids, outletId).stream()
+      .collect(Collectors.toMap(mi -> mi.id, Function.identity()));
+  }
+
   public List<MenuItem> listByOutletAndCategory(String outletId, String categoryId) {
     return list("outletId = ?1 and categoryId = ?2", outletId, categoryId);
   }
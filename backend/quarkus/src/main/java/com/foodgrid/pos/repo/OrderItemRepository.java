@@ -4,6 +4,7 @@ import com.foodgrid.pos.model.OrderItem;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,10 @@ public class OrderItemRepository implements PanacheRepositoryBase<OrderItem, Str
     return list("orderId", orderId);
   }
 
+  public List<OrderItem> listByOrderIds(Collection<String> orderIds) {
+    return list("orderId in ?1 order by createdAt, id", orderIds);
+  }
+
   public Optional<OrderItem> findByIdAndOrder(String id, String orderId) {
     return find("id = ?1 and orderId = ?2", id, orderId).firstResultOptional();
   }
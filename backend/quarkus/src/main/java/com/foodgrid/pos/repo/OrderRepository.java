@@ -4,6 +4,8 @@ import com.foodgrid.pos.model.Order;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +29,41 @@ public class OrderRepository implements PanacheRepositoryBase<Order, String> {
   public List<Order> listByOutletAndDateRange(String outletId, java.time.Instant startDate, java.time.Instant endDate) {
     return find("outletId = ?1 and createdAt >= ?2 and createdAt <= ?3 order by createdAt desc", outletId, startDate, endDate).list();
   }
+
+  /**
+   * Platform-wide revenue of all non-cancelled orders, aggregated in the database.
+   */
+  public BigDecimal sumRevenue() {
+    final BigDecimal total = getEntityManager()
+      .createQuery("select sum(o.grandTotal) from Order o where o.status <> 'CANCELLED'", BigDecimal.class)
+      .getSingleResult();
+    return total != null ? total : BigDecimal.ZERO;
+  }
+
+  /**
+   * @return rows of [yyyy-MM, revenue] for non-cancelled orders created since {@code since}, oldest month first
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> revenueByMonth(final Instant since) {
+    return getEntityManager()
+      .createNativeQuery("select date_format(created_at, '%Y-%m') as ym, sum(grand_total) from orders " +
+        "where created_at >= ?1 and status <> 'CANCELLED' group by ym order by ym")
+      .setParameter(1, since)
+      .getResultList();
+  }
+
+  /**
+   * @return rows of [client id, client name, revenue] for the tenants with the highest revenue since {@code since}
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> topTenantsByRevenue(final Instant since, final int limit) {
+    return getEntityManager()
+      .createNativeQuery("select c.id, c.name, sum(o.grand_total) as revenue from orders o " +
+        "join outlets ou on ou.id = o.outlet_id join clients c on c.id = ou.client_id " +
+        "where o.created_at >= ?1 and o.status <> 'CANCELLED' " +
+        "group by c.id, c.name order by revenue desc")
+      .setParameter(1, since)
+      .setMaxResults(limit)
+      .getResultList();
+  }
 }
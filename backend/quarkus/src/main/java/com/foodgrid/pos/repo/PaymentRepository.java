@@ -1,9 +1,12 @@
 package com.foodgrid.pos.repo;
 
+import com.foodgrid.common.util.PageCursor;
 import com.foodgrid.pos.model.Payment;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +16,19 @@ public class PaymentRepository implements PanacheRepositoryBase<Payment, String>
     return list("orderId", orderId);
   }
 
+  /** The payment recorded for a gateway transaction; served by {@code idx_payment_gateway_tx}. */
+  public Optional<Payment> findByGatewayTransactionId(final String gatewayTransactionId) {
+    return find("gatewayTransactionId", gatewayTransactionId).firstResultOptional();
+  }
+
   public Optional<Payment> findByIdAndOrder(final String paymentId, final String orderId) {
     return find("id = ?1 and orderId = ?2", paymentId, orderId).firstResultOptional();
   }
+
+  /**
+   * Offset page of a client's payments, newest first. Kept for callers that still send {@code page};
+   * prefer {@link #findByClientIdAfter}, whose cost does not grow with the page number.
+   */
   public List<Payment> findByClientIdPaginated(
       final String clientId,
       final int page,
@@ -24,32 +37,24 @@ public class PaymentRepository implements PanacheRepositoryBase<Payment, String>
       final String method,
       final String fromDate,
       final String toDate) {
-    
-    final StringBuilder query = new StringBuilder("clientId = ?1");
-    final java.util.ArrayList<Object> params = new java.util.ArrayList<>();
-    params.add(clientId);
-    int paramIndex = 2;
-    
-    if (status != null && !status.isBlank() && !status.equalsIgnoreCase("All")) {
-      query.append(" and status = ?").append(paramIndex++);
-      params.add(com.foodgrid.pos.model.Payment.Status.valueOf(status.toUpperCase()));
-    }
-    if (method != null && !method.isBlank() && !method.equalsIgnoreCase("All")) {
-      query.append(" and method = ?").append(paramIndex++);
-      params.add(com.foodgrid.pos.model.Payment.Method.valueOf(method.toUpperCase()));
-    }
-    if (fromDate != null && !fromDate.isBlank()) {
-      query.append(" and createdAt >= ?").append(paramIndex++);
-      params.add(java.time.Instant.parse(fromDate));
-    }
-    if (toDate != null && !toDate.isBlank()) {
-      query.append(" and createdAt <= ?").append(paramIndex++);
-      params.add(java.time.Instant.parse(toDate));
-    }
-    
-    query.append(" order by createdAt desc");
-    
-    return find(query.toString(), params.toArray()).page(page, size).list();
+    final ClientFilter filter = ClientFilter.of(clientId, status, method, fromDate, toDate, null);
+    return find(filter.query() + " order by createdAt desc, id desc", filter.params()).page(page, size).list();
+  }
+
+  /**
+   * Up to {@code limit} of a client's payments, newest first, starting after {@code after} (null for the first
+   * page). Served by {@code idx_payments_client_created} (client_id, created_at, id).
+   */
+  public List<Payment> findByClientIdAfter(
+      final String clientId,
+      final String status,
+      final String method,
+      final String fromDate,
+      final String toDate,
+      final PageCursor after,
+      final int limit) {
+    final ClientFilter filter = ClientFilter.of(clientId, status, method, fromDate, toDate, after);
+    return find(filter.query() + " order by createdAt desc, id desc", filter.params()).page(0, limit).list();
   }
 
   public long countByClientIdFiltered(
@@ -58,29 +63,47 @@ public class PaymentRepository implements PanacheRepositoryBase<Payment, String>
       final String method,
       final String fromDate,
       final String toDate) {
-    
-    final StringBuilder query = new StringBuilder("clientId = ?1");
-    final java.util.ArrayList<Object> params = new java.util.ArrayList<>();
-    params.add(clientId);
-    int paramIndex = 2;
-    
-    if (status != null && !status.isBlank() && !status.equalsIgnoreCase("All")) {
-      query.append(" and status = ?").append(paramIndex++);
-      params.add(com.foodgrid.pos.model.Payment.Status.valueOf(status.toUpperCase()));
-    }
-    if (method != null && !method.isBlank() && !method.equalsIgnoreCase("All")) {
-      query.append(" and method = ?").append(paramIndex++);
-      params.add(com.foodgrid.pos.model.Payment.Method.valueOf(method.toUpperCase()));
-    }
-    if (fromDate != null && !fromDate.isBlank()) {
-      query.append(" and createdAt >= ?").append(paramIndex++);
-      params.add(java.time.Instant.parse(fromDate));
-    }
-    if (toDate != null && !toDate.isBlank()) {
-      query.append(" and createdAt <= ?").append(paramIndex++);
-      params.add(java.time.Instant.parse(toDate));
-    }
+    final ClientFilter filter = ClientFilter.of(clientId, status, method, fromDate, toDate, null);
+    return count(filter.query(), filter.params());
+  }
+
+  private record ClientFilter(String query, Object[] params) {
 
-    return count(query.toString(), params.toArray());
+    static ClientFilter of(
+        final String clientId,
+        final String status,
+        final String method,
+        final String fromDate,
+        final String toDate,
+        final PageCursor after) {
+      final List<String> clauses = new ArrayList<>(6);
+      final List<Object> params = new ArrayList<>(7);
+      clauses.add("clientId = ?1");
+      params.add(clientId);
+
+      if (status != null && !status.isBlank() && !status.equalsIgnoreCase("All")) {
+        params.add(Payment.Status.valueOf(status.toUpperCase()));
+        clauses.add("status = ?" + params.size());
+      }
+      if (method != null && !method.isBlank() && !method.equalsIgnoreCase("All")) {
+        params.add(Payment.Method.valueOf(method.toUpperCase()));
+        clauses.add("method = ?" + params.size());
+      }
+      if (fromDate != null && !fromDate.isBlank()) {
+        params.add(Instant.parse(fromDate));
+        clauses.add("createdAt >= ?" + params.size());
+      }
+      if (toDate != null && !toDate.isBlank()) {
+        params.add(Instant.parse(toDate));
+        clauses.add("createdAt <= ?" + params.size());
+      }
+      if (after != null) {
+        params.add(after.createdAt());
+        final int createdAt = params.size();
+        params.add(after.id());
+        clauses.add("(createdAt < ?" + createdAt + " or (createdAt = ?" + createdAt + " and id < ?" + params.size() + "))");
+      }
+      return new ClientFilter(String.join(" and ", clauses), params.toArray());
+    }
   }
 }
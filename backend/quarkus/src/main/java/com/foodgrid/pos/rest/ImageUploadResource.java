@@ -5,6 +5,7 @@ import com.foodgrid.common.storage.StorageException;
 import com.foodgrid.pos.dto.ImageUploadResponse;
 import com.foodgrid.pos.model.Ingredient;
 import com.foodgrid.pos.model.MenuItemImage;
+import com.foodgrid.pos.service.MenuCatalogCache;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -32,6 +33,9 @@ public class ImageUploadResource {
     @Inject
     ImageUploadService imageUploadService;
 
+    @Inject
+    MenuCatalogCache menuCache;
+
     /**
      * Upload an image for a menu item.
      */
@@ -76,6 +80,7 @@ public class ImageUploadResource {
             image.sortOrder = sortOrder;
             image.createdAt = LocalDateTime.now();
             image.persist();
+            menuCache.invalidate(outletId);
 
             return Response.ok(new ImageUploadResponse(
                     image.id,
@@ -117,6 +122,7 @@ public class ImageUploadResource {
 
         // Delete from database
         image.delete();
+        menuCache.invalidate(outletId);
 
         return Response.noContent().build();
     }
@@ -0,0 +1,45 @@
+package com.foodgrid.pos.rest;
+
+import com.foodgrid.pos.dto.OrderEvent;
+import io.smallrye.mutiny.Multi;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+
+/**
+ * Maps {@link OrderEvent}s onto the SSE wire format shared by the POS and customer event endpoints.
+ */
+public final class OrderEventSse {
+
+  private static final long RECONNECT_DELAY_MS = 3000;
+
+  private OrderEventSse() {}
+
+  public static Multi<OutboundSseEvent> toSse(final Sse sse, final Multi<OrderEvent> events) {
+    return events.map(e -> e.isHeartbeat()
+      ? sse.newEventBuilder().comment("heartbeat").build()
+      : sse.newEventBuilder()
+          .id(Long.toString(e.seq()))
+          .name(e.type())
+          .reconnectDelay(RECONNECT_DELAY_MS)
+          .mediaType(MediaType.APPLICATION_JSON_TYPE)
+          .data(OrderEvent.class, e)
+          .build());
+  }
+
+  /**
+   * Resolves the replay cursor from the standard {@code Last-Event-ID} header, falling back to a query param
+   * for clients that cannot set headers on reconnect.
+   */
+  public static Long cursor(final String lastEventIdHeader, final String lastEventIdParam) {
+    final String raw = (lastEventIdHeader != null && !lastEventIdHeader.isBlank()) ? lastEventIdHeader : lastEventIdParam;
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    try {
+      return Long.parseLong(raw.trim());
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+}
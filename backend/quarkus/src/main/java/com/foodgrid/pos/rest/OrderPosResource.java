@@ -2,11 +2,17 @@ package com.foodgrid.pos.rest;
 
 import com.foodgrid.pos.dto.*;
 import com.foodgrid.pos.service.OrderPosService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 
 import java.util.List;
 
@@ -17,18 +23,36 @@ import java.util.List;
 public class OrderPosResource {
 
   @Inject OrderPosService orderPosService;
+  @Context Sse sse;
 
+  @RunOnVirtualThread
   @POST
   public OrderResponse create(@Valid final OrderCreateRequest request, @QueryParam("outletId") final String outletId) {
     return orderPosService.create(request, outletId);
   }
 
+  /**
+   * Creates an order with all its lines, or adds lines to {@code orderId}, in one round trip.
+   */
+  @RunOnVirtualThread
+  @POST
+  @Path("/cart")
+  public OrderResponse submitCart(
+    @Valid final OrderCartRequest request,
+    @QueryParam("outletId") final String outletId,
+    @HeaderParam("Idempotency-Key") final String idempotencyKey
+  ) {
+    return orderPosService.submitCart(request, outletId, idempotencyKey);
+  }
+
+  @RunOnVirtualThread
   @GET
   @Path("/{orderId}")
   public OrderResponse get(@PathParam("orderId") final String orderId) {
     return orderPosService.get(orderId);
   }
 
+  @RunOnVirtualThread
   @GET
   public List<OrderResponse> list(
       @QueryParam("limit") final Integer limit,
@@ -41,24 +65,50 @@ public class OrderPosResource {
     return orderPosService.listRecent(limit, outletId);
   }
 
+  @GET
+  @Path("/events")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  @Blocking
+  public Multi<OutboundSseEvent> outletEvents(
+      @QueryParam("outletId") final String outletId,
+      @HeaderParam("Last-Event-ID") final String lastEventIdHeader,
+      @QueryParam("lastEventId") final String lastEventId) {
+    return OrderEventSse.toSse(sse, orderPosService.streamForOutlet(outletId, OrderEventSse.cursor(lastEventIdHeader, lastEventId)));
+  }
+
+  @GET
+  @Path("/{orderId}/events")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  @Blocking
+  public Multi<OutboundSseEvent> orderEvents(
+      @PathParam("orderId") final String orderId,
+      @HeaderParam("Last-Event-ID") final String lastEventIdHeader,
+      @QueryParam("lastEventId") final String lastEventId) {
+    return OrderEventSse.toSse(sse, orderPosService.streamForOrder(orderId, OrderEventSse.cursor(lastEventIdHeader, lastEventId)));
+  }
+
+  @RunOnVirtualThread
   @POST
   @Path("/{orderId}/items")
   public OrderResponse addItem(@PathParam("orderId") final String orderId, @Valid final OrderAddItemRequest request) {
     return orderPosService.addItem(orderId, request);
   }
 
+  @RunOnVirtualThread
   @DELETE
   @Path("/{orderId}/items/{orderItemId}")
   public OrderResponse cancelItem(@PathParam("orderId") final String orderId, @PathParam("orderItemId") final String orderItemId) {
     return orderPosService.cancelItem(orderId, orderItemId);
   }
 
+  @RunOnVirtualThread
   @POST
   @Path("/{orderId}/bill")
   public OrderResponse bill(@PathParam("orderId") final String orderId) {
     return orderPosService.bill(orderId);
   }
 
+  @RunOnVirtualThread
   @POST
   @Path("/{orderId}/payments")
   public PaymentResponse pay(
@@ -69,18 +119,21 @@ public class OrderPosResource {
     return orderPosService.payWithIdempotency(orderId, request, idempotencyKey);
   }
 
+  @RunOnVirtualThread
   @POST
   @Path("/{orderId}/serve")
   public OrderResponse markServed(@PathParam("orderId") final String orderId) {
     return orderPosService.markServed(orderId);
   }
 
+  @RunOnVirtualThread
   @DELETE
   @Path("/{orderId}")
   public void delete(@PathParam("orderId") final String orderId) {
     orderPosService.delete(orderId);
   }
 
+  @RunOnVirtualThread
   @POST
   @Path("/{orderId}/status/{status}")
   @Consumes(MediaType.WILDCARD)
@@ -90,6 +143,7 @@ public class OrderPosResource {
     return orderPosService.updateStatus(orderId, status);
   }
 
+  @RunOnVirtualThread
   @PATCH
   @Path("/{orderId}/items/{itemId}/status/{status}")
   public OrderResponse updateItemStatus(
@@ -20,6 +20,7 @@ public class IngredientService {
   @Inject UnitOfMeasureRepository unitRepo;
   @Inject SupplierRepository supplierRepo;
   @Inject StockMovementRepository stockMovementRepo;
+  @Inject MenuCatalogCache menuCache;
 
   // ==================== INGREDIENT CATEGORIES ====================
 
@@ -124,6 +125,7 @@ public class IngredientService {
 
   @Transactional
   public UnitOfMeasureResponse updateUnit(String outletId, String unitId, UnitOfMeasureUpsertRequest request) {
+    menuCache.invalidate(outletId);
     UnitOfMeasure unit = unitRepo.findByIdAndOutlet(unitId, outletId)
         .orElseThrow(() -> new NotFoundException("Unit not found"));
 
@@ -139,6 +141,7 @@ public class IngredientService {
 
   @Transactional
   public void deleteUnit(String outletId, String unitId) {
+    menuCache.invalidate(outletId);
     UnitOfMeasure unit = unitRepo.findByIdAndOutlet(unitId, outletId)
         .orElseThrow(() -> new NotFoundException("Unit not found"));
     unitRepo.delete(unit);
@@ -147,6 +150,7 @@ public class IngredientService {
   @Transactional
   public void deleteUnits(String outletId, List<String> unitIds) {
     if (unitIds == null || unitIds.isEmpty()) return;
+    menuCache.invalidate(outletId);
     
     // Units might be used by ingredients, DB FK will catch it if defined.
     // For safety we could check, but let's do batch delete.
@@ -279,6 +283,7 @@ public class IngredientService {
 
   @Transactional
   public IngredientResponse updateIngredient(String outletId, String ingredientId, IngredientUpsertRequest request) {
+    menuCache.invalidate(outletId);
     Ingredient ingredient = ingredientRepo.findByIdAndOutlet(ingredientId, outletId)
         .orElseThrow(() -> new NotFoundException("Ingredient not found"));
 
@@ -316,6 +321,7 @@ public class IngredientService {
 
   @Transactional
   public void deleteIngredient(String outletId, String ingredientId) {
+    menuCache.invalidate(outletId);
     Ingredient ingredient = ingredientRepo.findByIdAndOutlet(ingredientId, outletId)
         .orElseThrow(() -> new NotFoundException("Ingredient not found"));
     
@@ -327,6 +333,7 @@ public class IngredientService {
   @Transactional
   public void deleteIngredients(String outletId, List<String> ingredientIds) {
     if (ingredientIds == null || ingredientIds.isEmpty()) return;
+    menuCache.invalidate(outletId);
     
     // Delete associated data in batch
     stockMovementRepo.delete("ingredientId in ?1 and outletId = ?2", ingredientIds, outletId);
@@ -347,34 +354,36 @@ public class IngredientService {
 
   @Transactional
   public StockMovementResponse recordStockMovement(String outletId, StockMovementCreateRequest request) {
-    Ingredient ingredient = ingredientRepo.findByIdAndOutlet(request.ingredientId(), outletId)
-        .orElseThrow(() -> new NotFoundException("Ingredient not found"));
-
     BigDecimal quantity = request.quantity();
-    BigDecimal stockBefore = ingredient.currentStock;
-    BigDecimal stockAfter;
+    BigDecimal delta;
+    boolean requireAvailable = false;
 
-    // Calculate new stock based on movement type
+    // Calculate the stock change based on movement type
     switch (request.movementType()) {
       case PURCHASE, TRANSFER_IN, RETURN, OPENING_STOCK, ADJUSTMENT -> {
         if (request.movementType() == StockMovement.MovementType.ADJUSTMENT) {
           // For adjustment, quantity can be negative (decrease) or positive (increase)
-          stockAfter = stockBefore.add(quantity);
+          delta = quantity;
         } else {
-          stockAfter = stockBefore.add(quantity.abs());
+          delta = quantity.abs();
         }
       }
       case USAGE, WASTAGE, TRANSFER_OUT -> {
-        stockAfter = stockBefore.subtract(quantity.abs());
-        if (stockAfter.compareTo(BigDecimal.ZERO) < 0) {
-          throw new BadRequestException("Insufficient stock. Current stock: " + stockBefore);
-        }
+        delta = quantity.abs().negate();
+        requireAvailable = true;
       }
       default -> throw new BadRequestException("Invalid movement type");
     }
 
-    // Update ingredient stock
-    ingredient.currentStock = stockAfter;
+    // Update ingredient stock atomically; the row lock is held until commit, so the read-back is ours
+    if (!ingredientRepo.applyStockDelta(request.ingredientId(), outletId, delta, requireAvailable)) {
+      BigDecimal current = ingredientRepo.findCurrentStock(request.ingredientId(), outletId)
+          .orElseThrow(() -> new NotFoundException("Ingredient not found"));
+      throw new BadRequestException("Insufficient stock. Current stock: " + current);
+    }
+    BigDecimal stockAfter = ingredientRepo.findCurrentStock(request.ingredientId(), outletId)
+        .orElseThrow(() -> new NotFoundException("Ingredient not found"));
+    BigDecimal stockBefore = stockAfter.subtract(delta);
 
     // Create stock movement record
     StockMovement movement = new StockMovement();
@@ -32,6 +32,7 @@ public class MenuAdminService {
   @Inject MenuItemRecipeRepository recipeRepository;
   @Inject SecurityIdentity identity;
   @Inject ImageUploadService imageUploadService;
+  @Inject MenuCatalogCache menuCache;
 
   public List<MenuCategoryResponse> listCategories(final String outletId) {
     enforceOutlet(outletId);
@@ -41,6 +42,7 @@ public class MenuAdminService {
   @Transactional
   public MenuCategoryResponse createCategory(final String outletId, final MenuCategoryUpsertRequest req) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     final MenuCategory c = new MenuCategory();
     c.id = Ids.uuid();
@@ -58,6 +60,7 @@ public class MenuAdminService {
   @Transactional
   public MenuCategoryResponse updateCategory(final String outletId, final String categoryId, final MenuCategoryUpsertRequest req) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     final MenuCategory c = categoryRepository.findByIdAndOutlet(categoryId, outletId)
       .orElseThrow(() -> new NotFoundException("Category not found"));
@@ -74,6 +77,7 @@ public class MenuAdminService {
   @Transactional
   public void deleteCategory(final String outletId, final String categoryId) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     final MenuCategory c = categoryRepository.findByIdAndOutlet(categoryId, outletId)
       .orElseThrow(() -> new NotFoundException("Category not found"));
@@ -84,6 +88,7 @@ public class MenuAdminService {
   public void deleteCategories(final String outletId, final List<String> categoryIds) {
     if (categoryIds == null || categoryIds.isEmpty()) return;
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     // No associated data for categories except items (which we probably shouldn't auto-delete)
     // The DB will fail if there are items linked to these categories.
@@ -146,6 +151,7 @@ public class MenuAdminService {
   @Transactional
   public MenuItemResponse createItem(final String outletId, final MenuItemUpsertRequest req) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     String categoryName = null;
     if (req.categoryId() != null && !req.categoryId().isBlank()) {
@@ -180,6 +186,7 @@ public class MenuAdminService {
   @Transactional
   public MenuItemResponse updateItem(final String outletId, final String itemId, final MenuItemUpsertRequest req) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     final MenuItem i = itemRepository.findByIdAndOutlet(itemId, outletId)
       .orElseThrow(() -> new NotFoundException("Item not found"));
@@ -235,6 +242,7 @@ public class MenuAdminService {
   @Transactional
   public void deleteItem(final String outletId, final String itemId) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
 
     final MenuItem i = itemRepository.findByIdAndOutlet(itemId, outletId)
       .orElseThrow(() -> new NotFoundException("Item not found"));
@@ -249,6 +257,7 @@ public class MenuAdminService {
   public void deleteItems(final String outletId, final List<String> itemIds) {
     if (itemIds == null || itemIds.isEmpty()) return;
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     // Delete associated data in batch
     imageRepository.deleteByMenuItemIds(itemIds);
@@ -0,0 +1,267 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.common.storage.ImageUploadService;
+import com.foodgrid.pos.dto.MenuCategoryResponse;
+import com.foodgrid.pos.dto.MenuItemImageResponse;
+import com.foodgrid.pos.dto.MenuItemRecipeResponse;
+import com.foodgrid.pos.dto.MenuItemResponse;
+import com.foodgrid.pos.model.Ingredient;
+import com.foodgrid.pos.model.MenuCategory;
+import com.foodgrid.pos.model.MenuItem;
+import com.foodgrid.pos.model.MenuItemImage;
+import com.foodgrid.pos.model.MenuItemRecipe;
+import com.foodgrid.pos.model.UnitOfMeasure;
+import com.foodgrid.pos.repo.IngredientRepository;
+import com.foodgrid.pos.repo.MenuCategoryRepository;
+import com.foodgrid.pos.repo.MenuItemImageRepository;
+import com.foodgrid.pos.repo.MenuItemRecipeRepository;
+import com.foodgrid.pos.repo.MenuItemRepository;
+import com.foodgrid.pos.repo.UnitOfMeasureRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable per-outlet snapshots of the customer-facing menu.
+ *
+ * A snapshot holds every category and item of an outlet with images and recipe details resolved, built
+ * with one query per table. Menu, recipe, image and ingredient writes call {@link #invalidate}; the
+ * snapshot is dropped once the write commits, and a build that raced with any menu write is not stored.
+ * Snapshots also expire after {@code foodgrid.menu-cache.ttl}, which bounds staleness when another
+ * instance made the change. At most {@code foodgrid.menu-cache.max-outlets} snapshots are kept.
+ */
+@ApplicationScoped
+public class MenuCatalogCache {
+
+  @Inject MenuCategoryRepository categoryRepository;
+  @Inject MenuItemRepository itemRepository;
+  @Inject MenuItemImageRepository imageRepository;
+  @Inject MenuItemRecipeRepository recipeRepository;
+  @Inject IngredientRepository ingredientRepository;
+  @Inject UnitOfMeasureRepository unitRepository;
+  @Inject ImageUploadService imageUploadService;
+  @Inject Event<MenuChanged> changes;
+
+  @ConfigProperty(name = "foodgrid.menu-cache.ttl", defaultValue = "5m")
+  Duration ttl;
+
+  @ConfigProperty(name = "foodgrid.menu-cache.max-outlets", defaultValue = "1000")
+  int maxOutlets;
+
+  private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  // Striped by outlet, so the set of locks stays fixed however many outlets are served
+  private final ReentrantLock[] buildLocks = new ReentrantLock[64];
+
+  {
+    for (int i = 0; i < buildLocks.length; i++) {
+      buildLocks[i] = new ReentrantLock();
+    }
+  }
+
+  public record MenuChanged(String outletId) {}
+
+  /**
+   * @param etag weak validator derived from the catalog rows, stable across restarts and instances. Image
+   *             URLs may be signed per build, so images contribute their storage keys rather than their URLs.
+   */
+  public record Snapshot(
+    String outletId,
+    String etag,
+    Instant builtAt,
+    List<MenuCategoryResponse> categories,
+    List<MenuItemResponse> items,
+    Map<String, List<MenuItemResponse>> itemsByCategory,
+    Map<String, MenuItemResponse> itemsById
+  ) {
+    public List<MenuItemResponse> itemsOfCategory(final String categoryId) {
+      return itemsByCategory.getOrDefault(categoryId, List.of());
+    }
+  }
+
+  public Snapshot get(final String outletId) {
+    final Snapshot cached = snapshots.get(outletId);
+    if (isFresh(cached)) {
+      return cached;
+    }
+    // One build per outlet at a time; concurrent readers wait for it instead of all hitting the database.
+    // A lock rather than a monitor, so a virtual thread waiting on the build does not pin its carrier.
+    final ReentrantLock lock = buildLocks[Math.floorMod(outletId.hashCode(), buildLocks.length)];
+    lock.lock();
+    try {
+      final Snapshot current = snapshots.get(outletId);
+      if (isFresh(current)) {
+        return current;
+      }
+      final long gen = generation.get();
+      final Snapshot built = build(outletId);
+      if (generation.get() == gen) {
+        evictIfFull();
+        snapshots.put(outletId, built);
+      }
+      return built;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Drops the outlet's snapshot once the current transaction commits (immediately without one).
+   */
+  public void invalidate(final String outletId) {
+    changes.fire(new MenuChanged(outletId));
+  }
+
+  void onMenuChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final MenuChanged event) {
+    generation.incrementAndGet();
+    snapshots.remove(event.outletId());
+  }
+
+  private boolean isFresh(final Snapshot s) {
+    return s != null && Instant.now().isBefore(s.builtAt().plus(ttl));
+  }
+
+  private void evictIfFull() {
+    if (snapshots.size() < maxOutlets) {
+      return;
+    }
+    snapshots.values().removeIf(s -> !isFresh(s));
+    if (snapshots.size() >= maxOutlets) {
+      snapshots.values().stream()
+        .min((a, b) -> a.builtAt().compareTo(b.builtAt()))
+        .ifPresent(oldest -> snapshots.remove(oldest.outletId(), oldest));
+    }
+  }
+
+  private Snapshot build(final String outletId) {
+    final List<MenuCategoryResponse> categories = categoryRepository.listByOutlet(outletId).stream()
+      .map(MenuCatalogCache::toResponse)
+      .toList();
+    final Map<String, String> categoryNames = new HashMap<>();
+    for (final MenuCategoryResponse c : categories) {
+      categoryNames.put(c.id(), c.name());
+    }
+
+    final List<MenuItem> items = itemRepository.listByOutlet(outletId);
+    final List<String> itemIds = items.stream().map(i -> i.id).toList();
+
+    final Map<String, List<MenuItemImage>> imagesByItem = itemIds.isEmpty() ? Map.of() :
+      imageRepository.list("menuItemId IN ?1 ORDER BY sortOrder ASC", itemIds).stream()
+        .collect(Collectors.groupingBy(img -> img.menuItemId));
+
+    final List<MenuItemRecipe> recipes = itemIds.isEmpty() ? List.of() :
+      recipeRepository.list("menuItemId IN ?1 ORDER BY sortOrder ASC", itemIds);
+    final Map<String, List<MenuItemRecipe>> recipesByItem = recipes.stream()
+      .collect(Collectors.groupingBy(recipe -> recipe.menuItemId));
+
+    final Set<String> ingredientIds = new LinkedHashSet<>();
+    final Set<String> unitIds = new LinkedHashSet<>();
+    for (final MenuItemRecipe r : recipes) {
+      ingredientIds.add(r.ingredientId);
+      unitIds.add(r.unitId);
+    }
+    final Map<String, Ingredient> ingredients = ingredientIds.isEmpty() ? Map.of() :
+      ingredientRepository.list("id in ?1", ingredientIds).stream()
+        .collect(Collectors.toMap(i -> i.id, i -> i));
+    final Map<String, UnitOfMeasure> units = unitIds.isEmpty() ? Map.of() :
+      unitRepository.list("id in ?1", unitIds).stream()
+        .collect(Collectors.toMap(u -> u.id, u -> u));
+
+    final List<MenuItemResponse> itemResponses = new ArrayList<>(items.size());
+    final Map<String, List<MenuItemResponse>> byCategory = new LinkedHashMap<>();
+    final Map<String, MenuItemResponse> byId = new HashMap<>();
+    // Records hash structurally, so equal menus get equal validators without serializing them
+    long contentHash = categories.hashCode();
+    for (final MenuItem i : items) {
+      final List<MenuItemImage> images = imagesByItem.getOrDefault(i.id, List.of());
+      final MenuItemResponse r = toResponse(i, categoryNames.get(i.categoryId),
+        images, recipesByItem.getOrDefault(i.id, List.of()), ingredients, units);
+      contentHash = 31L * contentHash + catalogHash(r, images);
+      itemResponses.add(r);
+      byId.put(r.id(), r);
+      if (i.categoryId != null) {
+        byCategory.computeIfAbsent(i.categoryId, k -> new ArrayList<>()).add(r);
+      }
+    }
+
+    final Map<String, List<MenuItemResponse>> frozenByCategory = new HashMap<>();
+    byCategory.forEach((k, v) -> frozenByCategory.put(k, List.copyOf(v)));
+
+    final String etag = Long.toHexString(contentHash) + "-" + Integer.toHexString(categories.size()) + "-" + Integer.toHexString(items.size());
+
+    return new Snapshot(outletId, etag, Instant.now(), categories, List.copyOf(itemResponses),
+      Map.copyOf(frozenByCategory), Map.copyOf(byId));
+  }
+
+  /**
+   * Hash of an item as stored: the response without its resolved image URLs, plus the image rows.
+   */
+  private static int catalogHash(final MenuItemResponse r, final List<MenuItemImage> images) {
+    int h = Objects.hash(r.id(), r.categoryId(), r.categoryName(), r.name(), r.description(), r.isVeg(),
+      r.basePrice(), r.status(), r.recipes());
+    for (final MenuItemImage img : images) {
+      h = 31 * h + Objects.hash(img.id, img.imageUrl, img.sortOrder, img.isPrimary);
+    }
+    return h;
+  }
+
+  private static MenuCategoryResponse toResponse(final MenuCategory c) {
+    return new MenuCategoryResponse(c.id, c.outletId, c.name, c.sortOrder, c.status.name());
+  }
+
+  MenuItemResponse toResponse(
+    final MenuItem i,
+    final String categoryName,
+    final List<MenuItemImage> images,
+    final List<MenuItemRecipe> recipes,
+    final Map<String, Ingredient> ingredients,
+    final Map<String, UnitOfMeasure> units
+  ) {
+    final List<MenuItemImageResponse> imageResponses = images.stream()
+      .map(img -> new MenuItemImageResponse(img.id, imageUploadService.getImageUrl(img.imageUrl), img.sortOrder, img.isPrimary))
+      .toList();
+
+    final List<MenuItemRecipeResponse> recipeResponses = recipes.stream()
+      .map(recipe -> {
+        final Ingredient ingredient = ingredients.get(recipe.ingredientId);
+        final UnitOfMeasure unit = units.get(recipe.unitId);
+        return new MenuItemRecipeResponse(
+          recipe.id,
+          recipe.menuItemId,
+          recipe.ingredientId,
+          ingredient != null ? ingredient.name : null,
+          recipe.unitId,
+          unit != null ? unit.name : null,
+          unit != null ? unit.abbreviation : null,
+          recipe.quantity,
+          recipe.notes,
+          recipe.isOptional,
+          recipe.sortOrder
+        );
+      })
+      .toList();
+
+    return new MenuItemResponse(
+      i.id, i.outletId, i.categoryId, categoryName, i.name, i.description,
+      i.isVeg, i.basePrice, i.status.name(), imageResponses, recipeResponses
+    );
+  }
+}
@@ -0,0 +1,128 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.pos.dto.OrderEvent;
+import com.foodgrid.pos.model.Order;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-process fan-out of order lifecycle events to SSE subscribers.
+ *
+ * Events are only dispatched after the publishing transaction commits. Every dispatched event gets a
+ * monotonically increasing sequence number and is kept in a bounded replay window, so a client that
+ * reconnects with {@code Last-Event-ID} receives what it missed. Each subscriber has a bounded buffer;
+ * a subscriber that cannot keep up is completed and is expected to reconnect with its cursor.
+ */
+@ApplicationScoped
+public class OrderEventBus {
+
+  private static final Logger LOG = Logger.getLogger(OrderEventBus.class);
+
+  @Inject Event<OrderEvent> pending;
+  @Inject OrderMetrics metrics;
+
+  @ConfigProperty(name = "foodgrid.order-events.replay-size", defaultValue = "1024")
+  int replaySize;
+
+  @ConfigProperty(name = "foodgrid.order-events.subscriber-buffer", defaultValue = "256")
+  int subscriberBuffer;
+
+  private final Object lock = new Object();
+  private final ArrayDeque<OrderEvent> replay = new ArrayDeque<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private long seq;
+
+  /**
+   * Queues an event for the order's current state; it is dispatched once the surrounding transaction commits.
+   */
+  public void publish(final Order order, final String type) {
+    pending.fire(OrderEvent.of(order, type));
+  }
+
+  void onCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) final OrderEvent event) {
+    metrics.recordEvent(event);
+    synchronized (lock) {
+      final OrderEvent e = event.withSeq(++seq);
+      replay.addLast(e);
+      while (replay.size() > replaySize) {
+        replay.removeFirst();
+      }
+      for (final Subscriber s : subscribers) {
+        if (s.filter().test(e)) {
+          s.emitter().emit(e);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param filter      selects the events this subscriber may see
+   * @param lastEventId replay cursor from the client, or null for live events only
+   */
+  public Multi<OrderEvent> subscribe(final Predicate<OrderEvent> filter, final Long lastEventId) {
+    return Multi.createFrom().<OrderEvent>emitter(emitter -> {
+        final Subscriber s = new Subscriber(filter, emitter);
+        synchronized (lock) {
+          if (lastEventId != null) {
+            replayTo(s, lastEventId);
+          }
+          subscribers.add(s);
+        }
+        emitter.onTermination(() -> subscribers.remove(s));
+      }, BackPressureStrategy.IGNORE)
+      .onOverflow().buffer(subscriberBuffer)
+      .onFailure(BackPressureFailure.class).invoke(f -> LOG.debug("Dropping slow order event subscriber"))
+      .onFailure(BackPressureFailure.class).recoverWithCompletion();
+  }
+
+  /**
+   * Keeps idle connections open through proxies and lets clients detect a dead stream.
+   */
+  @Scheduled(every = "${foodgrid.order-events.heartbeat-interval:25s}", identity = "order-events-heartbeat")
+  void heartbeat() {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    synchronized (lock) {
+      final OrderEvent hb = OrderEvent.heartbeat(seq);
+      for (final Subscriber s : subscribers) {
+        s.emitter().emit(hb);
+      }
+    }
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  private void replayTo(final Subscriber s, final long lastEventId) {
+    final long oldest = replay.isEmpty() ? seq + 1 : replay.peekFirst().seq();
+    if (lastEventId > seq || lastEventId + 1 < oldest) {
+      // Cursor is from before a restart or older than the window: the client has to refetch.
+      s.emitter().emit(OrderEvent.resync(seq));
+      return;
+    }
+    for (final OrderEvent e : replay) {
+      if (e.seq() > lastEventId && s.filter().test(e)) {
+        s.emitter().emit(e);
+      }
+    }
+  }
+
+  private record Subscriber(Predicate<OrderEvent> filter, MultiEmitter<? super OrderEvent> emitter) {}
+}
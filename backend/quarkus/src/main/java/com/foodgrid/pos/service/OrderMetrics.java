@@ -0,0 +1,93 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.pos.dto.OrderEvent;
+import com.foodgrid.pos.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order lifecycle throughput and stock deduction outcomes.
+ *
+ * Transitions and stock deductions are counted once their transaction commits, so rolled-back changes are not
+ * included. All counters
+ * are registered up front; nothing is registered or recorded when {@code foodgrid.metrics.enabled} is false.
+ */
+@ApplicationScoped
+public class OrderMetrics implements MeterBinder {
+
+  /** Event types that move an order to a new status. */
+  private static final List<String> TRANSITIONS = List.of("ORDER_CREATED", "ORDER_STATUS_CHANGED", "PAYMENT_CAPTURED", "ORDER_DELETED");
+
+  @ConfigProperty(name = "foodgrid.metrics.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @Inject OrderEventBus events;
+
+  private final Map<String, Map<Order.Status, Counter>> transitions = new HashMap<>();
+  private Counter stockDeducted;
+  private Counter stockInsufficient;
+  private volatile boolean bound;
+
+  /** Fired by {@link StockDeductionService}; counted after commit. */
+  public record StockDeducted(int deducted, int insufficient) {}
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    if (!enabled) {
+      return;
+    }
+    for (final String event : TRANSITIONS) {
+      final Map<Order.Status, Counter> byStatus = new EnumMap<>(Order.Status.class);
+      for (final Order.Status status : Order.Status.values()) {
+        byStatus.put(status, Counter.builder("foodgrid.orders.transitions")
+          .description("Committed order events that changed an order's status")
+          .tag("event", event)
+          .tag("status", status.name())
+          .register(registry));
+      }
+      transitions.put(event, byStatus);
+    }
+    stockDeducted = Counter.builder("foodgrid.stock.deductions")
+      .description("Ingredient deductions for served items")
+      .tag("outcome", "deducted")
+      .register(registry);
+    stockInsufficient = Counter.builder("foodgrid.stock.deductions")
+      .description("Ingredient deductions for served items")
+      .tag("outcome", "insufficient")
+      .register(registry);
+    Gauge.builder("foodgrid.order-events.subscribers", events, OrderEventBus::subscriberCount)
+      .description("Open order event streams")
+      .register(registry);
+    bound = true;
+  }
+
+  void recordEvent(final OrderEvent event) {
+    if (!bound || event.status() == null) {
+      return;
+    }
+    final Map<Order.Status, Counter> byStatus = transitions.get(event.type());
+    if (byStatus != null) {
+      byStatus.get(Order.Status.valueOf(event.status())).increment();
+    }
+  }
+
+  void onStockDeducted(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StockDeducted event) {
+    if (!bound) {
+      return;
+    }
+    stockDeducted.increment(event.deducted());
+    stockInsufficient.increment(event.insufficient());
+  }
+}
@@ -1,6 +1,5 @@
 package com.foodgrid.pos.service;
 
-import com.foodgrid.auth.model.Outlet;
 import com.foodgrid.auth.model.ShiftSession;
 import com.foodgrid.auth.repo.OutletRepository;
 import com.foodgrid.auth.repo.ShiftSessionRepository;
@@ -9,15 +8,20 @@ import com.foodgrid.common.exception.*;
 import com.foodgrid.common.idempotency.IdempotencyService;
 import com.foodgrid.common.idempotency.RequestHash;
 import com.foodgrid.common.logging.AppLogger;
+import com.foodgrid.common.multitenancy.OutletTenancy;
+import com.foodgrid.common.multitenancy.OutletTenancyCache;
 import com.foodgrid.common.security.TenantGuards;
 import com.foodgrid.common.util.Ids;
 import com.foodgrid.integration.service.IntegrationService;
 import com.foodgrid.pos.dto.*;
 import com.foodgrid.pos.model.*;
 import com.foodgrid.pos.repo.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.jboss.logging.Logger;
@@ -25,69 +29,106 @@ import org.jboss.logging.Logger;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @ApplicationScoped
 public class OrderPosService {
 
   private static final Logger LOG = Logger.getLogger(OrderPosService.class);
   private static final String OP_PAY = "POS_ORDER_PAY";
+  private static final String OP_CART = "POS_ORDER_CART";
 
   @Inject ShiftSessionRepository sessionRepository;
   @Inject OrderRepository orderRepository;
   @Inject OrderItemRepository orderItemRepository;
   @Inject MenuItemRepository menuItemRepository;
-  @Inject MenuItemImageRepository menuItemImageRepository;
-  @Inject MenuItemRecipeRepository recipeRepository;
   @Inject PaymentRepository paymentRepository;
-  @Inject DiningTableRepository tableRepository;
-  @Inject IngredientService ingredientService;
+  @Inject StockDeductionService stockDeduction;
   @Inject SecurityIdentity identity;
   @Inject TenantGuards guards;
   @Inject IdempotencyService idempotency;
   @Inject AuditLogService audit;
   @Inject JsonWebToken jwt;
   @Inject OutletRepository outletRepository;
+  @Inject OutletTenancyCache outletTenancy;
   @Inject IntegrationService integrationService;
   @Inject AppLogger appLogger;
+  @Inject OrderHydrator hydrator;
+  @Inject OrderEventBus events;
 
   @Transactional
   public OrderResponse create(final OrderCreateRequest req, final String outletIdParam) {
     final String outletId = (outletIdParam != null && !outletIdParam.isBlank()) ? outletIdParam : claimRequired("outletId");
-    guards.requireOutletInTenant(outletId);
+    final OutletTenancy outlet = guards.requireOutletInTenant(outletId);
 
-    // Check if this is admin access (no sessionId in token) or POS access
-    final boolean isAdminAccess = claim("sessionId") == null;
-    final ShiftSession ss = isAdminAccess ? null : activeSession();
+    final Order o = newOrder(outletId, req.orderType(), req.tableId(), req.notes());
+    orderRepository.persist(o);
+    events.publish(o, "ORDER_CREATED");
 
-    final Order o = new Order();
-    o.id = Ids.uuid();
-    o.outletId = outletId;
-    o.tenantId = guards.requireTenant();
-    o.deviceId = isAdminAccess ? "admin-device" : ss.deviceId;
-    o.shiftId = isAdminAccess ? "admin-shift" : ss.shiftId;
-    o.employeeId = isAdminAccess ? "admin" : employeeId();
-    o.customerId = null; // POS orders don't have customerId
-    o.tableId = (req.tableId() == null || req.tableId().isBlank()) ? null : req.tableId();
-    o.orderType = parseOrderType(req.orderType());
-    o.status = Order.Status.OPEN;
-    o.subtotal = moneyZero();
-    o.taxTotal = moneyZero();
-    o.discountTotal = moneyZero();
-    o.grandTotal = moneyZero();
-    o.notes = req.notes();
-    o.createdAt = Instant.now();
-    o.updatedAt = Instant.now();
+    return hydrator.hydrate(o, List.of(), outlet.name());
+  }
 
-    orderRepository.persist(o);
+  /**
+   * Submits a cart in one transaction: creates the order when {@code req.orderId()} is absent, then adds every
+   * line. Menu items are validated with one IN-query and the lines are inserted as one JDBC batch. Retries
+   * carrying the same {@code idempotencyKey} return the order as first submitted.
+   */
+  @Transactional
+  public OrderResponse submitCart(final OrderCartRequest req, final String outletIdParam, final String idempotencyKey) {
+    final boolean creating = req.orderId() == null || req.orderId().isBlank();
+    final String tenantId = guards.requireTenant();
 
-    return toResponse(o, List.of());
+    final OrderAggregate agg;
+    final String requestFingerprint;
+    if (creating) {
+      final String outletId = (outletIdParam != null && !outletIdParam.isBlank()) ? outletIdParam : claimRequired("outletId");
+      final OutletTenancy outlet = guards.requireOutletInTenant(outletId);
+      if (req.orderType() == null || req.orderType().isBlank()) {
+        throw ValidationException.missingField("orderType");
+      }
+
+      requestFingerprint = RequestHash.sha256Hex(outletId + ":" + req);
+      final var replay = idempotency.checkOrReserve(tenantId, OP_CART, idempotencyKey, requestFingerprint);
+      if (replay.isPresent()) {
+        return get(replay.get().resultRef());
+      }
+
+      final Order o = newOrder(outletId, req.orderType(), req.tableId(), req.notes());
+      orderRepository.persist(o);
+      agg = new OrderAggregate(o, outlet, new ArrayList<>());
+    } else {
+      requestFingerprint = RequestHash.sha256Hex(req.orderId() + ":" + req);
+      final var replay = idempotency.checkOrReserve(tenantId, OP_CART, idempotencyKey, requestFingerprint);
+      if (replay.isPresent()) {
+        return get(replay.get().resultRef());
+      }
+
+      agg = loadForUpdate(req.orderId());
+      ensureCanEdit(agg.order());
+    }
+
+    final Order o = agg.order();
+    appLogger.info(LOG, "Submitting cart with %d lines to order %s", req.items().size(), o.id);
+    final List<OrderItem> lines = newLines(o, req.items());
+    orderItemRepository.persist(lines);
+    agg.items().addAll(lines);
+
+    adjustSubtotal(o, lines.stream().map(i -> i.lineTotal).reduce(moneyZero(), BigDecimal::add));
+    idempotency.markCompleted(tenantId, OP_CART, idempotencyKey, requestFingerprint, o.id);
+    events.publish(o, creating ? "ORDER_CREATED" : "ORDER_UPDATED");
+
+    return respond(agg);
   }
 
   @Transactional
   public OrderResponse addItem(final String orderId, final OrderAddItemRequest req) {
     appLogger.info(LOG, "Adding item %s to order %s, qty=%s", req.itemId(), orderId, req.qty());
-    final Order o = getOrderForOutlet(orderId);
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
     ensureCanEdit(o);
 
     if (req.qty().compareTo(BigDecimal.ZERO) <= 0) {
@@ -101,32 +142,24 @@ public class OrderPosService {
       throw BusinessException.menuItemInactive(req.itemId());
     }
 
-    final OrderItem oi = new OrderItem();
-    oi.id = Ids.uuid();
-    oi.orderId = o.id;
-    oi.itemId = mi.id;
-    oi.itemName = mi.name;
-    oi.qty = req.qty();
-    oi.unitPrice = mi.basePrice;
-    oi.lineTotal = money(req.qty().multiply(mi.basePrice));
-    oi.status = OrderItem.Status.OPEN;
-    oi.createdAt = Instant.now();
-
+    final OrderItem oi = newLine(o, mi, req.qty());
     orderItemRepository.persist(oi);
+    agg.items().add(oi);
 
-    recomputeTotals(o);
+    adjustSubtotal(o, oi.lineTotal);
+    events.publish(o, "ORDER_UPDATED");
 
-    return get(orderId);
+    return respond(agg);
   }
 
   @Transactional
   public OrderResponse cancelItem(final String orderId, final String orderItemId) {
     appLogger.info(LOG, "Cancelling item %s from order %s", orderItemId, orderId);
-    final Order o = getOrderForOutlet(orderId);
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
     ensureCanEdit(o);
 
-    final OrderItem oi = orderItemRepository.findByIdAndOrder(orderItemId, o.id)
-      .orElseThrow(() -> ResourceNotFoundException.generic("OrderItem", orderItemId));
+    final OrderItem oi = agg.item(orderItemId);
 
     if (oi.status != OrderItem.Status.OPEN) {
       throw BusinessException.orderNotEditable(orderId, "Item is in " + oi.status + " state");
@@ -135,15 +168,17 @@ public class OrderPosService {
     oi.status = OrderItem.Status.CANCELLED;
     orderItemRepository.persist(oi);
 
-    recomputeTotals(o);
+    adjustSubtotal(o, oi.lineTotal.negate());
+    events.publish(o, "ORDER_UPDATED");
 
-    return get(orderId);
+    return respond(agg);
   }
 
   @Transactional
   public OrderResponse markServed(final String orderId) {
     appLogger.info(LOG, "Marking order %s as served", orderId);
-    final Order o = getOrderForOutlet(orderId);
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
 
     // Business Logic:
     // TAKEAWAY: PAID -> KOT_SENT -> SERVED
@@ -153,7 +188,7 @@ public class OrderPosService {
     }
 
     // Deduct ingredients from stock for all order items
-    deductIngredientsFromStock(o);
+    deductIngredientsFromStock(o, agg.items());
 
     o.status = Order.Status.SERVED;
     o.updatedAt = Instant.now();
@@ -162,38 +197,106 @@ public class OrderPosService {
     integrationService.updateExternalStatus(o, Order.Status.SERVED);
 
     audit.record("ORDER_SERVED", o.outletId, "Order", o.id, "Order marked as served");
+    events.publish(o, "ORDER_STATUS_CHANGED");
 
-    return get(orderId);
+    return respond(agg);
   }
 
   @Transactional
   public OrderResponse updateItemStatus(final String orderId, final String itemId, final String statusVal) {
     appLogger.info(LOG, "Updating item %s status to %s for order %s", itemId, statusVal, orderId);
-    final Order o = getOrderForOutlet(orderId);
-    final OrderItem oi = orderItemRepository.findByIdAndOrder(itemId, o.id)
-      .orElseThrow(() -> ResourceNotFoundException.generic("OrderItem", itemId));
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
+    final OrderItem oi = agg.item(itemId);
 
     try {
       final OrderItem.Status newStatus = OrderItem.Status.valueOf(statusVal.toUpperCase());
 
       if (newStatus == OrderItem.Status.SERVED && oi.status != OrderItem.Status.SERVED) {
-        deductItemIngredients(o.outletId, o.id, oi);
+        stockDeduction.deductForItems(o.outletId, o.id, List.of(oi));
       }
 
       oi.status = newStatus;
       orderItemRepository.persist(oi);
 
       // Auto-update order status if all items are served
-      updateOrderStatusFromItems(o);
+      updateOrderStatusFromItems(o, agg.items());
+      events.publish(o, "ORDER_ITEM_STATUS_CHANGED");
 
-      return get(orderId);
+      return respond(agg);
     } catch (final IllegalArgumentException e) {
       throw ValidationException.invalidStatus(statusVal, "OPEN, PREPARING, SERVED, CANCELLED");
     }
   }
 
-  private void updateOrderStatusFromItems(final Order o) {
-    final List<OrderItem> items = orderItemRepository.listByOrder(o.id);
+  private Order newOrder(final String outletId, final String orderType, final String tableId, final String notes) {
+    // Check if this is admin access (no sessionId in token) or POS access
+    final boolean isAdminAccess = claim("sessionId") == null;
+    final ShiftSession ss = isAdminAccess ? null : activeSession();
+
+    final Order o = new Order();
+    o.id = Ids.uuid();
+    o.outletId = outletId;
+    o.tenantId = guards.requireTenant();
+    o.deviceId = isAdminAccess ? "admin-device" : ss.deviceId;
+    o.shiftId = isAdminAccess ? "admin-shift" : ss.shiftId;
+    o.employeeId = isAdminAccess ? "admin" : employeeId();
+    o.customerId = null; // POS orders don't have customerId
+    o.tableId = (tableId == null || tableId.isBlank()) ? null : tableId;
+    o.orderType = parseOrderType(orderType);
+    o.status = Order.Status.OPEN;
+    o.subtotal = moneyZero();
+    o.taxTotal = moneyZero();
+    o.discountTotal = moneyZero();
+    o.grandTotal = moneyZero();
+    o.notes = notes;
+    o.createdAt = Instant.now();
+    o.updatedAt = Instant.now();
+    return o;
+  }
+
+  /**
+   * Validates all requested lines against the outlet's menu with one query before building any of them.
+   */
+  private List<OrderItem> newLines(final Order o, final List<OrderAddItemRequest> requests) {
+    final Set<String> itemIds = new LinkedHashSet<>();
+    for (final OrderAddItemRequest r : requests) {
+      if (r.qty().compareTo(BigDecimal.ZERO) <= 0) {
+        throw ValidationException.invalidQuantity();
+      }
+      itemIds.add(r.itemId());
+    }
+
+    final Map<String, MenuItem> menuItems = menuItemRepository.mapByIdsAndOutlet(itemIds, o.outletId);
+    final List<OrderItem> lines = new ArrayList<>(requests.size());
+    for (final OrderAddItemRequest r : requests) {
+      final MenuItem mi = menuItems.get(r.itemId());
+      if (mi == null) {
+        throw ResourceNotFoundException.menuItem(r.itemId());
+      }
+      if (mi.status != MenuItem.Status.ACTIVE) {
+        throw BusinessException.menuItemInactive(r.itemId());
+      }
+      lines.add(newLine(o, mi, r.qty()));
+    }
+    return lines;
+  }
+
+  private static OrderItem newLine(final Order o, final MenuItem mi, final BigDecimal qty) {
+    final OrderItem oi = new OrderItem();
+    oi.id = Ids.uuid();
+    oi.orderId = o.id;
+    oi.itemId = mi.id;
+    oi.itemName = mi.name;
+    oi.qty = qty;
+    oi.unitPrice = mi.basePrice;
+    oi.lineTotal = money(qty.multiply(mi.basePrice));
+    oi.status = OrderItem.Status.OPEN;
+    oi.createdAt = Instant.now();
+    return oi;
+  }
+
+  private void updateOrderStatusFromItems(final Order o, final List<OrderItem> items) {
     final boolean allServedOrCancelled = items.stream()
       .allMatch(i -> i.status == OrderItem.Status.SERVED || i.status == OrderItem.Status.CANCELLED);
     
@@ -207,61 +310,18 @@ public class OrderPosService {
     }
   }
 
-  private void deductIngredientsFromStock(final Order order) {
-    final List<OrderItem> orderItems = orderItemRepository.listByOrder(order.id);
-    for (final OrderItem orderItem : orderItems) {
-      if (orderItem.status == OrderItem.Status.OPEN) {
-        deductItemIngredients(order.outletId, order.id, orderItem);
-      }
-    }
+  private void deductIngredientsFromStock(final Order order, final List<OrderItem> items) {
+    final List<OrderItem> openItems = items.stream()
+      .filter(i -> i.status == OrderItem.Status.OPEN)
+      .toList();
+    stockDeduction.deductForItems(order.outletId, order.id, openItems);
   }
 
-  private void deductItemIngredients(final String outletId, final String orderId, final OrderItem orderItem) {
-    // Get recipe for this menu item
-    final List<MenuItemRecipe> recipes = recipeRepository.findByMenuItemId(orderItem.itemId);
-    
-    for (final MenuItemRecipe recipe : recipes) {
-      // Skip optional ingredients
-      if (Boolean.TRUE.equals(recipe.isOptional)) {
-        continue;
-      }
-
-      // Calculate total quantity needed (recipe quantity * order item quantity)
-      final BigDecimal totalQuantity = recipe.quantity.multiply(orderItem.qty);
-      
-      // Get ingredient to check if it tracks inventory
-      final Ingredient ingredient = Ingredient.findById(recipe.ingredientId);
-      if (ingredient == null || !Boolean.TRUE.equals(ingredient.trackInventory)) {
-        continue; // Skip ingredients that don't track inventory
-      }
-
-      // Create stock movement for usage
-      try {
-        final StockMovementCreateRequest stockMovementRequest = new StockMovementCreateRequest(
-          recipe.ingredientId,
-          com.foodgrid.pos.model.StockMovement.MovementType.USAGE,
-          totalQuantity,
-          recipe.unitId,
-          null, // unitCost
-          null, // supplierId
-          null, // purchaseOrderNumber
-          null, // invoiceNumber
-          null, // wastageReason
-          "Order #" + orderId + " - " + orderItem.itemName // notes
-        );
-        
-        ingredientService.recordStockMovement(outletId, stockMovementRequest);
-      } catch (final Exception e) {
-        // Log error but continue with other ingredients
-        audit.record("STOCK_DEDUCTION_FAILED", outletId, "Order", orderId, 
-          "Failed to deduct ingredient " + recipe.ingredientId + ": " + e.getMessage());
-      }
-    }
-  }
   @Transactional
   public OrderResponse bill(final String orderId) {
     appLogger.info(LOG, "Billing order %s", orderId);
-    final Order o = getOrderForOutlet(orderId);
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
 
     // TAKEAWAY: OPEN -> BILLED
     // DINE_IN: SERVED -> BILLED
@@ -279,14 +339,16 @@ public class OrderPosService {
       }
     }
 
-    recomputeTotals(o);
+    // Full recompute at billing, from the items already loaded
+    recomputeTotals(o, agg.items());
     o.status = Order.Status.BILLED;
     o.updatedAt = Instant.now();
     orderRepository.persist(o);
 
     integrationService.updateExternalStatus(o, Order.Status.BILLED);
+    events.publish(o, "ORDER_STATUS_CHANGED");
 
-    return get(orderId);
+    return respond(agg);
   }
 
   @Transactional
@@ -295,7 +357,8 @@ public class OrderPosService {
       throw ValidationException.missingField("status");
     }
 
-    final Order o = getOrderForOutlet(orderId);
+    final OrderAggregate agg = loadForUpdate(orderId);
+    final Order o = agg.order();
     statusVal = statusVal.trim().toUpperCase();
 
     try {
@@ -322,7 +385,7 @@ public class OrderPosService {
 
       // Basic transitions validation
       if (newStatus == Order.Status.SERVED && o.status != Order.Status.SERVED) {
-        deductIngredientsFromStock(o);
+        deductIngredientsFromStock(o, agg.items());
       }
 
       o.status = newStatus;
@@ -332,8 +395,9 @@ public class OrderPosService {
       integrationService.updateExternalStatus(o, newStatus);
 
       audit.record("ORDER_STATUS_UPDATED", o.outletId, "Order", o.id, "Status changed to " + statusVal);
+      events.publish(o, "ORDER_STATUS_CHANGED");
 
-      return get(orderId);
+      return respond(agg);
     } catch (final IllegalArgumentException e) {
       throw ValidationException.invalidStatus(statusVal, "OPEN, KOT_SENT, SERVED, BILLED, PAID, CANCELLED");
     }
@@ -413,59 +477,49 @@ public class OrderPosService {
       orderRepository.persist(o);
       integrationService.updateExternalStatus(o, Order.Status.PAID);
     }
+    events.publish(o, "PAYMENT_CAPTURED");
 
     return new PaymentResponse(p.id, p.orderId, p.method.name(), p.amount, p.status.name());
   }
 
   public OrderResponse get(final String orderId) {
     final Order o = getOrderForOutlet(orderId);
-    final List<OrderItemResponse> items = orderItemRepository.listByOrder(o.id).stream()
-      .map(this::toResponse)
-      .toList();
-    return toResponse(o, items);
+    return hydrator.hydrate(o);
   }
 
   public List<OrderResponse> listRecent(final Integer limit, final String outletIdParam) {
     final String outletId = (outletIdParam != null && !outletIdParam.isBlank()) ? outletIdParam : claimRequired("outletId");
-    final Outlet outlet = guards.requireOutletInTenant(outletId);
+    final OutletTenancy outlet = guards.requireOutletInTenant(outletId);
 
-    // Auto-migration: If outlet has no clientId but user accessing it does,
-    // and this user is the owner, or part of the same client admin group.
-    final String cid = claim("clientId");
-    if (outlet.clientId == null && cid != null && !cid.isBlank()) {
-        final String sub = claim("sub");
-        if (sub != null && sub.equals(outlet.ownerId)) {
-            outlet.clientId = cid;
-            outletRepository.persist(outlet);
-            audit.record("OUTLET_CLIENT_MIGRATED", outletId, "Outlet", outletId, "Migrated to clientId: " + cid);
-        }
+    if (migrateOutletClient(outlet)) {
+      audit.record("OUTLET_CLIENT_MIGRATED", outletId, "Outlet", outletId, "Migrated to clientId: " + claim("clientId"));
     }
 
     final int lim = (limit == null || limit <= 0 || limit > 200) ? 50 : limit;
 
-    return orderRepository.listRecentByOutlet(outletId, lim).stream()
-      .map(o -> toResponse(o, orderItemRepository.listByOrder(o.id).stream().map(this::toResponse).toList()))
-      .toList();
+    return hydrator.hydrate(orderRepository.listRecentByOutlet(outletId, lim));
   }
 
   public List<OrderResponse> listByRange(final String outletIdParam, final Instant start, final Instant end) {
     final String outletId = (outletIdParam != null && !outletIdParam.isBlank()) ? outletIdParam : claimRequired("outletId");
-    final Outlet outlet = guards.requireOutletInTenant(outletId);
+    final OutletTenancy outlet = guards.requireOutletInTenant(outletId);
+    migrateOutletClient(outlet);
 
-    // Auto-migration: If outlet has no clientId but user accessing it does,
-    // and this user is the owner.
-    final String cid = claim("clientId");
-    if (outlet.clientId == null && cid != null && !cid.isBlank()) {
-        final String sub = claim("sub");
-        if (sub != null && sub.equals(outlet.ownerId)) {
-            outlet.clientId = cid;
-            outletRepository.persist(outlet);
-        }
-    }
+    return hydrator.hydrate(orderRepository.listByOutletAndDateRange(outletId, start, end));
+  }
 
-    return orderRepository.listByOutletAndDateRange(outletId, start, end).stream()
-      .map(o -> toResponse(o, orderItemRepository.listByOrder(o.id).stream().map(this::toResponse).toList()))
-      .toList();
+  /**
+   * Live order events for one outlet, optionally resuming after {@code lastEventId}.
+   */
+  public Multi<OrderEvent> streamForOutlet(final String outletIdParam, final Long lastEventId) {
+    final String outletId = (outletIdParam != null && !outletIdParam.isBlank()) ? outletIdParam : claimRequired("outletId");
+    guards.requireOutletInTenant(outletId);
+    return events.subscribe(e -> outletId.equals(e.outletId()) || e.isHeartbeat(), lastEventId);
+  }
+
+  public Multi<OrderEvent> streamForOrder(final String orderId, final Long lastEventId) {
+    final Order o = getOrderForOutlet(orderId);
+    return events.subscribe(e -> o.id.equals(e.orderId()) || e.isHeartbeat(), lastEventId);
   }
 
   @Transactional
@@ -488,11 +542,17 @@ public class OrderPosService {
     orderRepository.delete(o);
 
     audit.record("ORDER_DELETED", o.outletId, "Order", o.id, "Order deleted");
+    events.publish(o, "ORDER_DELETED");
   }
 
-  private void recomputeTotals(final Order o) {
-    final List<OrderItem> items = orderItemRepository.listByOrder(o.id);
+  private void recomputeTotals(final Order o, final List<OrderItem> items) {
+    applyTotals(o, items);
+    o.updatedAt = Instant.now();
+    orderRepository.persist(o);
+  }
 
+  /** Totals arithmetic of {@link #recomputeTotals}, kept free of persistence for the benchmarks module. */
+  static void applyTotals(final Order o, final List<OrderItem> items) {
     final BigDecimal subtotal = items.stream()
       .filter(i -> i.status != OrderItem.Status.CANCELLED)
       .map(i -> i.lineTotal)
@@ -502,22 +562,89 @@ public class OrderPosService {
     if (o.taxTotal == null) o.taxTotal = moneyZero();
     if (o.discountTotal == null) o.discountTotal = moneyZero();
 
+    o.grandTotal = money(o.subtotal.add(o.taxTotal).subtract(o.discountTotal));
+  }
+
+  /**
+   * Applies a line-total change to the subtotal and grand total. Callers hold the order row lock
+   * (see {@link #loadForUpdate}), so concurrent edits cannot lose an update.
+   */
+  private void adjustSubtotal(final Order o, final BigDecimal delta) {
+    o.subtotal = money((o.subtotal == null ? moneyZero() : o.subtotal).add(delta));
+    if (o.taxTotal == null) o.taxTotal = moneyZero();
+    if (o.discountTotal == null) o.discountTotal = moneyZero();
+
     o.grandTotal = money(o.subtotal.add(o.taxTotal).subtract(o.discountTotal));
     o.updatedAt = Instant.now();
     orderRepository.persist(o);
   }
 
+  /**
+   * Auto-migration: if the outlet has no clientId but the user accessing it has one and owns the outlet,
+   * assign the outlet to that client. The entity is only loaded when a migration is due.
+   */
+  private boolean migrateOutletClient(final OutletTenancy outlet) {
+    final String cid = claim("clientId");
+    if (outlet.clientId() != null || cid == null || cid.isBlank()) {
+      return false;
+    }
+    final String sub = claim("sub");
+    if (sub == null || !sub.equals(outlet.ownerId())) {
+      return false;
+    }
+    QuarkusTransaction.joiningExisting().run(() -> {
+      outletRepository.findByIdOptional(outlet.outletId()).ifPresent(o -> {
+        o.clientId = cid;
+        outletRepository.persist(o);
+      });
+      outletTenancy.invalidate(outlet.outletId());
+    });
+    return true;
+  }
+
   private void ensureCanEdit(final Order o) {
     if (o.status == Order.Status.PAID || o.status == Order.Status.CANCELLED) {
       throw BusinessException.orderNotEditable(o.id, o.status.name());
     }
   }
 
+  /**
+   * An order with its outlet and items, loaded once per mutation and kept current by it, so the response is
+   * built without reloading anything.
+   */
+  private record OrderAggregate(Order order, OutletTenancy outlet, List<OrderItem> items) {
+    OrderItem item(final String orderItemId) {
+      return items.stream()
+        .filter(i -> i.id.equals(orderItemId))
+        .findFirst()
+        .orElseThrow(() -> ResourceNotFoundException.generic("OrderItem", orderItemId));
+    }
+  }
+
+  /**
+   * Loads an order for a mutation: the order row is locked for the rest of the transaction and its items are
+   * read once, in response order.
+   */
+  private OrderAggregate loadForUpdate(final String orderId) {
+    final Order o = orderRepository.findByIdOptional(orderId, LockModeType.PESSIMISTIC_WRITE)
+      .orElseThrow(() -> ResourceNotFoundException.order(orderId));
+    final OutletTenancy outlet = checkOrderTenancy(o);
+    return new OrderAggregate(o, outlet, new ArrayList<>(orderItemRepository.listByOrderIds(List.of(o.id))));
+  }
+
+  private OrderResponse respond(final OrderAggregate agg) {
+    return hydrator.hydrate(agg.order(), agg.items(), agg.outlet().name());
+  }
+
   private Order getOrderForOutlet(final String orderId) {
     // First, fetch the order by ID (works for both POS and Admin users)
     final Order o = orderRepository.findByIdOptional(orderId)
       .orElseThrow(() -> ResourceNotFoundException.order(orderId));
+    checkOrderTenancy(o);
+    return o;
+  }
 
+  private OutletTenancy checkOrderTenancy(final Order o) {
     // Get outletId from the order itself (not from JWT claims)
     // This allows Client Admin users to work with orders even if they don't have outletId in their JWT
     final String outletId = o.outletId;
@@ -526,7 +653,7 @@ public class OrderPosService {
     }
 
     // Validate that the outlet belongs to the tenant
-    final Outlet outlet = guards.requireOutletInTenant(outletId);
+    final OutletTenancy outlet = guards.requireOutletInTenant(outletId);
 
     // Defensive tenant check
     final String tenantId = guards.requireTenant();
@@ -534,17 +661,17 @@ public class OrderPosService {
       // Allow it if it matches the outlet's ownerId (migration case)
       // This handles cases where orders were created when tenantId was resolved as ownerId, 
       // but now it's resolved as clientId.
-      if (o.tenantId.equals(outlet.ownerId)) {
+      if (o.tenantId.equals(outlet.ownerId())) {
           // Auto-migrate order tenantId to current tenantId if possible
           o.tenantId = tenantId;
           orderRepository.persist(o);
-          appLogger.info(LOG, "Auto-migrated order %s tenantId from %s (ownerId) to %s (clientId)", o.id, outlet.ownerId, tenantId);
+          appLogger.info(LOG, "Auto-migrated order %s tenantId from %s (ownerId) to %s (clientId)", o.id, outlet.ownerId(), tenantId);
       } else {
           throw AuthorizationException.tenantMismatch();
       }
     }
 
-    return o;
+    return outlet;
   }
 
   private ShiftSession activeSession() {
@@ -603,58 +730,12 @@ public class OrderPosService {
     }
   }
 
-  private static BigDecimal moneyZero() {
+  static BigDecimal moneyZero() {
     return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
   }
 
-  private static BigDecimal money(final BigDecimal v) {
+  static BigDecimal money(final BigDecimal v) {
     if (v == null) return moneyZero();
     return v.setScale(2, RoundingMode.HALF_UP);
   }
-
-  private OrderItemResponse toResponse(final OrderItem i) {
-    final String imageUrl = menuItemImageRepository.listByMenuItem(i.itemId).stream()
-      .filter(img -> img.isPrimary)
-      .findFirst()
-      .or(() -> menuItemImageRepository.listByMenuItem(i.itemId).stream().findFirst())
-      .map(img -> img.imageUrl)
-      .orElse(null);
-
-    return new OrderItemResponse(i.id, i.itemId, i.itemName, i.qty, i.unitPrice, i.lineTotal, i.status.name(), imageUrl);
-  }
-
-  private OrderResponse toResponse(final Order o, final List<OrderItemResponse> items) {
-    final String outletName = outletRepository.findByIdOptional(o.outletId)
-        .map(outlet -> outlet.name)
-        .orElse("Unknown Store");
-
-    String tableName = null;
-    if (o.tableId != null && !o.tableId.isBlank()) {
-        tableName = tableRepository.findByIdOptional(o.tableId)
-            .map(t -> t.displayName != null ? t.displayName : t.tableCode)
-            .orElse(null);
-    }
-
-    return new OrderResponse(
-      o.id,
-      o.outletId,
-      o.deviceId,
-      o.shiftId,
-      o.employeeId,
-      o.tableId,
-      tableName,
-      o.orderType.name(),
-      o.status.name(),
-      o.subtotal,
-      o.taxTotal,
-      o.discountTotal,
-      o.grandTotal,
-      o.notes,
-      o.createdAt,
-      outletName,
-      o.sourceChannel != null ? o.sourceChannel.name() : "FOODGRID",
-      o.externalOrderId,
-      items
-    );
-  }
 }
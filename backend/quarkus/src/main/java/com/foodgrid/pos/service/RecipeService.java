@@ -30,6 +30,7 @@ public class RecipeService {
   @Inject IngredientRepository ingredientRepository;
   @Inject UnitOfMeasureRepository unitRepository;
   @Inject SecurityIdentity identity;
+  @Inject MenuCatalogCache menuCache;
 
   public List<MenuItemRecipeResponse> getRecipes(String outletId, String menuItemId) {
     enforceOutlet(outletId);
@@ -47,6 +48,7 @@ public class RecipeService {
   @Transactional
   public MenuItemRecipeResponse createRecipe(String outletId, String menuItemId, MenuItemRecipeUpsertRequest request) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     menuItemRepository.findByIdAndOutlet(menuItemId, outletId)
       .orElseThrow(() -> new NotFoundException("Menu item not found"));
@@ -81,6 +83,7 @@ public class RecipeService {
   @Transactional
   public MenuItemRecipeResponse updateRecipe(String outletId, String menuItemId, String recipeId, MenuItemRecipeUpsertRequest request) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     menuItemRepository.findByIdAndOutlet(menuItemId, outletId)
       .orElseThrow(() -> new NotFoundException("Menu item not found"));
@@ -121,6 +124,7 @@ public class RecipeService {
   @Transactional
   public void deleteRecipe(String outletId, String menuItemId, String recipeId) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     menuItemRepository.findByIdAndOutlet(menuItemId, outletId)
       .orElseThrow(() -> new NotFoundException("Menu item not found"));
@@ -138,6 +142,7 @@ public class RecipeService {
   @Transactional
   public void deleteAllRecipes(String outletId, String menuItemId) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     menuItemRepository.findByIdAndOutlet(menuItemId, outletId)
       .orElseThrow(() -> new NotFoundException("Menu item not found"));
@@ -148,6 +153,7 @@ public class RecipeService {
   @Transactional
   public List<MenuItemRecipeResponse> upsertRecipes(String outletId, String menuItemId, List<MenuItemRecipeUpsertRequest> requests) {
     enforceOutlet(outletId);
+    menuCache.invalidate(outletId);
     
     menuItemRepository.findByIdAndOutlet(menuItemId, outletId)
       .orElseThrow(() -> new NotFoundException("Menu item not found"));
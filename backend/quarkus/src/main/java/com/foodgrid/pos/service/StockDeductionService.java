@@ -0,0 +1,137 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.common.audit.AuditLogService;
+import com.foodgrid.pos.model.Ingredient;
+import com.foodgrid.pos.model.MenuItemRecipe;
+import com.foodgrid.pos.model.OrderItem;
+import com.foodgrid.pos.model.StockMovement;
+import com.foodgrid.pos.repo.IngredientRepository;
+import com.foodgrid.pos.repo.MenuItemRecipeRepository;
+import com.foodgrid.pos.repo.StockMovementRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Deducts the ingredients consumed by served order items.
+ *
+ * All recipes of the items are exploded at once and quantities are summed per ingredient, so serving an
+ * order costs a fixed number of statements: one recipe query, one ingredient query, one batched stock update,
+ * one stock read-back and a batch of movement inserts. Ingredients without enough stock are skipped and
+ * audited rather than failing the serve.
+ */
+@ApplicationScoped
+public class StockDeductionService {
+
+  private static final int NOTES_MAX_ITEMS = 10;
+
+  @Inject MenuItemRecipeRepository recipeRepository;
+  @Inject IngredientRepository ingredientRepository;
+  @Inject StockMovementRepository stockMovementRepository;
+  @Inject AuditLogService audit;
+  @Inject Event<OrderMetrics.StockDeducted> deductions;
+
+  public void deductForItems(final String outletId, final String orderId, final List<OrderItem> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+
+    final Set<String> menuItemIds = new LinkedHashSet<>();
+    for (final OrderItem i : items) {
+      menuItemIds.add(i.itemId);
+    }
+    final Map<String, List<MenuItemRecipe>> recipesByMenuItem = new HashMap<>();
+    final Set<String> ingredientIds = new LinkedHashSet<>();
+    for (final MenuItemRecipe r : recipeRepository.listByMenuItemIds(menuItemIds)) {
+      // Skip optional ingredients
+      if (Boolean.TRUE.equals(r.isOptional)) {
+        continue;
+      }
+      recipesByMenuItem.computeIfAbsent(r.menuItemId, k -> new ArrayList<>()).add(r);
+      ingredientIds.add(r.ingredientId);
+    }
+    if (ingredientIds.isEmpty()) {
+      return;
+    }
+
+    // Only ingredients that track inventory are deducted
+    final Set<String> tracked = new LinkedHashSet<>();
+    for (final Ingredient ingredient : ingredientRepository.listTrackedByIds(outletId, ingredientIds)) {
+      tracked.add(ingredient.id);
+    }
+
+    // Sorted by id so concurrent serves lock ingredient rows in the same order
+    final Map<String, Usage> usages = new TreeMap<>();
+    for (final OrderItem item : items) {
+      for (final MenuItemRecipe recipe : recipesByMenuItem.getOrDefault(item.itemId, List.of())) {
+        if (!tracked.contains(recipe.ingredientId)) {
+          continue;
+        }
+        final Usage u = usages.computeIfAbsent(recipe.ingredientId, k -> new Usage(recipe.unitId));
+        u.quantity = u.quantity.add(recipe.quantity.multiply(item.qty));
+        u.itemNames.add(item.itemName);
+      }
+    }
+    if (usages.isEmpty()) {
+      return;
+    }
+
+    final Map<String, BigDecimal> quantities = new TreeMap<>();
+    usages.forEach((id, u) -> quantities.put(id, u.quantity));
+    final Set<String> insufficient = ingredientRepository.deductStockBatch(outletId, quantities);
+    final Map<String, BigDecimal> stocks = ingredientRepository.findCurrentStocks(outletId, quantities.keySet());
+    deductions.fire(new OrderMetrics.StockDeducted(usages.size() - insufficient.size(), insufficient.size()));
+
+    for (final Map.Entry<String, Usage> e : usages.entrySet()) {
+      final String ingredientId = e.getKey();
+      final Usage u = e.getValue();
+      if (insufficient.contains(ingredientId)) {
+        audit.record("STOCK_DEDUCTION_FAILED", outletId, "Order", orderId,
+          "Failed to deduct ingredient " + ingredientId + ": Insufficient stock. Current stock: " + stocks.get(ingredientId));
+        continue;
+      }
+
+      final BigDecimal stockAfter = stocks.getOrDefault(ingredientId, BigDecimal.ZERO);
+      final StockMovement movement = new StockMovement();
+      movement.id = UUID.randomUUID().toString();
+      movement.outletId = outletId;
+      movement.ingredientId = ingredientId;
+      movement.movementType = StockMovement.MovementType.USAGE;
+      movement.quantity = u.quantity;
+      movement.unitId = u.unitId;
+      movement.referenceType = "ORDER";
+      movement.referenceId = orderId;
+      movement.stockBefore = stockAfter.add(u.quantity);
+      movement.stockAfter = stockAfter;
+      movement.notes = notes(orderId, u.itemNames);
+      stockMovementRepository.persist(movement);
+    }
+  }
+
+  private static String notes(final String orderId, final Set<String> itemNames) {
+    final List<String> names = new ArrayList<>(itemNames);
+    final String shown = String.join(", ", names.subList(0, Math.min(names.size(), NOTES_MAX_ITEMS)));
+    final String more = names.size() > NOTES_MAX_ITEMS ? " and " + (names.size() - NOTES_MAX_ITEMS) + " more" : "";
+    return "Order #" + orderId + " - " + shown + more;
+  }
+
+  private static final class Usage {
+    private final String unitId;
+    private final Set<String> itemNames = new LinkedHashSet<>();
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    private Usage(final String unitId) {
+      this.unitId = unitId;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.foodgrid.admin.service;
+
+import com.foodgrid.admin.dto.analytics.GlobalAnalyticsResponse;
+import com.foodgrid.admin.model.Client;
+import com.foodgrid.auth.model.Outlet;
+import com.foodgrid.common.sql.SqlStatements;
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.testsupport.Fixtures;
+import com.foodgrid.testsupport.RequiresDatabase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds about 20k orders and checks the dashboard figures, which must be aggregated in SQL: the entities loaded
+ * while computing them are the few recent tenants, not the orders.
+ */
+@QuarkusTest
+@RequiresDatabase
+@TestProfile(GlobalAnalyticsServiceTest.Uncached.class)
+class GlobalAnalyticsServiceTest {
+
+    private static final int CLIENTS = 6;
+    private static final int ORDERS_PER_MONTH = 275;
+    private static final int ROWS_PER_INSERT = 500;
+
+    /** Every 10th order is cancelled and must not count. */
+    private static final int COUNTED_PER_MONTH = ORDERS_PER_MONTH - (ORDERS_PER_MONTH + 9) / 10;
+
+    public static class Uncached implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("foodgrid.analytics.global.cache-ttl", "0s");
+        }
+    }
+
+    @Inject GlobalAnalyticsService service;
+    @Inject EntityManager em;
+
+    @Test
+    void aggregatesLargeOrderVolumeInTheDatabase() {
+        final GlobalAnalyticsResponse before = service.getGlobalStats();
+        final List<Client> clients = seed();
+
+        final var counted = SqlStatements.count(service::getGlobalStats);
+        final GlobalAnalyticsResponse after = counted.result();
+
+        // Client k sells at 100 * (k + 1), so per month: 100 * (1 + ... + CLIENTS) * COUNTED_PER_MONTH
+        final double perMonth = 100.0 * CLIENTS * (CLIENTS + 1) / 2 * COUNTED_PER_MONTH;
+        assertEquals(CLIENTS, after.totalTenants() - before.totalTenants());
+        assertEquals(CLIENTS, after.totalOutlets() - before.totalOutlets());
+        assertEquals(12 * perMonth, after.totalRevenue() - before.totalRevenue(), 0.001);
+
+        assertEquals(12, after.revenueByMonth().size());
+        for (int m = 0; m < 12; m++) {
+            assertEquals(before.revenueByMonth().get(m).month(), after.revenueByMonth().get(m).month());
+            assertEquals(perMonth, after.revenueByMonth().get(m).amount() - before.revenueByMonth().get(m).amount(), 0.001,
+                after.revenueByMonth().get(m).month());
+        }
+
+        assertEquals(5, after.topTenantsByRevenue().size());
+        for (int rank = 0; rank < 5; rank++) {
+            final Client expected = clients.get(CLIENTS - 1 - rank);
+            final GlobalAnalyticsResponse.TenantRevenueMetric top = after.topTenantsByRevenue().get(rank);
+            assertEquals(expected.id, top.clientId());
+            assertEquals(12.0 * COUNTED_PER_MONTH * 100 * (CLIENTS - rank), top.amount(), 0.001);
+        }
+
+        // At most the five recent tenants and their admin users / payment configs
+        assertTrue(counted.entityLoads() <= 15, "loaded " + counted.entityLoads() + " entities");
+    }
+
+    private List<Client> seed() {
+        final List<Client> clients = new ArrayList<>(CLIENTS);
+        final List<Outlet> outlets = new ArrayList<>(CLIENTS);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int k = 0; k < CLIENTS; k++) {
+                final Client c = new Client();
+                c.id = Ids.uuid();
+                c.name = "Analytics tenant " + k + " " + c.id;
+                c.createdAt = new Date();
+                c.updatedAt = c.createdAt;
+                c.persist();
+                clients.add(c);
+
+                final Outlet o = Fixtures.outlet(c.id);
+                o.persist();
+                outlets.add(o);
+            }
+        });
+
+        // Mid-month, so the month buckets do not depend on the database time zone
+        final ZoneId zone = ZoneId.systemDefault();
+        final YearMonth firstMonth = YearMonth.now(zone).minusMonths(11);
+        final List<Object[]> rows = new ArrayList<>(ROWS_PER_INSERT);
+        for (int k = 0; k < CLIENTS; k++) {
+            final BigDecimal amount = BigDecimal.valueOf(100L * (k + 1)).setScale(2);
+            for (int m = 0; m < 12; m++) {
+                final Instant createdAt = firstMonth.plusMonths(m).atDay(15).atTime(LocalTime.NOON).atZone(zone).toInstant();
+                for (int i = 0; i < ORDERS_PER_MONTH; i++) {
+                    rows.add(new Object[] {outlets.get(k).id, clients.get(k).id, i % 10 == 0 ? "CANCELLED" : "PAID", amount, createdAt});
+                    if (rows.size() == ROWS_PER_INSERT) {
+                        insertOrders(rows);
+                        rows.clear();
+                    }
+                }
+            }
+        }
+        insertOrders(rows);
+        return clients;
+    }
+
+    private void insertOrders(final List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final StringBuilder sql = new StringBuilder("insert into orders (id, outlet_id, tenant_id, order_type, status, " +
+            "subtotal, tax_total, discount_total, grand_total, created_at, updated_at, source_channel) values ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, 'TAKEAWAY', ?, ?, 0, 0, ?, ?, ?, 'FOODGRID')");
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            final Query insert = em.createNativeQuery(sql.toString());
+            int p = 1;
+            for (final Object[] r : rows) {
+                insert.setParameter(p++, Ids.uuid());
+                insert.setParameter(p++, r[0]);
+                insert.setParameter(p++, r[1]);
+                insert.setParameter(p++, r[2]);
+                insert.setParameter(p++, r[3]);
+                insert.setParameter(p++, r[3]);
+                insert.setParameter(p++, r[4]);
+                insert.setParameter(p++, r[4]);
+            }
+            insert.executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.foodgrid.common.sql;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares, and the entities it loads, for a piece of work, the way
+ * {@link SqlStatsFilter} counts them per REST request. Needs an active request context, which {@code @QuarkusTest} methods have.
+ */
+public final class SqlStatements {
+
+  private SqlStatements() {
+  }
+
+  public static int count(final Runnable work) {
+    return count(() -> {
+      work.run();
+      return null;
+    }).statements();
+  }
+
+  public static <T> Counted<T> count(final Supplier<T> work) {
+    final SqlRequestStats stats = SqlRequestStats.begin();
+    try {
+      final T result = work.get();
+      return new Counted<>(result, stats.statements(), stats.entityLoads());
+    } finally {
+      SqlRequestStats.end(stats);
+    }
+  }
+
+  public record Counted<T>(T result, int statements, int entityLoads) {
+  }
+}
@@ -0,0 +1,75 @@
+package com.foodgrid.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncryptionUtilTest {
+
+  private static final String LEGACY_PROPERTY = "foodgrid.encryption.keys.legacy";
+
+  @AfterEach
+  void clearLegacyKey() {
+    System.clearProperty(LEGACY_PROPERTY);
+  }
+
+  @Test
+  void readsCiphertextsWithAndWithoutKeyId() {
+    final EncryptionUtil util = util("master-key", "k1");
+    final String current = util.encrypt("rzp_secret");
+
+    assertTrue(current.startsWith("k1:"));
+    assertEquals("rzp_secret", util.decrypt(current));
+    assertEquals("rzp_secret", util.decrypt(withoutKeyId(current)));
+  }
+
+  @Test
+  void readsUnlabelledCiphertextsOfTheLegacyAndTheActiveKey() {
+    final String legacy = withoutKeyId(util("old-master-key", "k0").encrypt("written before rotation"));
+    final String unlabelledActive = withoutKeyId(util("master-key", "k0").encrypt("written after rotation"));
+
+    System.setProperty(LEGACY_PROPERTY, "old-master-key");
+    final EncryptionUtil util = util("master-key", "k1");
+
+    assertEquals("written before rotation", util.decrypt(legacy));
+    assertEquals("written after rotation", util.decrypt(unlabelledActive));
+  }
+
+  @Test
+  void reencryptLabelsWithTheActiveKey() {
+    final EncryptionUtil util = util("master-key", "k1");
+    final String legacy = withoutKeyId(util.encrypt("whsec"));
+
+    assertTrue(util.needsReencryption(legacy));
+    final String migrated = util.reencrypt(legacy);
+    assertFalse(util.needsReencryption(migrated));
+    assertEquals("whsec", util.decrypt(migrated));
+    assertEquals(migrated, util.reencrypt(migrated));
+  }
+
+  @Test
+  void unknownKeyIdIsRejected() {
+    final String other = util("master-key", "k9").encrypt("x");
+
+    assertThrows(IllegalStateException.class, () -> util("master-key", "k1").decrypt(other));
+  }
+
+  private static EncryptionUtil util(final String masterKey, final String keyId) {
+    final EncryptionUtil util = new EncryptionUtil();
+    util.masterKey = masterKey;
+    util.activeKeyId = keyId;
+    util.retiredKeyIds = Optional.empty();
+    util.init();
+    return util;
+  }
+
+  private static String withoutKeyId(final String ciphertext) {
+    return ciphertext.substring(ciphertext.indexOf(':') + 1);
+  }
+}
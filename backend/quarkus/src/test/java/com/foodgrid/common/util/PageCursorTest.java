@@ -0,0 +1,55 @@
+package com.foodgrid.common.util;
+
+import com.foodgrid.common.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+  @Test
+  void roundTripKeepsNanosAndId() {
+    final PageCursor cursor = PageCursor.after(Instant.parse("2025-03-01T10:15:30.123456789Z"), Ids.uuid());
+
+    assertEquals(cursor, PageCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void roundTripKeepsIdsContainingSeparators() {
+    final PageCursor cursor = PageCursor.after(Instant.EPOCH, "ext:order.42");
+
+    assertEquals(cursor, PageCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void tokenIsUrlSafe() {
+    final String token = PageCursor.after(Instant.now(), "id?with/slashes+").encode();
+
+    assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+  }
+
+  @Test
+  void missingTokenMeansFirstPage() {
+    assertNull(PageCursor.decode(null));
+    assertNull(PageCursor.decode(" "));
+  }
+
+  @Test
+  void malformedTokensAreRejected() {
+    assertThrows(ValidationException.class, () -> PageCursor.decode("not base64!"));
+    assertThrows(ValidationException.class, () -> PageCursor.decode(encode("1700000000:id")));
+    assertThrows(ValidationException.class, () -> PageCursor.decode(encode("1700000000.5:")));
+    assertThrows(ValidationException.class, () -> PageCursor.decode(encode("x.5:id")));
+  }
+
+  private static String encode(final String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
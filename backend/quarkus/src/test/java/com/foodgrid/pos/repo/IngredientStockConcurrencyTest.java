@@ -0,0 +1,99 @@
+package com.foodgrid.pos.repo;
+
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.pos.model.Ingredient;
+import com.foodgrid.testsupport.RequiresDatabase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stock movements race on one ingredient row; {@link IngredientRepository#applyStockDelta} must not lose any.
+ */
+@QuarkusTest
+@RequiresDatabase
+class IngredientStockConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int MOVEMENTS = 400;
+
+  @Inject IngredientRepository repository;
+
+  @Test
+  void concurrentDeltasAreAllApplied() throws Exception {
+    final String outletId = Ids.uuid();
+    final String id = createIngredient(outletId, new BigDecimal("100"));
+
+    // Half receive 3, half consume 1: 100 + 200 * 3 - 200 * 1
+    final List<Boolean> applied = runConcurrently(MOVEMENTS, i ->
+      repository.applyStockDelta(id, outletId, i % 2 == 0 ? new BigDecimal("3") : BigDecimal.ONE.negate(), false));
+
+    assertEquals(MOVEMENTS, applied.stream().filter(Boolean::booleanValue).count());
+    assertEquals(0, new BigDecimal("500").compareTo(currentStock(id, outletId)));
+  }
+
+  @Test
+  void concurrentDeductionsNeverOversell() throws Exception {
+    final String outletId = Ids.uuid();
+    final String id = createIngredient(outletId, new BigDecimal("25"));
+
+    final List<Boolean> applied = runConcurrently(100, i ->
+      repository.applyStockDelta(id, outletId, BigDecimal.ONE.negate(), true));
+
+    assertEquals(25, applied.stream().filter(Boolean::booleanValue).count());
+    assertEquals(0, BigDecimal.ZERO.compareTo(currentStock(id, outletId)));
+  }
+
+  private interface Movement {
+    boolean apply(int index);
+  }
+
+  /** Runs each movement in its own transaction, {@link #THREADS} at a time. */
+  private static List<Boolean> runConcurrently(final int count, final Movement movement) throws Exception {
+    final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    try {
+      final List<Callable<Boolean>> tasks = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        final int index = i;
+        tasks.add(() -> QuarkusTransaction.requiringNew().call(() -> movement.apply(index)));
+      }
+      final List<Boolean> results = new ArrayList<>(count);
+      for (final Future<Boolean> f : pool.invokeAll(tasks)) {
+        results.add(f.get());
+      }
+      return results;
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+  }
+
+  private String createIngredient(final String outletId, final BigDecimal stock) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      final Ingredient ingredient = new Ingredient();
+      ingredient.id = Ids.uuid();
+      ingredient.outletId = outletId;
+      ingredient.name = "Stress test flour";
+      ingredient.unitId = Ids.uuid();
+      ingredient.currentStock = stock;
+      repository.persist(ingredient);
+      return ingredient.id;
+    });
+  }
+
+  private BigDecimal currentStock(final String id, final String outletId) {
+    return QuarkusTransaction.requiringNew().call(() -> repository.findCurrentStock(id, outletId).orElseThrow());
+  }
+}
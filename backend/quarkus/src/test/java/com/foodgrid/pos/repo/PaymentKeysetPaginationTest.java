@@ -0,0 +1,111 @@
+package com.foodgrid.pos.repo;
+
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.common.util.PageCursor;
+import com.foodgrid.pos.model.Payment;
+import com.foodgrid.testsupport.RequiresDatabase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks {@link PaymentRepository#findByClientIdAfter} page by page, the way the client listing does.
+ */
+@QuarkusTest
+@RequiresDatabase
+class PaymentKeysetPaginationTest {
+
+  private static final Instant BASE = Instant.parse("2025-01-01T12:00:00Z");
+
+  @Inject PaymentRepository repository;
+  @Inject EntityManager em;
+
+  @Test
+  void pagesCoverEveryRowOnceAcrossEqualTimestamps() {
+    final String clientId = Ids.uuid();
+    // 23 rows over 5 distinct timestamps, so most page boundaries fall between rows with the same createdAt
+    final List<Payment> seeded = seed(clientId, 23, 5);
+    final List<String> expected = seeded.stream()
+      .sorted(Comparator.comparing((Payment p) -> p.createdAt).thenComparing(p -> p.id).reversed())
+      .map(p -> p.id)
+      .toList();
+
+    final List<String> walked = new ArrayList<>();
+    final List<Integer> pageSizes = new ArrayList<>();
+    PageCursor after = null;
+    do {
+      final PageCursor cursor = after;
+      final List<Payment> page = QuarkusTransaction.requiringNew().call(() ->
+        repository.findByClientIdAfter(clientId, null, null, null, null, cursor, 4));
+      page.forEach(p -> walked.add(p.id));
+      pageSizes.add(page.size());
+      // Cursors travel as tokens between requests
+      after = page.size() < 4 ? null
+        : PageCursor.decode(PageCursor.after(page.get(3).createdAt, page.get(3).id).encode());
+    } while (after != null);
+
+    assertEquals(expected, walked);
+    assertEquals(List.of(4, 4, 4, 4, 4, 3), pageSizes);
+  }
+
+  @Test
+  void cursorAtLastRowReturnsEmptyPage() {
+    final String clientId = Ids.uuid();
+    final List<Payment> seeded = seed(clientId, 3, 1);
+    final Payment oldest = seeded.stream().min(Comparator.comparing((Payment p) -> p.id)).orElseThrow();
+
+    final List<Payment> page = QuarkusTransaction.requiringNew().call(() ->
+      repository.findByClientIdAfter(clientId, null, null, null, null, PageCursor.after(oldest.createdAt, oldest.id), 10));
+
+    assertTrue(page.isEmpty());
+  }
+
+  @Test
+  void keysetQueryUsesClientCreatedIndex() {
+    final String clientId = Ids.uuid();
+    seed(clientId, 50, 10);
+
+    @SuppressWarnings("unchecked")
+    final List<Map<String, Object>> plan = QuarkusTransaction.requiringNew().call(() -> em.createNativeQuery(
+        "explain select id from payments where client_id = ?1 and (created_at < ?2 or (created_at = ?2 and id < ?3)) " +
+          "order by created_at desc, id desc limit 21", Map.class)
+      .setParameter(1, clientId)
+      .setParameter(2, BASE.plusSeconds(5))
+      .setParameter(3, "~")
+      .getResultList());
+
+    assertEquals(1, plan.size(), plan.toString());
+    assertEquals("idx_payments_client_created", plan.get(0).get("key"), plan.toString());
+  }
+
+  private List<Payment> seed(final String clientId, final int rows, final int timestamps) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      final List<Payment> payments = new ArrayList<>(rows);
+      for (int i = 0; i < rows; i++) {
+        final Payment p = new Payment();
+        p.id = Ids.uuid();
+        p.orderId = Ids.uuid();
+        p.clientId = clientId;
+        p.method = Payment.Method.CASH;
+        p.amount = BigDecimal.TEN;
+        p.status = Payment.Status.CAPTURED;
+        p.createdAt = BASE.plusSeconds(i % timestamps);
+        repository.persist(p);
+        payments.add(p);
+      }
+      return payments;
+    });
+  }
+}
@@ -0,0 +1,134 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.auth.model.Outlet;
+import com.foodgrid.common.multitenancy.TenantContext;
+import com.foodgrid.common.sql.SqlStatements;
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.pos.dto.OrderResponse;
+import com.foodgrid.pos.model.DiningTable;
+import com.foodgrid.pos.model.MenuItem;
+import com.foodgrid.pos.model.MenuItemImage;
+import com.foodgrid.pos.model.Order;
+import com.foodgrid.testsupport.Fixtures;
+import com.foodgrid.testsupport.RequiresDatabase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order listings are hydrated by {@link OrderHydrator} with one IN-query each for items, item images, outlet
+ * names and table names, so a page of 60 orders costs as many statements as a page of 3.
+ */
+@QuarkusTest
+@RequiresDatabase
+@TestSecurity(user = "statement-count-test")
+class OrderListingStatementCountTest {
+
+  /** Orders, items, item images, outlet names, table names. */
+  private static final int LISTING_BUDGET = 5;
+  private static final int LINES_PER_ORDER = 3;
+
+  @Inject OrderPosService service;
+  @Inject TenantContext tenantContext;
+
+  @Test
+  void listRecentStatementCountDoesNotGrowWithOrders() {
+    final String tenantId = Ids.uuid();
+    tenantContext.setTenantId(tenantId);
+    final Outlet small = outletWithOrders(tenantId, 3);
+    final Outlet large = outletWithOrders(tenantId, 60);
+    // Warm the outlet tenancy cache for both outlets
+    service.listRecent(1, small.id);
+    service.listRecent(1, large.id);
+
+    final var few = SqlStatements.count(() -> service.listRecent(200, small.id));
+    final var many = SqlStatements.count(() -> service.listRecent(200, large.id));
+
+    assertEquals(3, few.result().size());
+    assertEquals(60, many.result().size());
+    assertHydrated(many.result(), large);
+    assertTrue(few.statements() > 0, "statements were not counted");
+    assertEquals(few.statements(), many.statements(), "statement count grew with orders");
+    assertTrue(many.statements() <= LISTING_BUDGET, "listRecent issued " + many.statements() + " statements");
+  }
+
+  @Test
+  void listByRangeStatementCountIsFixed() {
+    final String tenantId = Ids.uuid();
+    tenantContext.setTenantId(tenantId);
+    final Outlet outlet = outletWithOrders(tenantId, 40);
+    service.listRecent(1, outlet.id);
+
+    final Instant now = Instant.now();
+    final var listed = SqlStatements.count(() -> service.listByRange(outlet.id, now.minusSeconds(3600), now.plusSeconds(3600)));
+
+    assertEquals(40, listed.result().size());
+    assertHydrated(listed.result(), outlet);
+    assertTrue(listed.statements() <= LISTING_BUDGET, "listByRange issued " + listed.statements() + " statements");
+  }
+
+  private static void assertHydrated(final List<OrderResponse> orders, final Outlet outlet) {
+    for (final OrderResponse o : orders) {
+      assertEquals(outlet.name, o.outletName());
+      assertEquals("Table " + o.tableId(), o.tableName());
+      assertEquals(LINES_PER_ORDER, o.items().size());
+      o.items().forEach(i -> assertEquals("https://img.test/" + i.itemId() + "/primary.jpg", i.imageUrl()));
+    }
+  }
+
+  /** Each order sits at its own table and has lines for distinct menu items, each with two images. */
+  private Outlet outletWithOrders(final String tenantId, final int orders) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      final Outlet outlet = Fixtures.outlet(tenantId);
+      outlet.name = "Outlet " + outlet.id;
+      outlet.persist();
+      for (int n = 0; n < orders; n++) {
+        final DiningTable table = table(outlet);
+        table.persist();
+        final Order order = Fixtures.order(outlet);
+        order.tableId = table.id;
+        order.persist();
+        for (int l = 0; l < LINES_PER_ORDER; l++) {
+          final MenuItem item = Fixtures.menuItem(outlet, "50.00");
+          item.persist();
+          image(item, 0, false).persist();
+          image(item, 1, true).persist();
+          Fixtures.orderItem(order, item).persist();
+        }
+      }
+      return outlet;
+    });
+  }
+
+  private static DiningTable table(final Outlet outlet) {
+    final DiningTable t = new DiningTable();
+    t.id = Ids.uuid();
+    t.outletId = outlet.id;
+    t.tableCode = t.id.substring(0, 8);
+    t.displayName = "Table " + t.id;
+    t.capacity = 4;
+    t.status = DiningTable.Status.ACTIVE;
+    t.createdAt = new Date();
+    t.updatedAt = t.createdAt;
+    return t;
+  }
+
+  private static MenuItemImage image(final MenuItem item, final int sortOrder, final boolean primary) {
+    final MenuItemImage img = new MenuItemImage();
+    img.id = Ids.uuid();
+    img.menuItemId = item.id;
+    img.imageUrl = "https://img.test/" + item.id + (primary ? "/primary.jpg" : "/" + sortOrder + ".jpg");
+    img.sortOrder = sortOrder;
+    img.isPrimary = primary;
+    return img;
+  }
+}
@@ -0,0 +1,98 @@
+package com.foodgrid.pos.service;
+
+import com.foodgrid.auth.model.Outlet;
+import com.foodgrid.common.multitenancy.TenantContext;
+import com.foodgrid.common.sql.SqlStatements;
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.pos.dto.OrderAddItemRequest;
+import com.foodgrid.pos.dto.OrderResponse;
+import com.foodgrid.pos.model.MenuItem;
+import com.foodgrid.pos.model.Order;
+import com.foodgrid.testsupport.Fixtures;
+import com.foodgrid.testsupport.RequiresDatabase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * An order mutation loads the order and its items once ({@code loadForUpdate}), updates totals in place
+ * ({@code adjustSubtotal}) and hydrates the response from what it loaded, so its statement count must not grow
+ * with the number of lines on the order.
+ */
+@QuarkusTest
+@RequiresDatabase
+@TestSecurity(user = "statement-count-test")
+class OrderPosServiceStatementCountTest {
+
+  /** Lock + items, menu item, item images, then the line insert and order update at flush. */
+  private static final int ADD_ITEM_BUDGET = 8;
+
+  @Inject OrderPosService service;
+  @Inject TenantContext tenantContext;
+
+  private Outlet outlet;
+  private MenuItem menuItem;
+
+  /** Seeds in the test method itself: the tenant lives in the method's request context. */
+  private void seed() {
+    final String tenantId = Ids.uuid();
+    tenantContext.setTenantId(tenantId);
+    QuarkusTransaction.requiringNew().run(() -> {
+      outlet = Fixtures.outlet(tenantId);
+      outlet.persist();
+      menuItem = Fixtures.menuItem(outlet, "120.00");
+      menuItem.persist();
+    });
+    // Warm the outlet tenancy cache so both measurements below see the same lookups
+    service.addItem(orderWithLines(0), new OrderAddItemRequest(menuItem.id, BigDecimal.ONE));
+  }
+
+  @Test
+  void addItemStatementCountDoesNotGrowWithOrderLines() {
+    seed();
+    final String small = orderWithLines(1);
+    final String large = orderWithLines(40);
+
+    final var fewLines = SqlStatements.count(() -> service.addItem(small, new OrderAddItemRequest(menuItem.id, BigDecimal.ONE)));
+    final var manyLines = SqlStatements.count(() -> service.addItem(large, new OrderAddItemRequest(menuItem.id, BigDecimal.ONE)));
+
+    assertEquals(2, fewLines.result().items().size());
+    assertEquals(41, manyLines.result().items().size());
+    assertTrue(fewLines.statements() > 0, "statements were not counted");
+    assertEquals(fewLines.statements(), manyLines.statements(), "statement count grew with order lines");
+    assertTrue(manyLines.statements() <= ADD_ITEM_BUDGET, "addItem issued " + manyLines.statements() + " statements");
+  }
+
+  @Test
+  void cancelItemUpdatesSubtotalWithoutReloading() {
+    seed();
+    final String orderId = orderWithLines(30);
+    final OrderResponse before = service.get(orderId);
+    final String lineId = before.items().get(0).id();
+
+    final var cancelled = SqlStatements.count(() -> service.cancelItem(orderId, lineId));
+
+    assertEquals(0, before.subtotal().subtract(menuItem.basePrice).compareTo(cancelled.result().subtotal()));
+    assertTrue(cancelled.statements() <= ADD_ITEM_BUDGET, "cancelItem issued " + cancelled.statements() + " statements");
+  }
+
+  private String orderWithLines(final int lines) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      final Order order = Fixtures.order(outlet);
+      order.subtotal = menuItem.basePrice.multiply(BigDecimal.valueOf(lines));
+      order.grandTotal = order.subtotal;
+      order.persist();
+      for (int i = 0; i < lines; i++) {
+        Fixtures.orderItem(order, menuItem).persist();
+      }
+      return order.id;
+    });
+  }
+}
@@ -0,0 +1,74 @@
+package com.foodgrid.testsupport;
+
+import com.foodgrid.auth.model.Outlet;
+import com.foodgrid.common.util.Ids;
+import com.foodgrid.pos.model.MenuItem;
+import com.foodgrid.pos.model.Order;
+import com.foodgrid.pos.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Minimal valid entities for tests; callers persist them and override what the test is about.
+ */
+public final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  public static Outlet outlet(final String tenantId) {
+    final Outlet o = new Outlet();
+    o.id = Ids.uuid();
+    o.ownerId = Ids.uuid();
+    o.clientId = tenantId;
+    o.name = "Test outlet";
+    o.timezone = "Asia/Kolkata";
+    o.status = Outlet.Status.ACTIVE;
+    return o;
+  }
+
+  public static MenuItem menuItem(final Outlet outlet, final String price) {
+    final MenuItem mi = new MenuItem();
+    mi.id = Ids.uuid();
+    mi.outletId = outlet.id;
+    mi.tenantId = outlet.clientId;
+    mi.name = "Test item";
+    mi.basePrice = new BigDecimal(price);
+    mi.status = MenuItem.Status.ACTIVE;
+    mi.createdAt = new Date();
+    mi.updatedAt = mi.createdAt;
+    return mi;
+  }
+
+  public static Order order(final Outlet outlet) {
+    final Order o = new Order();
+    o.id = Ids.uuid();
+    o.outletId = outlet.id;
+    o.tenantId = outlet.clientId;
+    o.orderType = Order.OrderType.TAKEAWAY;
+    o.status = Order.Status.OPEN;
+    o.subtotal = BigDecimal.ZERO;
+    o.taxTotal = BigDecimal.ZERO;
+    o.discountTotal = BigDecimal.ZERO;
+    o.grandTotal = BigDecimal.ZERO;
+    o.createdAt = Instant.now();
+    o.updatedAt = o.createdAt;
+    return o;
+  }
+
+  public static OrderItem orderItem(final Order order, final MenuItem item) {
+    final OrderItem oi = new OrderItem();
+    oi.id = Ids.uuid();
+    oi.orderId = order.id;
+    oi.itemId = item.id;
+    oi.itemName = item.name;
+    oi.qty = BigDecimal.ONE;
+    oi.unitPrice = item.basePrice;
+    oi.lineTotal = item.basePrice;
+    oi.status = OrderItem.Status.OPEN;
+    oi.createdAt = Instant.now();
+    return oi;
+  }
+}
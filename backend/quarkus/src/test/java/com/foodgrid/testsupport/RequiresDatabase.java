@@ -0,0 +1,18 @@
+package com.foodgrid.testsupport;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @QuarkusTest} that needs MySQL: either Dev Services (a Docker daemon) or a database given with
+ * {@code -Dquarkus.datasource.jdbc.url=...}. Without one the test is skipped rather than failing the build.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@EnabledIf("com.foodgrid.testsupport.TestDatabase#available")
+public @interface RequiresDatabase {
+}
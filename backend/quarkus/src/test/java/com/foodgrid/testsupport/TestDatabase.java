@@ -0,0 +1,16 @@
+package com.foodgrid.testsupport;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class TestDatabase {
+
+  private TestDatabase() {
+  }
+
+  public static boolean available() {
+    return System.getProperty("quarkus.datasource.jdbc.url") != null
+      || System.getenv("DOCKER_HOST") != null
+      || Files.exists(Path.of("/var/run/docker.sock"));
+  }
+}
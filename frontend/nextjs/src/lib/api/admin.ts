@@ -524,6 +524,7 @@ export type GlobalAnalyticsResponse = {
   activeSubscriptions: number;
   recentTenants: TenantResponse[];
   revenueByMonth: { month: string; amount: number }[];
+  topTenantsByRevenue: { clientId: string; name: string; amount: number }[];
 };
 
 export function getGlobalAnalytics() {